@@ -0,0 +1,39 @@
+package com.proyecto.challengejava.config;
+
+import com.proyecto.challengejava.enums.IngestionMode;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Settings of the accreditation ingestion, bound from {@code accreditations.ingestion.*}.
+ */
+@Component
+@ConfigurationProperties(prefix = "accreditations.ingestion")
+public class IngestionProperties {
+
+    // sync saves each accreditation before answering; journal answers once it is in the local journal
+    private IngestionMode mode = IngestionMode.SYNC;
+    // Append-only journal of the accreditations not yet written to the database
+    private String journalFile = "accreditation-data/accreditations.journal";
+    // Most accreditations written by one multi-row insert
+    private int batchSize = 500;
+    // Longest time an accreditation waits for its batch to fill before it is written
+    private long flushIntervalMillis = 200;
+    // Journaled accreditations not yet written to the database before new ones are held back
+    private int maxPending = 50000;
+    // How long a held-back accreditation waits for room before it is rejected with 503
+    private long backpressureTimeoutMillis = 1000;
+
+    public IngestionMode getMode() { return mode; }
+    public void setMode(IngestionMode mode) { this.mode = mode; }
+    public String getJournalFile() { return journalFile; }
+    public void setJournalFile(String journalFile) { this.journalFile = journalFile; }
+    public int getBatchSize() { return batchSize; }
+    public void setBatchSize(int batchSize) { this.batchSize = batchSize; }
+    public long getFlushIntervalMillis() { return flushIntervalMillis; }
+    public void setFlushIntervalMillis(long flushIntervalMillis) { this.flushIntervalMillis = flushIntervalMillis; }
+    public int getMaxPending() { return maxPending; }
+    public void setMaxPending(int maxPending) { this.maxPending = maxPending; }
+    public long getBackpressureTimeoutMillis() { return backpressureTimeoutMillis; }
+    public void setBackpressureTimeoutMillis(long backpressureTimeoutMillis) { this.backpressureTimeoutMillis = backpressureTimeoutMillis; }
+}
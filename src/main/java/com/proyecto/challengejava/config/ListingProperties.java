@@ -0,0 +1,26 @@
+package com.proyecto.challengejava.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Settings of the accreditation listing and export, bound from {@code accreditations.listing.*}.
+ */
+@Component
+@ConfigurationProperties(prefix = "accreditations.listing")
+public class ListingProperties {
+
+    // Accreditations per page when the request does not ask for a size
+    private int pageSize = 100;
+    // Largest page a request may ask for; bigger sizes are cut down to it
+    private int maxPageSize = 1000;
+    // Rows the driver fetches per round trip while an export streams; MySQL needs useCursorFetch=true to honor it
+    private int exportFetchSize = 1000;
+
+    public int getPageSize() { return pageSize; }
+    public void setPageSize(int pageSize) { this.pageSize = pageSize; }
+    public int getMaxPageSize() { return maxPageSize; }
+    public void setMaxPageSize(int maxPageSize) { this.maxPageSize = maxPageSize; }
+    public int getExportFetchSize() { return exportFetchSize; }
+    public void setExportFetchSize(int exportFetchSize) { this.exportFetchSize = exportFetchSize; }
+}
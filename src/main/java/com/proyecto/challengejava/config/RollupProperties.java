@@ -0,0 +1,18 @@
+package com.proyecto.challengejava.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Settings of the per-point daily accreditation rollups, bound from {@code accreditations.rollup.*}.
+ */
+@Component
+@ConfigurationProperties(prefix = "accreditations.rollup")
+public class RollupProperties {
+
+    // Seconds between writes of the changed rollups to the accreditation_rollup table; 0 writes only on shutdown
+    private int flushIntervalSeconds = 10;
+
+    public int getFlushIntervalSeconds() { return flushIntervalSeconds; }
+    public void setFlushIntervalSeconds(int flushIntervalSeconds) { this.flushIntervalSeconds = flushIntervalSeconds; }
+}
@@ -0,0 +1,83 @@
+package com.proyecto.challengejava.config;
+
+import com.proyecto.challengejava.enums.RouteEngineType;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Settings of the route calculation between sales points, bound from {@code costs.routing.*}.
+ */
+@Component
+@ConfigurationProperties(prefix = "costs.routing")
+public class RoutingProperties {
+
+    // Algorithm used by /api/costs/min: dijkstra, bidirectional, alt, ch or matrix
+    private RouteEngineType engine = RouteEngineType.DIJKSTRA;
+    // Number of landmarks precomputed by the ALT engine
+    private int landmarks = 8;
+    // Largest graph, in points, for which the matrix engine keeps all-pairs tables
+    private int matrixMaxPoints = 2000;
+    // Maximum number of routes kept by the route cache; 0 disables it
+    private int cacheSize = 10000;
+    // Threads that run batch origin groups, matrix rows and alternative-route spur searches in parallel
+    private int batchThreads = 4;
+    // Maximum number of pairs accepted by /api/costs/min/batch
+    private int batchMaxPairs = 1000;
+    // Maximum number of cells (sources x targets) accepted by /api/costs/matrix
+    private int matrixMaxCells = 250000;
+    // Maximum k accepted by /api/costs/min/alternatives
+    private int maxAlternatives = 10;
+    // Number of most queried origins whose shortest-path trees are kept up to date; 0 disables them
+    private int hotOrigins = 4;
+    // Queries an origin needs before it can become a hot origin
+    private int hotOriginMinQueries = 8;
+    // Binary graph snapshot file loaded on startup when it matches the database; empty disables it
+    private String snapshotFile = "";
+    // Seconds between periodic writes of the graph snapshot file; 0 writes it on shutdown only
+    private int snapshotIntervalSeconds = 300;
+    // Costs read per keyset page when the cache is loaded from the database
+    private int hydrationPageSize = 10000;
+    // Loads the cache on a background thread; /api/costs/ready and the route queries answer 503 until it finishes
+    private boolean hydrateInBackground = false;
+    // Deadline of /api/costs/min in milliseconds, lowered per request with X-Route-Deadline-Ms; 0 runs it inline without one
+    private long routeDeadlineMillis = 0;
+    // Threads that run /api/costs/min computations with a deadline
+    private int routeThreads = 8;
+    // Computations that may wait for a route thread; further requests are rejected with 503
+    private int routeQueueSize = 64;
+
+    public RouteEngineType getEngine() { return engine; }
+    public void setEngine(RouteEngineType engine) { this.engine = engine; }
+    public int getLandmarks() { return landmarks; }
+    public void setLandmarks(int landmarks) { this.landmarks = landmarks; }
+    public int getMatrixMaxPoints() { return matrixMaxPoints; }
+    public void setMatrixMaxPoints(int matrixMaxPoints) { this.matrixMaxPoints = matrixMaxPoints; }
+    public int getCacheSize() { return cacheSize; }
+    public void setCacheSize(int cacheSize) { this.cacheSize = cacheSize; }
+    public int getBatchThreads() { return batchThreads; }
+    public void setBatchThreads(int batchThreads) { this.batchThreads = batchThreads; }
+    public int getBatchMaxPairs() { return batchMaxPairs; }
+    public void setBatchMaxPairs(int batchMaxPairs) { this.batchMaxPairs = batchMaxPairs; }
+    public int getMatrixMaxCells() { return matrixMaxCells; }
+    public void setMatrixMaxCells(int matrixMaxCells) { this.matrixMaxCells = matrixMaxCells; }
+    public int getMaxAlternatives() { return maxAlternatives; }
+    public void setMaxAlternatives(int maxAlternatives) { this.maxAlternatives = maxAlternatives; }
+    public int getHotOrigins() { return hotOrigins; }
+    public void setHotOrigins(int hotOrigins) { this.hotOrigins = hotOrigins; }
+    public int getHotOriginMinQueries() { return hotOriginMinQueries; }
+    public void setHotOriginMinQueries(int hotOriginMinQueries) { this.hotOriginMinQueries = hotOriginMinQueries; }
+    public String getSnapshotFile() { return snapshotFile; }
+    public void setSnapshotFile(String snapshotFile) { this.snapshotFile = snapshotFile; }
+    public int getSnapshotIntervalSeconds() { return snapshotIntervalSeconds; }
+    public void setSnapshotIntervalSeconds(int snapshotIntervalSeconds) { this.snapshotIntervalSeconds = snapshotIntervalSeconds; }
+    public int getHydrationPageSize() { return hydrationPageSize; }
+    public void setHydrationPageSize(int hydrationPageSize) { this.hydrationPageSize = hydrationPageSize; }
+    public boolean isHydrateInBackground() { return hydrateInBackground; }
+    public void setHydrateInBackground(boolean hydrateInBackground) { this.hydrateInBackground = hydrateInBackground; }
+    public long getRouteDeadlineMillis() { return routeDeadlineMillis; }
+    public void setRouteDeadlineMillis(long routeDeadlineMillis) { this.routeDeadlineMillis = routeDeadlineMillis; }
+    public int getRouteThreads() { return routeThreads; }
+    public void setRouteThreads(int routeThreads) { this.routeThreads = routeThreads; }
+    public int getRouteQueueSize() { return routeQueueSize; }
+    public void setRouteQueueSize(int routeQueueSize) { this.routeQueueSize = routeQueueSize; }
+}
@@ -8,10 +8,11 @@ public class Constants {
     public static final String AUTHORIZATION = "Authorization";
     public static final String OPTIONS = "OPTIONS";
     public static final String BEARER = "Bearer ";
+    public static final String ROUTE_DEADLINE_HEADER = "X-Route-Deadline-Ms";
 
-    /* System.println */
-    public static final String LOADED_CACHE = "✅ Cache loaded with key: ";
-    public static final String AVAILABLE_CACHE = "📦 Available cache: ";
+    /* Cache hydration sources */
+    public static final String HYDRATION_SNAPSHOT = "snapshot";
+    public static final String HYDRATION_DATABASE = "database";
 
     /* Assemblers */
     public static final String SEE_ALL_POINTS_OF_SALE = "see-all-points-of-sale";
@@ -30,6 +31,19 @@ public class Constants {
     public static final String POINT_OF_SALE_ALREADY_EXISTS = "The point of sale already exists";
     public static final String INVALID_FORMAT = "Invalid format in the request. Please check the submitted values.";
     public static final String USER_NOT_FOUND = "Username not found with email: ";
-    public static final String MISSING_KEY = "❌ Missing key in cache: ";
     public static final String MISSING_COST_BETWEEN = "Missing cost between ";
+    public static final String NO_ROUTE_BETWEEN = "No route between %d and %d";
+    public static final String BATCH_TOO_LARGE = "The batch cannot contain more than %d pairs";
+    public static final String INVALID_ALTERNATIVES = "The number of routes must be between 1 and %d";
+    public static final String MATRIX_TOO_LARGE = "The matrix cannot contain more than %d cells";
+    public static final String INVALID_MAX_COST = "The cost budget must be zero or greater";
+    public static final String ROUTE_DEADLINE_EXCEEDED = "No route between %d and %d was found within %d ms";
+    public static final String ROUTE_EXECUTOR_BUSY = "Too many route computations in progress";
+    public static final String INVALID_ROUTE_DEADLINE = "The route deadline must be greater than zero";
+    public static final String INVALID_CURSOR = "Invalid accreditation cursor";
+    public static final String INVALID_DATE_RANGE = "The start date cannot be after the end date";
+    public static final String INVALID_PAGE_SIZE = "The page size must be greater than zero";
+    public static final String INVALID_ACCREDITATION = "The accreditation does not fit the accreditation table";
+    public static final String GRAPH_HYDRATING = "The cost cache is still loading, try again later";
+    public static final String INGESTION_BACKPRESSURE = "Too many accreditations waiting to be written, try again later";
 }
\ No newline at end of file
@@ -1,22 +1,35 @@
 package com.proyecto.challengejava.controller;
 
+import com.proyecto.challengejava.dto.AccreditationCursor;
+import com.proyecto.challengejava.dto.AccreditationPage;
 import com.proyecto.challengejava.dto.AccreditationRequest;
 import com.proyecto.challengejava.dto.AccreditationResponse;
+import com.proyecto.challengejava.dto.AccreditationRollupResponse;
+import com.proyecto.challengejava.dto.AccreditationTotalResponse;
+import com.proyecto.challengejava.dto.IngestionStats;
 import com.proyecto.challengejava.entity.Accreditation;
 import com.proyecto.challengejava.hateoas.AccreditationModelAssembler;
-import com.proyecto.challengejava.mapper.AccreditationMapper;
 import com.proyecto.challengejava.service.AccreditationService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
+import java.util.stream.Stream;
 
 import static com.proyecto.challengejava.mapper.AccreditationMapper.mapToResponse;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 
 /**
  * REST controller for handling operations related to accreditations.
@@ -27,22 +40,28 @@ public class AccreditationController {
 
     private final AccreditationService service;
     private final AccreditationModelAssembler accreditationAssembler;
+    private final ObjectMapper objectMapper;
 
     /**
      * Constructor that injects the required dependencies.
      *
      * @param service               Service responsible for the business logic of accreditations.
      * @param accreditationAssembler Assembler to convert responses into HATEOAS models.
+     * @param objectMapper          Mapper used to write the export line by line.
      */
     @Autowired
-    public AccreditationController(AccreditationService service, AccreditationModelAssembler accreditationAssembler) {
+    public AccreditationController(AccreditationService service, AccreditationModelAssembler accreditationAssembler,
+                                   ObjectMapper objectMapper) {
         this.service = service;
         this.accreditationAssembler = accreditationAssembler;
+        this.objectMapper = objectMapper;
     }
 
     /**
      * Endpoint to receive an accreditation and store it in the database.
      *
+     * <p>Answers 202 without an ID when the accreditation was journaled to be written behind.</p>
+     *
      * @param request Object containing the accreditation data, including amount and sales point ID.
      * @return HTTP response with the HATEOAS model of the created accreditation.
      */
@@ -50,22 +69,110 @@ public class AccreditationController {
     public ResponseEntity<AccreditationResponse> receiveAccreditation(@RequestBody @Valid AccreditationRequest request) {
         Accreditation accreditation = service.receiveAccreditation(request.getAmount(), request.getIdPointSale());
         AccreditationResponse response = mapToResponse(accreditation);
-        return ResponseEntity.ok(accreditationAssembler.toModel(response));
+        HttpStatus status = accreditation.getId() == null ? HttpStatus.ACCEPTED : HttpStatus.OK;
+        return ResponseEntity.status(status).body(accreditationAssembler.toModel(response));
+    }
+
+    /**
+     * Endpoint to retrieve the state of the accreditation ingestion: pending accreditations, journal size,
+     * write counters and flush latencies.
+     *
+     * @return HTTP response with the ingestion metrics.
+     */
+    @GetMapping("/ingestion")
+    public ResponseEntity<IngestionStats> getIngestionStats() {
+        return ResponseEntity.ok(service.getIngestionStats());
+    }
+
+    /**
+     * Endpoint to retrieve the accreditation count, sum, minimum and maximum of each sales point per day,
+     * answered from the in-memory rollups without reading the accreditations.
+     *
+     * @param idPointSale ID of the sales point to filter by, optional.
+     * @param from        First reception date included (ISO date), optional.
+     * @param to          Last reception date included (ISO date), optional.
+     * @return HTTP response with the rollup of every day with accreditations, by sales point and then by day.
+     */
+    @GetMapping("/rollups")
+    public ResponseEntity<List<AccreditationRollupResponse>> getDailyRollups(
+            @RequestParam(required = false) Long idPointSale,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(service.getDailyRollups(idPointSale, from, to));
     }
 
     /**
-     * Endpoint to retrieve all accreditations stored in the database.
+     * Endpoint to retrieve the accreditation totals of each sales point over a date range,
+     * summed from the daily rollups.
      *
+     * @param idPointSale ID of the sales point to filter by, optional.
+     * @param from        First reception date included (ISO date), optional.
+     * @param to          Last reception date included (ISO date), optional.
+     * @return HTTP response with the totals of every sales point with accreditations in the range.
+     */
+    @GetMapping("/totals")
+    public ResponseEntity<List<AccreditationTotalResponse>> getRangeTotals(
+            @RequestParam(required = false) Long idPointSale,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(service.getRangeTotals(idPointSale, from, to));
+    }
+
+    /**
+     * Endpoint to retrieve one page of accreditations, ordered by reception date and ID.
+     *
+     * <p>Unless it is the last page, the response carries a {@code next} link with the cursor of the
+     * following page and the same filters.</p>
+     *
+     * @param idPointSale ID of the sales point to filter by, optional.
+     * @param from        First reception date included (ISO date), optional.
+     * @param to          Last reception date included (ISO date), optional.
+     * @param cursor      Cursor of the page, taken from the {@code next} link; omitted for the first page.
+     * @param size        Accreditations per page, optional.
      * @return HTTP response with a collection of HATEOAS models of accreditations.
      */
     @GetMapping
-    public ResponseEntity<CollectionModel<AccreditationResponse>> getAccreditations() {
-        List<AccreditationResponse> responses = StreamSupport
-                .stream(service.getAccreditations().spliterator(), false)
-                .map(AccreditationMapper::mapToResponse)
+    public ResponseEntity<CollectionModel<AccreditationResponse>> getAccreditations(
+            @RequestParam(required = false) Long idPointSale,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        AccreditationPage page = service.getAccreditations(idPointSale, from, to,
+                AccreditationCursor.parse(cursor), size);
+        List<AccreditationResponse> responses = page.getAccreditations().stream()
                 .map(accreditationAssembler::toModel)
                 .collect(Collectors.toList());
 
-        return ResponseEntity.ok(CollectionModel.of(responses));
+        CollectionModel<AccreditationResponse> model = CollectionModel.of(responses);
+        if (page.getNext() != null) {
+            model.add(linkTo(methodOn(AccreditationController.class)
+                    .getAccreditations(idPointSale, from, to, page.getNext().toString(), size))
+                    .withRel(IanaLinkRelations.NEXT));
+        }
+        return ResponseEntity.ok(model);
+    }
+
+    /**
+     * Export variant of {@link #getAccreditations}, selected with {@code Accept: application/x-ndjson}.
+     * Every matching accreditation is written as newline-delimited JSON while it is read from the database,
+     * without paging; a {@code cursor} resumes an interrupted export after the last accreditation received.
+     *
+     * @param idPointSale ID of the sales point to filter by, optional.
+     * @param from        First reception date included (ISO date), optional.
+     * @param to          Last reception date included (ISO date), optional.
+     * @param cursor      Accreditation to resume after, optional.
+     * @return Stream of accreditations.
+     */
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportAccreditations(
+            @RequestParam(required = false) Long idPointSale,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String cursor) {
+        Stream<AccreditationResponse> rows = service.exportAccreditations(idPointSale, from, to,
+                AccreditationCursor.parse(cursor));
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON)
+                .body(NdjsonBody.of(objectMapper, rows, false));
     }
 }
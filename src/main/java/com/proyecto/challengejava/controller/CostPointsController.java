@@ -1,19 +1,33 @@
 package com.proyecto.challengejava.controller;
 
+import com.proyecto.challengejava.dto.ComponentsResponse;
 import com.proyecto.challengejava.dto.CostPointsRequest;
 import com.proyecto.challengejava.dto.CostPointsResponse;
+import com.proyecto.challengejava.dto.DistanceMatrixRequest;
+import com.proyecto.challengejava.dto.DistanceMatrixRow;
+import com.proyecto.challengejava.dto.HydrationStatus;
 import com.proyecto.challengejava.dto.MinCostRouteResponse;
+import com.proyecto.challengejava.dto.MstResponse;
+import com.proyecto.challengejava.dto.ReachablePointResponse;
+import com.proyecto.challengejava.dto.RouteBatchRequest;
+import com.proyecto.challengejava.dto.RouteBatchResult;
+import com.proyecto.challengejava.dto.RouteStatsResponse;
 import com.proyecto.challengejava.hateoas.CostPointsModelAssembler;
 import com.proyecto.challengejava.hateoas.MinCostRouteModelAssembler;
 import com.proyecto.challengejava.service.CostPointsService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.hateoas.CollectionModel;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static com.proyecto.challengejava.constants.Constants.*;
 
@@ -27,6 +41,7 @@ public class CostPointsController {
     private final CostPointsService service;
     private final CostPointsModelAssembler costPointsModelAssembler;
     private final MinCostRouteModelAssembler minCostRouteModelAssembler;
+    private final ObjectMapper objectMapper;
 
     /**
      * Constructor that injects required services and assemblers.
@@ -34,13 +49,15 @@ public class CostPointsController {
      * @param service                     Service handling business logic for point-to-point costs.
      * @param costPointsModelAssembler  HATEOAS assembler for cost responses.
      * @param minCostRouteModelAssembler HATEOAS assembler for minimum cost route responses.
+     * @param objectMapper               Mapper used to write streamed responses line by line.
      */
     @Autowired
     public CostPointsController(CostPointsService service, CostPointsModelAssembler costPointsModelAssembler,
-                                MinCostRouteModelAssembler minCostRouteModelAssembler) {
+                                MinCostRouteModelAssembler minCostRouteModelAssembler, ObjectMapper objectMapper) {
         this.service = service;
         this.costPointsModelAssembler = costPointsModelAssembler;
         this.minCostRouteModelAssembler = minCostRouteModelAssembler;
+        this.objectMapper = objectMapper;
     }
 
     /**
@@ -91,20 +108,150 @@ public class CostPointsController {
      *
      * <p>POST is used instead of GET due to Swagger UI limitations with GET requests that contain a body.</p>
      *
-     * @param request Object containing the IDs of points A and B.
-     * @return HATEOAS model with the route and total cost.
+     * <p>The search must finish within the deadline given in the {@code X-Route-Deadline-Ms} header, which cannot
+     * exceed the configured one, or within the configured one; otherwise the request gets a 503 with the progress
+     * made.</p>
+     *
+     * @param request        Object containing the IDs of points A and B.
+     * @param deadlineMillis Optional deadline of the search in milliseconds, greater than zero.
+     * @return HATEOAS model with the route, the cost of each hop, the total cost and the graph snapshot version
+     * they all come from.
      */
     @PostMapping("/min")
-    public ResponseEntity<MinCostRouteResponse> calculateMinCost(@RequestBody @Valid CostPointsRequest request) {
+    public ResponseEntity<MinCostRouteResponse> calculateMinCost(@RequestBody @Valid CostPointsRequest request,
+                                                                 @RequestHeader(value = ROUTE_DEADLINE_HEADER, required = false)
+                                                                 Long deadlineMillis) {
         validateParameters(request.getIdA(), request.getIdB());
 
-        List<Long> route = service.calculateMinPath(request.getIdA(), request.getIdB());
-        Double totalCost = service.calculateTotalRouteCost(route);
-
-        MinCostRouteResponse response = new MinCostRouteResponse(route, totalCost);
+        MinCostRouteResponse response = new MinCostRouteResponse(
+                service.calculateMinCostRoute(request.getIdA(), request.getIdB(), deadlineMillis));
         return ResponseEntity.ok(minCostRouteModelAssembler.toModel(response));
     }
 
+    /**
+     * Endpoint to calculate the {@code k} cheapest loopless routes between two sales points.
+     *
+     * @param request Object containing the IDs of points A and B.
+     * @param k       Maximum number of routes, 3 by default.
+     * @return HATEOAS collection of routes with their total cost, cheapest first.
+     */
+    @PostMapping("/min/alternatives")
+    public ResponseEntity<CollectionModel<MinCostRouteResponse>> calculateAlternativeRoutes(
+            @RequestBody @Valid CostPointsRequest request, @RequestParam(defaultValue = "3") int k) {
+        validateParameters(request.getIdA(), request.getIdB());
+
+        List<MinCostRouteResponse> routes = service.calculateAlternativeRoutes(request.getIdA(), request.getIdB(), k)
+                .stream()
+                .map(MinCostRouteResponse::new)
+                .map(minCostRouteModelAssembler::toModel)
+                .collect(Collectors.toList());
+        return ResponseEntity.ok(CollectionModel.of(routes));
+    }
+
+    /**
+     * Endpoint to calculate the minimum cost routes of many origin/destination pairs in one call.
+     *
+     * <p>Results come back in the order of the request, without HATEOAS links. A pair that is invalid
+     * (equal IDs, unknown point) gets an {@code error} in its own result and does not fail the batch.</p>
+     *
+     * @param request Object containing the list of pairs.
+     * @return Route and total cost, or error, of every pair.
+     */
+    @PostMapping("/min/batch")
+    public ResponseEntity<List<RouteBatchResult>> calculateMinCostBatch(@RequestBody @Valid RouteBatchRequest request) {
+        return ResponseEntity.ok(service.calculateMinPaths(request.getPairs()));
+    }
+
+    /**
+     * Endpoint to calculate the cost matrix between a list of origins and a list of destinations.
+     *
+     * <p>The response is newline-delimited JSON with one row per origin, written as soon as each row
+     * is computed, so rows may arrive in any order. Each row lists its costs in the order of {@code targets},
+     * with {@code null} for unreachable destinations.</p>
+     *
+     * @param request Object containing the origin and destination IDs.
+     * @return Stream of matrix rows.
+     */
+    @PostMapping(value = "/matrix", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> calculateDistanceMatrix(@RequestBody @Valid DistanceMatrixRequest request) {
+        Stream<DistanceMatrixRow> rows = service.calculateDistanceMatrix(request.getSources(), request.getTargets());
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON)
+                .body(NdjsonBody.of(objectMapper, rows, true));
+    }
+
+    /**
+     * Endpoint to find every sales point reachable from an origin within a cost budget.
+     *
+     * @param id      ID of the origin point.
+     * @param maxCost Cost budget.
+     * @return Reachable points with their name and cheapest cost, cheapest first.
+     */
+    @GetMapping("/reachable/{id}")
+    public ResponseEntity<List<ReachablePointResponse>> getReachablePoints(@PathVariable Long id,
+                                                                           @RequestParam Double maxCost) {
+        try (Stream<ReachablePointResponse> points = service.calculateReachablePoints(id, maxCost)) {
+            return ResponseEntity.ok(points.toList());
+        }
+    }
+
+    /**
+     * Streaming variant of {@link #getReachablePoints}, selected with {@code Accept: application/x-ndjson}.
+     * Points are written as newline-delimited JSON while the search settles them, cheapest first.
+     *
+     * @param id      ID of the origin point.
+     * @param maxCost Cost budget.
+     * @return Stream of reachable points.
+     */
+    @GetMapping(value = "/reachable/{id}", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamReachablePoints(@PathVariable Long id,
+                                                                       @RequestParam Double maxCost) {
+        Stream<ReachablePointResponse> points = service.calculateReachablePoints(id, maxCost);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON)
+                .body(NdjsonBody.of(objectMapper, points, false));
+    }
+
+    /**
+     * Endpoint to report the route engine in use and how many nodes each route query settled.
+     *
+     * @return Statistics of the route queries.
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<RouteStatsResponse> getRouteStats() {
+        return ResponseEntity.ok(service.getRouteStats());
+    }
+
+    /**
+     * Endpoint to summarize the connected components of the cost graph.
+     *
+     * @return Number of components and their sizes, largest first.
+     */
+    @GetMapping("/components")
+    public ResponseEntity<ComponentsResponse> getComponents() {
+        return ResponseEntity.ok(service.getComponents());
+    }
+
+    /**
+     * Readiness probe of the cost cache: answers 503 while it is still being loaded.
+     *
+     * @return Progress of the cache load.
+     */
+    @GetMapping("/ready")
+    public ResponseEntity<HydrationStatus> getReadiness() {
+        HydrationStatus status = service.getHydrationStatus();
+        return ResponseEntity.status(status.isReady() ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE).body(status);
+    }
+
+    /**
+     * Endpoint to calculate the minimum spanning forest of the cost graph, i.e. the cheapest set of links
+     * that keeps every connected group of points connected.
+     *
+     * @return Edges of the forest with their total cost.
+     */
+    @GetMapping("/mst")
+    public ResponseEntity<MstResponse> getMinimumSpanningForest() {
+        return ResponseEntity.ok(service.getMinimumSpanningForest());
+    }
+
     /**
      * Helper method to validate that the sales point IDs are not equal.
      *
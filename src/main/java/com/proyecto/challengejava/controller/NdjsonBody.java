@@ -0,0 +1,40 @@
+package com.proyecto.challengejava.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Response bodies that write a stream as newline-delimited JSON, shared by the streaming endpoints.
+ */
+final class NdjsonBody {
+
+    private NdjsonBody() {
+    }
+
+    /**
+     * Writes a stream as newline-delimited JSON, closing it once written.
+     *
+     * @param objectMapper Mapper used to write each item.
+     * @param items        Items to write, one per line.
+     * @param flushEach    Whether to flush after every item, for items that are slow to compute.
+     * @return Response body that consumes the stream.
+     */
+    static StreamingResponseBody of(ObjectMapper objectMapper, Stream<?> items, boolean flushEach) {
+        return output -> {
+            try (items) {
+                Iterator<?> iterator = items.iterator();
+                while (iterator.hasNext()) {
+                    output.write(objectMapper.writeValueAsBytes(iterator.next()));
+                    output.write('\n');
+                    if (flushEach) {
+                        output.flush();
+                    }
+                }
+                output.flush();
+            }
+        };
+    }
+}
@@ -0,0 +1,48 @@
+package com.proyecto.challengejava.dto;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+import static com.proyecto.challengejava.constants.Constants.INVALID_CURSOR;
+
+/**
+ * Position in the accreditation listing, ordered by reception date and ID: a page holds the accreditations
+ * that come after it. Written as {@code <dateReception>_<id>}, e.g. {@code 2024-03-31_42}.
+ */
+public class AccreditationCursor {
+    private static final char SEPARATOR = '_';
+
+    private final LocalDate dateReception;
+    private final Long id;
+
+    public AccreditationCursor(LocalDate dateReception, Long id) {
+        this.dateReception = dateReception;
+        this.id = id;
+    }
+
+    /**
+     * @param value Cursor as written by {@link #toString()}, or {@code null}.
+     * @return Parsed cursor, or {@code null} if there is none.
+     * @throws IllegalArgumentException if the value is not a valid cursor.
+     */
+    public static AccreditationCursor parse(String value) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        int separator = value.indexOf(SEPARATOR);
+        try {
+            return new AccreditationCursor(LocalDate.parse(value.substring(0, Math.max(separator, 0))),
+                    Long.parseLong(value.substring(separator + 1)));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException(INVALID_CURSOR + ": " + value);
+        }
+    }
+
+    public LocalDate getDateReception() { return dateReception; }
+    public Long getId() { return id; }
+
+    @Override
+    public String toString() {
+        return dateReception.toString() + SEPARATOR + id;
+    }
+}
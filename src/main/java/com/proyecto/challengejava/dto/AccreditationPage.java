@@ -0,0 +1,16 @@
+package com.proyecto.challengejava.dto;
+
+import java.util.List;
+
+public class AccreditationPage {
+    private List<AccreditationResponse> accreditations;
+    private AccreditationCursor next;
+
+    public AccreditationPage(List<AccreditationResponse> accreditations, AccreditationCursor next) {
+        this.accreditations = accreditations;
+        this.next = next;
+    }
+
+    public List<AccreditationResponse> getAccreditations() { return accreditations; }
+    public AccreditationCursor getNext() { return next; }
+}
@@ -0,0 +1,29 @@
+package com.proyecto.challengejava.dto;
+
+import java.time.LocalDate;
+
+public class AccreditationRollupResponse {
+    private Long idPointSale;
+    private LocalDate dateReception;
+    private long count;
+    private double total;
+    private Double minAmount;
+    private Double maxAmount;
+
+    public AccreditationRollupResponse(Long idPointSale, LocalDate dateReception, long count, double total,
+                                       Double minAmount, Double maxAmount) {
+        this.idPointSale = idPointSale;
+        this.dateReception = dateReception;
+        this.count = count;
+        this.total = total;
+        this.minAmount = minAmount;
+        this.maxAmount = maxAmount;
+    }
+
+    public Long getIdPointSale() { return idPointSale; }
+    public LocalDate getDateReception() { return dateReception; }
+    public long getCount() { return count; }
+    public double getTotal() { return total; }
+    public Double getMinAmount() { return minAmount; }
+    public Double getMaxAmount() { return maxAmount; }
+}
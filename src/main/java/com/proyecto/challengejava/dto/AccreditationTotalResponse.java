@@ -0,0 +1,35 @@
+package com.proyecto.challengejava.dto;
+
+import java.time.LocalDate;
+
+public class AccreditationTotalResponse {
+    private Long idPointSale;
+    private LocalDate from;
+    private LocalDate to;
+    private int days;
+    private long count;
+    private double total;
+    private Double minAmount;
+    private Double maxAmount;
+
+    public AccreditationTotalResponse(Long idPointSale, LocalDate from, LocalDate to, int days, long count,
+                                      double total, Double minAmount, Double maxAmount) {
+        this.idPointSale = idPointSale;
+        this.from = from;
+        this.to = to;
+        this.days = days;
+        this.count = count;
+        this.total = total;
+        this.minAmount = minAmount;
+        this.maxAmount = maxAmount;
+    }
+
+    public Long getIdPointSale() { return idPointSale; }
+    public LocalDate getFrom() { return from; }
+    public LocalDate getTo() { return to; }
+    public int getDays() { return days; }
+    public long getCount() { return count; }
+    public double getTotal() { return total; }
+    public Double getMinAmount() { return minAmount; }
+    public Double getMaxAmount() { return maxAmount; }
+}
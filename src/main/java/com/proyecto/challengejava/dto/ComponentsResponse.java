@@ -0,0 +1,16 @@
+package com.proyecto.challengejava.dto;
+
+import java.util.List;
+
+public class ComponentsResponse {
+    private int count;
+    private List<Integer> sizes;
+
+    public ComponentsResponse(List<Integer> sizes) {
+        this.count = sizes.size();
+        this.sizes = sizes;
+    }
+
+    public int getCount() { return count; }
+    public List<Integer> getSizes() { return sizes; }
+}
@@ -0,0 +1,23 @@
+package com.proyecto.challengejava.dto;
+
+/**
+ * Read-only projection of a persisted cost, loaded without a managed entity.
+ */
+public class CostEdge {
+    private Long id;
+    private Long idA;
+    private Long idB;
+    private Double cost;
+
+    public CostEdge(Long id, Long idA, Long idB, Double cost) {
+        this.id = id;
+        this.idA = idA;
+        this.idB = idB;
+        this.cost = cost;
+    }
+
+    public Long getId() { return id; }
+    public Long getIdA() { return idA; }
+    public Long getIdB() { return idB; }
+    public Double getCost() { return cost; }
+}
@@ -0,0 +1,27 @@
+package com.proyecto.challengejava.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+
+public class DistanceMatrixRequest {
+
+    @NotEmpty(message = "The sources cannot be empty")
+    private List<@NotNull Long> sources;
+    @NotEmpty(message = "The targets cannot be empty")
+    private List<@NotNull Long> targets;
+
+    public DistanceMatrixRequest() {
+    }
+
+    public DistanceMatrixRequest(List<Long> sources, List<Long> targets) {
+        this.sources = sources;
+        this.targets = targets;
+    }
+
+    public List<Long> getSources() { return sources; }
+    public void setSources(List<Long> sources) { this.sources = sources; }
+    public List<Long> getTargets() { return targets; }
+    public void setTargets(List<Long> targets) { this.targets = targets; }
+}
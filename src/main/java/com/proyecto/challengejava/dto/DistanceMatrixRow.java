@@ -0,0 +1,16 @@
+package com.proyecto.challengejava.dto;
+
+import java.util.List;
+
+public class DistanceMatrixRow {
+    private Long source;
+    private List<Double> costs;
+
+    public DistanceMatrixRow(Long source, List<Double> costs) {
+        this.source = source;
+        this.costs = costs;
+    }
+
+    public Long getSource() { return source; }
+    public List<Double> getCosts() { return costs; }
+}
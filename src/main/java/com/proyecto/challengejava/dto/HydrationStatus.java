@@ -0,0 +1,20 @@
+package com.proyecto.challengejava.dto;
+
+public class HydrationStatus {
+    private boolean ready;
+    private String source;
+    private int loadedCosts;
+    private long elapsedMillis;
+
+    public HydrationStatus(boolean ready, String source, int loadedCosts, long elapsedMillis) {
+        this.ready = ready;
+        this.source = source;
+        this.loadedCosts = loadedCosts;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public boolean isReady() { return ready; }
+    public String getSource() { return source; }
+    public int getLoadedCosts() { return loadedCosts; }
+    public long getElapsedMillis() { return elapsedMillis; }
+}
@@ -0,0 +1,49 @@
+package com.proyecto.challengejava.dto;
+
+public class IngestionStats {
+    private String mode;
+    private int pending;
+    private long journalBytes;
+    private long appended;
+    private long replayed;
+    private long flushed;
+    private long batches;
+    private long failedFlushes;
+    private long rejected;
+    private long parked;
+    private long lastFlushMillis;
+    private long maxFlushMillis;
+    private long averageFlushMillis;
+
+    public IngestionStats(String mode, int pending, long journalBytes, long appended, long replayed, long flushed,
+                          long batches, long failedFlushes, long rejected, long parked, long lastFlushMillis,
+                          long maxFlushMillis, long averageFlushMillis) {
+        this.mode = mode;
+        this.pending = pending;
+        this.journalBytes = journalBytes;
+        this.appended = appended;
+        this.replayed = replayed;
+        this.flushed = flushed;
+        this.batches = batches;
+        this.failedFlushes = failedFlushes;
+        this.rejected = rejected;
+        this.parked = parked;
+        this.lastFlushMillis = lastFlushMillis;
+        this.maxFlushMillis = maxFlushMillis;
+        this.averageFlushMillis = averageFlushMillis;
+    }
+
+    public String getMode() { return mode; }
+    public int getPending() { return pending; }
+    public long getJournalBytes() { return journalBytes; }
+    public long getAppended() { return appended; }
+    public long getReplayed() { return replayed; }
+    public long getFlushed() { return flushed; }
+    public long getBatches() { return batches; }
+    public long getFailedFlushes() { return failedFlushes; }
+    public long getRejected() { return rejected; }
+    public long getParked() { return parked; }
+    public long getLastFlushMillis() { return lastFlushMillis; }
+    public long getMaxFlushMillis() { return maxFlushMillis; }
+    public long getAverageFlushMillis() { return averageFlushMillis; }
+}
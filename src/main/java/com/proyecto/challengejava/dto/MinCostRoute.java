@@ -0,0 +1,26 @@
+package com.proyecto.challengejava.dto;
+
+import java.util.List;
+
+/**
+ * Route between two sales points as computed by the service: the point IDs, the cost of each hop
+ * and their total, all read from the same graph snapshot.
+ */
+public class MinCostRoute {
+    private final List<Long> route;
+    private final Double totalCost;
+    private final List<Double> hopCosts;
+    private final Long snapshotVersion;
+
+    public MinCostRoute(List<Long> route, Double totalCost, List<Double> hopCosts, Long snapshotVersion) {
+        this.route = route;
+        this.totalCost = totalCost;
+        this.hopCosts = hopCosts;
+        this.snapshotVersion = snapshotVersion;
+    }
+
+    public List<Long> getRoute() { return route; }
+    public Double getTotalCost() { return totalCost; }
+    public List<Double> getHopCosts() { return hopCosts; }
+    public Long getSnapshotVersion() { return snapshotVersion; }
+}
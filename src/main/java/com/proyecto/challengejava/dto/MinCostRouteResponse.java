@@ -7,10 +7,14 @@ import java.util.List;
 public class MinCostRouteResponse extends RepresentationModel<MinCostRouteResponse> {
     private List<Long> route;
     private Double totalCost;
-
-    public MinCostRouteResponse(List<Long> route, Double totalCost) {
-        this.route = route;
-        this.totalCost = totalCost;
+    private List<Double> hopCosts;
+    private Long snapshotVersion;
+
+    public MinCostRouteResponse(MinCostRoute result) {
+        this.route = result.getRoute();
+        this.totalCost = result.getTotalCost();
+        this.hopCosts = result.getHopCosts();
+        this.snapshotVersion = result.getSnapshotVersion();
     }
 
     public List<Long> getRoute() {
@@ -28,4 +32,20 @@ public class MinCostRouteResponse extends RepresentationModel<MinCostRouteRespon
     public void setTotalCost(Double totalCost) {
         this.totalCost = totalCost;
     }
+
+    public List<Double> getHopCosts() {
+        return hopCosts;
+    }
+
+    public void setHopCosts(List<Double> hopCosts) {
+        this.hopCosts = hopCosts;
+    }
+
+    public Long getSnapshotVersion() {
+        return snapshotVersion;
+    }
+
+    public void setSnapshotVersion(Long snapshotVersion) {
+        this.snapshotVersion = snapshotVersion;
+    }
 }
@@ -0,0 +1,17 @@
+package com.proyecto.challengejava.dto;
+
+public class MstEdge {
+    private Long idA;
+    private Long idB;
+    private Double cost;
+
+    public MstEdge(Long idA, Long idB, Double cost) {
+        this.idA = idA;
+        this.idB = idB;
+        this.cost = cost;
+    }
+
+    public Long getIdA() { return idA; }
+    public Long getIdB() { return idB; }
+    public Double getCost() { return cost; }
+}
@@ -0,0 +1,22 @@
+package com.proyecto.challengejava.dto;
+
+import java.util.List;
+
+public class MstResponse {
+    private List<MstEdge> edges;
+    private Double totalCost;
+    private int trees;
+    private Long snapshotVersion;
+
+    public MstResponse(List<MstEdge> edges, Double totalCost, int trees, Long snapshotVersion) {
+        this.edges = edges;
+        this.totalCost = totalCost;
+        this.trees = trees;
+        this.snapshotVersion = snapshotVersion;
+    }
+
+    public List<MstEdge> getEdges() { return edges; }
+    public Double getTotalCost() { return totalCost; }
+    public int getTrees() { return trees; }
+    public Long getSnapshotVersion() { return snapshotVersion; }
+}
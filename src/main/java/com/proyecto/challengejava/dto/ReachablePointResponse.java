@@ -0,0 +1,17 @@
+package com.proyecto.challengejava.dto;
+
+public class ReachablePointResponse {
+    private Long id;
+    private String name;
+    private Double cost;
+
+    public ReachablePointResponse(Long id, String name, Double cost) {
+        this.id = id;
+        this.name = name;
+        this.cost = cost;
+    }
+
+    public Long getId() { return id; }
+    public String getName() { return name; }
+    public Double getCost() { return cost; }
+}
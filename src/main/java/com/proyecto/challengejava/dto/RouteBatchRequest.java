@@ -0,0 +1,22 @@
+package com.proyecto.challengejava.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+public class RouteBatchRequest {
+
+    @NotEmpty(message = "The batch must contain at least one pair")
+    private List<@Valid CostPointsRequest> pairs;
+
+    public RouteBatchRequest() {
+    }
+
+    public RouteBatchRequest(List<CostPointsRequest> pairs) {
+        this.pairs = pairs;
+    }
+
+    public List<CostPointsRequest> getPairs() { return pairs; }
+    public void setPairs(List<CostPointsRequest> pairs) { this.pairs = pairs; }
+}
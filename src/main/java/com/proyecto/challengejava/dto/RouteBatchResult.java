@@ -0,0 +1,33 @@
+package com.proyecto.challengejava.dto;
+
+import java.util.List;
+
+public class RouteBatchResult {
+    private Long idA;
+    private Long idB;
+    private List<Long> route;
+    private Double totalCost;
+    private Long snapshotVersion;
+    private String error;
+
+    public RouteBatchResult(Long idA, Long idB, List<Long> route, Double totalCost, Long snapshotVersion) {
+        this.idA = idA;
+        this.idB = idB;
+        this.route = route;
+        this.totalCost = totalCost;
+        this.snapshotVersion = snapshotVersion;
+    }
+
+    public static RouteBatchResult failed(Long idA, Long idB, String error) {
+        RouteBatchResult result = new RouteBatchResult(idA, idB, null, null, null);
+        result.error = error;
+        return result;
+    }
+
+    public Long getIdA() { return idA; }
+    public Long getIdB() { return idB; }
+    public List<Long> getRoute() { return route; }
+    public Double getTotalCost() { return totalCost; }
+    public Long getSnapshotVersion() { return snapshotVersion; }
+    public String getError() { return error; }
+}
@@ -0,0 +1,29 @@
+package com.proyecto.challengejava.dto;
+
+public class RouteCacheStats {
+    private int capacity;
+    private int size;
+    private long hits;
+    private long misses;
+    private double hitRate;
+    private long evictions;
+    private long invalidations;
+
+    public RouteCacheStats(int capacity, int size, long hits, long misses, long evictions, long invalidations) {
+        this.capacity = capacity;
+        this.size = size;
+        this.hits = hits;
+        this.misses = misses;
+        this.hitRate = hits + misses == 0 ? 0.0 : (double) hits / (hits + misses);
+        this.evictions = evictions;
+        this.invalidations = invalidations;
+    }
+
+    public int getCapacity() { return capacity; }
+    public int getSize() { return size; }
+    public long getHits() { return hits; }
+    public long getMisses() { return misses; }
+    public double getHitRate() { return hitRate; }
+    public long getEvictions() { return evictions; }
+    public long getInvalidations() { return invalidations; }
+}
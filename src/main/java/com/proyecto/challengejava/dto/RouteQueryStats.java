@@ -0,0 +1,17 @@
+package com.proyecto.challengejava.dto;
+
+public class RouteQueryStats {
+    private Long origin;
+    private Long destination;
+    private int settledNodes;
+
+    public RouteQueryStats(Long origin, Long destination, int settledNodes) {
+        this.origin = origin;
+        this.destination = destination;
+        this.settledNodes = settledNodes;
+    }
+
+    public Long getOrigin() { return origin; }
+    public Long getDestination() { return destination; }
+    public int getSettledNodes() { return settledNodes; }
+}
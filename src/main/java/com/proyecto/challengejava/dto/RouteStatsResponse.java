@@ -0,0 +1,42 @@
+package com.proyecto.challengejava.dto;
+
+import java.util.List;
+
+public class RouteStatsResponse {
+    private String engine;
+    private boolean engineReady;
+    private List<Long> landmarks;
+    private long queries;
+    private long settledNodes;
+    private double averageSettledNodes;
+    private long maxSettledNodes;
+    private List<RouteQueryStats> recentQueries;
+    private RouteCacheStats cache;
+    private List<Long> hotOrigins;
+
+    public RouteStatsResponse(String engine, boolean engineReady, List<Long> landmarks, long queries,
+                              long settledNodes, long maxSettledNodes, List<RouteQueryStats> recentQueries,
+                              RouteCacheStats cache, List<Long> hotOrigins) {
+        this.engine = engine;
+        this.engineReady = engineReady;
+        this.landmarks = landmarks;
+        this.queries = queries;
+        this.settledNodes = settledNodes;
+        this.averageSettledNodes = queries == 0 ? 0.0 : (double) settledNodes / queries;
+        this.maxSettledNodes = maxSettledNodes;
+        this.recentQueries = recentQueries;
+        this.cache = cache;
+        this.hotOrigins = hotOrigins;
+    }
+
+    public String getEngine() { return engine; }
+    public boolean isEngineReady() { return engineReady; }
+    public List<Long> getLandmarks() { return landmarks; }
+    public long getQueries() { return queries; }
+    public long getSettledNodes() { return settledNodes; }
+    public double getAverageSettledNodes() { return averageSettledNodes; }
+    public long getMaxSettledNodes() { return maxSettledNodes; }
+    public List<RouteQueryStats> getRecentQueries() { return recentQueries; }
+    public RouteCacheStats getCache() { return cache; }
+    public List<Long> getHotOrigins() { return hotOrigins; }
+}
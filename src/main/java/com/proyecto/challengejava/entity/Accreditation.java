@@ -1,5 +1,6 @@
 package com.proyecto.challengejava.entity;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
@@ -17,6 +18,8 @@ public class Accreditation {
     private Long idPointSale;
     private String pointSaleName;
     private LocalDate dateReception;
+    @Column(unique = true)
+    private Long journalSequence;
 
     public Long getId() {
         return id;
@@ -57,4 +60,12 @@ public class Accreditation {
     public void setDateReception(LocalDate dateReception) {
         this.dateReception = dateReception;
     }
+
+    public Long getJournalSequence() {
+        return journalSequence;
+    }
+
+    public void setJournalSequence(Long journalSequence) {
+        this.journalSequence = journalSequence;
+    }
 }
@@ -0,0 +1,86 @@
+package com.proyecto.challengejava.entity;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+import java.time.LocalDate;
+
+/**
+ * Accreditation totals of one point of sale on one reception day, kept up to date by
+ * {@link com.proyecto.challengejava.rollup.AccreditationRollups}.
+ */
+@Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "ux_accreditation_rollup_point_day",
+        columnNames = {"id_point_sale", "date_reception"}))
+public class AccreditationRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    private Long idPointSale;
+    private LocalDate dateReception;
+    private Long accreditationCount;
+    private Double totalAmount;
+    private Double minAmount;
+    private Double maxAmount;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getIdPointSale() {
+        return idPointSale;
+    }
+
+    public void setIdPointSale(Long idPointSale) {
+        this.idPointSale = idPointSale;
+    }
+
+    public LocalDate getDateReception() {
+        return dateReception;
+    }
+
+    public void setDateReception(LocalDate dateReception) {
+        this.dateReception = dateReception;
+    }
+
+    public Long getAccreditationCount() {
+        return accreditationCount;
+    }
+
+    public void setAccreditationCount(Long accreditationCount) {
+        this.accreditationCount = accreditationCount;
+    }
+
+    public Double getTotalAmount() {
+        return totalAmount;
+    }
+
+    public void setTotalAmount(Double totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+
+    public Double getMinAmount() {
+        return minAmount;
+    }
+
+    public void setMinAmount(Double minAmount) {
+        this.minAmount = minAmount;
+    }
+
+    public Double getMaxAmount() {
+        return maxAmount;
+    }
+
+    public void setMaxAmount(Double maxAmount) {
+        this.maxAmount = maxAmount;
+    }
+}
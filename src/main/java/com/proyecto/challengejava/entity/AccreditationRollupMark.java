@@ -0,0 +1,35 @@
+package com.proyecto.challengejava.entity;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+
+/**
+ * Single-row high-water mark of the rollups: every accreditation up to this ID is counted in
+ * {@link AccreditationRollup}. Accreditations after it are recomputed on startup.
+ */
+@Entity
+public class AccreditationRollupMark {
+
+    @Id
+    private Long id;
+    private Long lastAccreditationId;
+
+    public AccreditationRollupMark() {
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getLastAccreditationId() {
+        return lastAccreditationId;
+    }
+
+    public void setLastAccreditationId(Long lastAccreditationId) {
+        this.lastAccreditationId = lastAccreditationId;
+    }
+}
@@ -0,0 +1,35 @@
+package com.proyecto.challengejava.entity;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+
+/**
+ * Single-row version marker of the persisted costs, bumped before every change to them.
+ * A graph snapshot file is only loaded while it carries the same version.
+ */
+@Entity
+public class GraphVersion {
+
+    @Id
+    private Long id;
+    private Long version;
+
+    public GraphVersion() {
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+}
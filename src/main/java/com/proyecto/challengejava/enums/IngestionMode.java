@@ -0,0 +1,6 @@
+package com.proyecto.challengejava.enums;
+
+public enum IngestionMode {
+    SYNC,
+    JOURNAL
+}
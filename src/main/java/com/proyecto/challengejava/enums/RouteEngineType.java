@@ -0,0 +1,9 @@
+package com.proyecto.challengejava.enums;
+
+public enum RouteEngineType {
+    DIJKSTRA,
+    BIDIRECTIONAL,
+    ALT,
+    CH,
+    MATRIX
+}
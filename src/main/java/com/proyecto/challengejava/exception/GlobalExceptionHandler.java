@@ -10,6 +10,7 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 import static com.proyecto.challengejava.constants.Constants.*;
@@ -31,6 +32,35 @@ public class GlobalExceptionHandler {
         return buildErrorResponse(HttpStatus.NOT_FOUND, ex.getMessage());
     }
 
+    // Handles route queries between points that are not connected.
+    @ExceptionHandler(RouteNotFoundException.class)
+    public ResponseEntity<Map<String, String>> handleRouteNotFoundException(RouteNotFoundException ex) {
+        return buildErrorResponse(HttpStatus.NOT_FOUND, ex.getMessage());
+    }
+
+    // Handles route computations that missed their deadline, reporting how far they got.
+    @ExceptionHandler(RouteTimeoutException.class)
+    public ResponseEntity<Map<String, Object>> handleRouteTimeoutException(RouteTimeoutException ex) {
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("error", ex.getMessage());
+        response.put("settledNodes", ex.getSettledNodes());
+        response.put("elapsedMillis", ex.getElapsedMillis());
+        response.put("deadlineMillis", ex.getDeadlineMillis());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(response);
+    }
+
+    // Handles route queries received while the cost cache is still loading.
+    @ExceptionHandler(GraphHydratingException.class)
+    public ResponseEntity<Map<String, String>> handleGraphHydratingException(GraphHydratingException ex) {
+        return buildErrorResponse(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage());
+    }
+
+    // Handles accreditations held back while the write-behind journal lags.
+    @ExceptionHandler(IngestionBackpressureException.class)
+    public ResponseEntity<Map<String, String>> handleIngestionBackpressureException(IngestionBackpressureException ex) {
+        return buildErrorResponse(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage());
+    }
+
     // Handles any other uncaught exceptions.
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Map<String, String>> handleGeneralException(Exception ex) {
@@ -0,0 +1,7 @@
+package com.proyecto.challengejava.exception;
+
+public class GraphHydratingException extends RuntimeException {
+    public GraphHydratingException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.proyecto.challengejava.exception;
+
+public class IngestionBackpressureException extends RuntimeException {
+    public IngestionBackpressureException(String message) {
+        super(message);
+    }
+}
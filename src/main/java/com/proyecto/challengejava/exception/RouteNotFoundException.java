@@ -0,0 +1,7 @@
+package com.proyecto.challengejava.exception;
+
+public class RouteNotFoundException extends RuntimeException {
+    public RouteNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,22 @@
+package com.proyecto.challengejava.exception;
+
+/**
+ * Thrown when a route computation misses its deadline or cannot be scheduled in time.
+ * Carries the progress made, which is reported to the client.
+ */
+public class RouteTimeoutException extends RuntimeException {
+    private final long settledNodes;
+    private final long elapsedMillis;
+    private final long deadlineMillis;
+
+    public RouteTimeoutException(String message, long settledNodes, long elapsedMillis, long deadlineMillis) {
+        super(message);
+        this.settledNodes = settledNodes;
+        this.elapsedMillis = elapsedMillis;
+        this.deadlineMillis = deadlineMillis;
+    }
+
+    public long getSettledNodes() { return settledNodes; }
+    public long getElapsedMillis() { return elapsedMillis; }
+    public long getDeadlineMillis() { return deadlineMillis; }
+}
@@ -0,0 +1,146 @@
+package com.proyecto.challengejava.graph;
+
+import java.util.*;
+
+/**
+ * ALT route engine: A* guided by landmarks and the triangle inequality.
+ *
+ * <p>For K landmark points the cheapest cost from each landmark to every point is precomputed.
+ * Since {@code d(L, t) <= d(L, v) + d(v, t)}, the value {@code |d(L, t) - d(L, v)|} is a lower bound
+ * of {@code d(v, t)} and is used as the A* heuristic. Landmarks are picked by farthest-point selection,
+ * so they end up on the border of the graph and of each disconnected island.</p>
+ *
+ * <p>Stale distances are not guaranteed to be lower bounds, so queries fall back to Dijkstra
+ * while the tables are rebuilt after a mutation (see {@link PreprocessedRouteEngine}).</p>
+ */
+public class AltEngine extends PreprocessedRouteEngine<AltEngine.LandmarkTables> {
+
+    private final int landmarkCount;
+
+    /**
+     * @param graph         Graph whose mutations trigger a refresh of the landmark tables.
+     * @param landmarkCount Number of landmarks to select.
+     */
+    public AltEngine(CostGraph graph, int landmarkCount) {
+        super(graph, "alt-landmarks");
+        if (landmarkCount < 1) {
+            throw new IllegalArgumentException("The number of landmarks must be at least 1");
+        }
+        this.landmarkCount = landmarkCount;
+    }
+
+    @Override
+    protected RouteResult query(LandmarkTables tables, WeightedGraph graph, int source, int target) {
+        SearchScratch scratch = SearchScratch.acquire(graph.size());
+        try {
+            scratch.relax(source, 0.0, -1, tables.lowerBound(source, target));
+            int settled = 0;
+
+            while (!scratch.isEmpty()) {
+                int actual = scratch.poll();
+                if ((++settled & (SearchDeadline.CHECK_INTERVAL - 1)) == 0) {
+                    SearchDeadline.checkpoint(SearchDeadline.CHECK_INTERVAL);
+                }
+                if (actual == target) {
+                    return RouteResult.fromPredecessors(graph, scratch.predecessors(), target,
+                            scratch.distance(target), settled);
+                }
+
+                double distance = scratch.distance(actual);
+                for (int i = 0; i < graph.degree(actual); i++) {
+                    int neighbor = graph.neighbor(actual, i);
+                    double newCost = distance + graph.weight(actual, i);
+                    if (scratch.isSettled(neighbor) || newCost >= scratch.distance(neighbor)) {
+                        continue;
+                    }
+                    double heuristic = tables.lowerBound(neighbor, target);
+                    if (heuristic == Double.POSITIVE_INFINITY) {
+                        continue; // Neighbor lies in another component than the target
+                    }
+                    scratch.relax(neighbor, newCost, actual, newCost + heuristic);
+                }
+            }
+            return RouteResult.unreachable(settled);
+        } finally {
+            scratch.reset();
+        }
+    }
+
+    /**
+     * @return IDs of the landmarks of the latest tables, empty until the first build finishes.
+     */
+    public List<Long> getLandmarks() {
+        LandmarkTables tables = latest();
+        return tables == null ? Collections.emptyList() : tables.landmarkIds;
+    }
+
+    @Override
+    protected LandmarkTables preprocess(GraphSnapshot snapshot) {
+        int size = snapshot.size();
+        double[] closest = new double[size];
+        Arrays.fill(closest, Double.POSITIVE_INFINITY);
+        List<Long> landmarkIds = new ArrayList<>();
+        List<double[]> distances = new ArrayList<>();
+
+        int candidate = highestDegree(snapshot);
+        while (candidate >= 0 && distances.size() < landmarkCount) {
+            double[] fromLandmark = DijkstraEngine.distancesFrom(snapshot, candidate);
+            landmarkIds.add(snapshot.idOf(candidate));
+            distances.add(fromLandmark);
+
+            // Next landmark: the point farthest from every landmark chosen so far (unreachable first)
+            candidate = -1;
+            double farthest = 0.0;
+            for (int node = 0; node < size; node++) {
+                closest[node] = Math.min(closest[node], fromLandmark[node]);
+                if (snapshot.degree(node) > 0 && closest[node] > farthest) {
+                    farthest = closest[node];
+                    candidate = node;
+                }
+            }
+        }
+        return new LandmarkTables(Collections.unmodifiableList(landmarkIds), distances.toArray(new double[0][]));
+    }
+
+    private static int highestDegree(WeightedGraph graph) {
+        int best = -1;
+        for (int node = 0; node < graph.size(); node++) {
+            if (graph.degree(node) > 0 && (best < 0 || graph.degree(node) > graph.degree(best))) {
+                best = node;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Immutable landmark distances computed for one version of the graph.
+     */
+    static class LandmarkTables {
+        final List<Long> landmarkIds;
+        final double[][] distances;
+
+        LandmarkTables(List<Long> landmarkIds, double[][] distances) {
+            this.landmarkIds = landmarkIds;
+            this.distances = distances;
+        }
+
+        /**
+         * @return Lower bound of the cost between two points, infinite if they are in different components.
+         */
+        double lowerBound(int node, int target) {
+            double bound = 0.0;
+            for (double[] fromLandmark : distances) {
+                double toTarget = fromLandmark[target];
+                double toNode = fromLandmark[node];
+                if (toTarget == Double.POSITIVE_INFINITY && toNode == Double.POSITIVE_INFINITY) {
+                    continue;
+                }
+                if (toTarget == Double.POSITIVE_INFINITY || toNode == Double.POSITIVE_INFINITY) {
+                    return Double.POSITIVE_INFINITY;
+                }
+                bound = Math.max(bound, Math.abs(toTarget - toNode));
+            }
+            return bound;
+        }
+    }
+}
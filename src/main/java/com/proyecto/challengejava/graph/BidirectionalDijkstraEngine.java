@@ -0,0 +1,72 @@
+package com.proyecto.challengejava.graph;
+
+import java.util.LinkedList;
+
+/**
+ * Bidirectional Dijkstra: grows one search from the origin and one from the destination
+ * (the graph is undirected, so both use the same adjacency) and stops once the sum of both
+ * queue minimums can no longer improve the best meeting found so far.
+ * The two searches run on the two per-thread {@link SearchScratch} instances.
+ */
+public class BidirectionalDijkstraEngine implements RouteEngine {
+
+    @Override
+    public RouteResult findRoute(WeightedGraph graph, int source, int target) {
+        if (source == target) {
+            return RouteResult.fromPredecessors(graph, new int[]{-1}, source, 0.0, 1);
+        }
+        SearchScratch forward = SearchScratch.acquire(graph.size());
+        SearchScratch backward = SearchScratch.acquireBackward(graph.size());
+        try {
+            forward.relax(source, 0.0, -1);
+            backward.relax(target, 0.0, -1);
+
+            double best = Double.POSITIVE_INFINITY;
+            int meetForward = -1;
+            int meetBackward = -1;
+            int settled = 0;
+
+            while (!forward.isEmpty() && !backward.isEmpty()) {
+                if (forward.peekKey() + backward.peekKey() >= best) {
+                    break;
+                }
+                boolean isForward = forward.queued() <= backward.queued();
+                SearchScratch side = isForward ? forward : backward;
+                SearchScratch other = isForward ? backward : forward;
+
+                int actual = side.poll();
+                if ((++settled & (SearchDeadline.CHECK_INTERVAL - 1)) == 0) {
+                    SearchDeadline.checkpoint(SearchDeadline.CHECK_INTERVAL);
+                }
+
+                double distance = side.distance(actual);
+                for (int i = 0; i < graph.degree(actual); i++) {
+                    int neighbor = graph.neighbor(actual, i);
+                    double newCost = distance + graph.weight(actual, i);
+                    side.relax(neighbor, newCost, actual);
+                    double through = newCost + other.distance(neighbor);
+                    if (through < best) {
+                        best = through;
+                        meetForward = isForward ? actual : neighbor;
+                        meetBackward = isForward ? neighbor : actual;
+                    }
+                }
+            }
+
+            if (meetForward < 0) {
+                return RouteResult.unreachable(settled);
+            }
+            LinkedList<Long> route = new LinkedList<>();
+            for (int current = meetForward; current >= 0; current = forward.predecessors()[current]) {
+                route.addFirst(graph.idOf(current));
+            }
+            for (int current = meetBackward; current >= 0; current = backward.predecessors()[current]) {
+                route.addLast(graph.idOf(current));
+            }
+            return new RouteResult(route, best, settled);
+        } finally {
+            forward.reset();
+            backward.reset();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.proyecto.challengejava.graph;
+
+/**
+ * Dijkstra from one origin bounded by a cost budget, settling points lazily in order of cost,
+ * so that a large reachable set can be streamed as it is found.
+ * The search stops as soon as the cheapest queued point costs more than the budget.
+ *
+ * <p>Search a snapshot from {@link CostGraph#current()}: the search may be resumed from another thread,
+ * long after the caller has released any lock, so it owns its {@link SearchScratch} instead of borrowing
+ * the per-thread one.</p>
+ */
+public class BudgetSearch {
+
+    private final WeightedGraph graph;
+    private final double maxCost;
+    private final SearchScratch scratch;
+
+    /**
+     * @param graph   Graph to search.
+     * @param source  Dense index of the origin point.
+     * @param maxCost Budget; points costing more are not reached.
+     */
+    public BudgetSearch(WeightedGraph graph, int source, double maxCost) {
+        this.graph = graph;
+        this.maxCost = maxCost;
+        this.scratch = new SearchScratch().ensureCapacity(graph.size());
+        scratch.relax(source, 0.0, -1);
+    }
+
+    /**
+     * Settles the next point within the budget, the origin first.
+     *
+     * @return Dense index of the point, or {@code -1} once no other point is within the budget.
+     */
+    public int next() {
+        if (scratch.isEmpty() || scratch.peekKey() > maxCost) {
+            return -1;
+        }
+        int actual = scratch.poll();
+        double distance = scratch.distance(actual);
+        for (int i = 0; i < graph.degree(actual); i++) {
+            double newCost = distance + graph.weight(actual, i);
+            if (newCost <= maxCost) {
+                scratch.relax(graph.neighbor(actual, i), newCost, actual);
+            }
+        }
+        return actual;
+    }
+
+    /**
+     * @param node Dense index of a point returned by {@link #next()}.
+     * @return Cheapest cost from the origin to the point.
+     */
+    public double cost(int node) {
+        return scratch.distance(node);
+    }
+}
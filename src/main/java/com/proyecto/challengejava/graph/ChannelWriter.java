@@ -0,0 +1,55 @@
+package com.proyecto.challengejava.graph;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.zip.CRC32C;
+
+/**
+ * Buffers little-endian writes to a file channel in large chunks, keeping a CRC-32C of every byte written.
+ * Used by the binary graph files, which are streamed point by point instead of being built in memory.
+ */
+final class ChannelWriter {
+
+    private static final int BUFFER_BYTES = 1 << 20;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+    private final CRC32C checksum = new CRC32C();
+
+    ChannelWriter(FileChannel channel) {
+        this.channel = channel;
+    }
+
+    ByteBuffer buffer() {
+        return buffer;
+    }
+
+    /**
+     * @param bytes Bytes about to be put.
+     * @return Buffer with room for them.
+     */
+    ByteBuffer ensure(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            flush();
+        }
+        return buffer;
+    }
+
+    void flush() throws IOException {
+        buffer.flip();
+        checksum.update(buffer.duplicate());
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * @return CRC-32C of the bytes flushed so far.
+     */
+    long checksum() {
+        return checksum.getValue();
+    }
+}
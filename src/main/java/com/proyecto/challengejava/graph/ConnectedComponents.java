@@ -0,0 +1,133 @@
+package com.proyecto.challengejava.graph;
+
+import java.util.*;
+
+/**
+ * Union-find index of the connected components of a {@link CostGraph}, so that a route query between
+ * two components is rejected in near O(1) instead of exploring the whole component of the origin.
+ *
+ * <p>New edges merge components as they arrive. Cost changes do not affect connectivity. A removed edge
+ * may split a component, which union-find cannot undo, so removals only mark the index as dirty and the
+ * components are rebuilt with one traversal on the next lookup; a burst of removals costs one rebuild.</p>
+ *
+ * <p>Lookups must happen while holding the read lock of the graph; updates run under its write lock
+ * as a {@link GraphListener}.</p>
+ */
+public class ConnectedComponents implements GraphListener {
+
+    private final CostGraph graph;
+    private int[] parents = new int[0];
+    private int[] sizes = new int[0];
+    private boolean dirty;
+
+    /**
+     * @param graph Graph whose mutations keep the index up to date.
+     */
+    public ConnectedComponents(CostGraph graph) {
+        this.graph = graph;
+        graph.addListener(this);
+        rebuild();
+    }
+
+    /**
+     * @param a Dense index of a point.
+     * @param b Dense index of another point.
+     * @return {@code true} if a route between both points exists.
+     */
+    public synchronized boolean connected(int a, int b) {
+        refreshIfDirty();
+        ensureCapacity(graph.size());
+        return find(a) == find(b);
+    }
+
+    /**
+     * @return Number of points of each component, largest first. Points without edges, such as those left
+     * behind by removals, are not components.
+     */
+    public synchronized List<Integer> componentSizes() {
+        refreshIfDirty();
+        ensureCapacity(graph.size());
+        List<Integer> result = new ArrayList<>();
+        for (int node = 0; node < graph.size(); node++) {
+            if (graph.degree(node) > 0 && find(node) == node) {
+                result.add(sizes[node]);
+            }
+        }
+        result.sort(Comparator.reverseOrder());
+        return result;
+    }
+
+    @Override
+    public synchronized void edgeChanged(long idA, long idB, double oldCost, double newCost) {
+        if (Double.isNaN(newCost)) {
+            dirty = true;
+        } else if (Double.isNaN(oldCost) && !dirty) {
+            ensureCapacity(graph.size());
+            union(graph.indexOf(idA), graph.indexOf(idB));
+        }
+    }
+
+    @Override
+    public synchronized void graphCleared() {
+        parents = new int[0];
+        sizes = new int[0];
+        dirty = false;
+    }
+
+    private void refreshIfDirty() {
+        if (dirty) {
+            rebuild();
+        }
+    }
+
+    // Recomputes every component from the adjacency index
+    private void rebuild() {
+        parents = new int[0];
+        sizes = new int[0];
+        ensureCapacity(graph.size());
+        for (int node = 0; node < graph.size(); node++) {
+            for (int i = 0; i < graph.degree(node); i++) {
+                union(node, graph.neighbor(node, i));
+            }
+        }
+        dirty = false;
+    }
+
+    private void ensureCapacity(int size) {
+        int old = parents.length;
+        if (old >= size) {
+            return;
+        }
+        parents = Arrays.copyOf(parents, size);
+        sizes = Arrays.copyOf(sizes, size);
+        for (int node = old; node < size; node++) {
+            parents[node] = node;
+            sizes[node] = 1;
+        }
+    }
+
+    // Path halving
+    private int find(int node) {
+        while (parents[node] != node) {
+            parents[node] = parents[parents[node]];
+            node = parents[node];
+        }
+        return node;
+    }
+
+    // Union by size
+    private void union(int a, int b) {
+        int rootA = find(a);
+        int rootB = find(b);
+        if (rootA == rootB) {
+            return;
+        }
+        if (sizes[rootA] < sizes[rootB]) {
+            int swap = rootA;
+            rootA = rootB;
+            rootB = swap;
+        }
+        parents[rootB] = rootA;
+        sizes[rootA] += sizes[rootB];
+    }
+}
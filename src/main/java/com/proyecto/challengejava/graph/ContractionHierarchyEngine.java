@@ -0,0 +1,335 @@
+package com.proyecto.challengejava.graph;
+
+import java.util.*;
+
+/**
+ * Contraction hierarchies route engine, meant for large graphs that change rarely but are queried often.
+ *
+ * <p>Preprocessing contracts the points one by one, least important first (ordered by edge difference
+ * plus the number of already contracted neighbors). Contracting a point adds a shortcut between two of its
+ * neighbors whenever the path through it is the only cheapest one, which is checked with a bounded
+ * witness search. A query is then a bidirectional Dijkstra, on the two per-thread {@link SearchScratch}
+ * instances, that only follows arcs towards more important points, and the shortcuts of the resulting path
+ * are unpacked back into the original points.</p>
+ *
+ * <p>While a rebuild after a cost change is running, queries are answered by {@link DijkstraEngine}
+ * (see {@link PreprocessedRouteEngine}).</p>
+ */
+public class ContractionHierarchyEngine extends PreprocessedRouteEngine<ContractionHierarchyEngine.Hierarchy> {
+
+    // Maximum nodes a witness search settles before assuming no witness exists (which only adds a shortcut)
+    private static final int WITNESS_SETTLED_LIMIT = 500;
+
+    /**
+     * @param graph Graph whose mutations trigger a rebuild of the hierarchy.
+     */
+    public ContractionHierarchyEngine(CostGraph graph) {
+        super(graph, "ch-preprocessing");
+    }
+
+    @Override
+    protected RouteResult query(Hierarchy hierarchy, WeightedGraph graph, int source, int target) {
+        int size = hierarchy.size();
+        SearchScratch forward = SearchScratch.acquire(size);
+        SearchScratch backward = SearchScratch.acquireBackward(size);
+        try {
+            forward.relax(source, 0.0, -1);
+            backward.relax(target, 0.0, -1);
+            double best = Double.POSITIVE_INFINITY;
+            int meeting = -1;
+            int settled = 0;
+
+            while (true) {
+                boolean forwardOpen = hasCandidateBelow(forward, best);
+                boolean backwardOpen = hasCandidateBelow(backward, best);
+                if (!forwardOpen && !backwardOpen) {
+                    break;
+                }
+                SearchScratch side = forwardOpen && (!backwardOpen || forward.peekKey() <= backward.peekKey())
+                        ? forward : backward;
+                SearchScratch other = side == forward ? backward : forward;
+
+                int actual = side.poll();
+                if ((++settled & (SearchDeadline.CHECK_INTERVAL - 1)) == 0) {
+                    SearchDeadline.checkpoint(SearchDeadline.CHECK_INTERVAL);
+                }
+                double distance = side.distance(actual);
+                double through = distance + other.distance(actual);
+                if (through < best) {
+                    best = through;
+                    meeting = actual;
+                }
+
+                for (int arc = hierarchy.offsets[actual]; arc < hierarchy.offsets[actual + 1]; arc++) {
+                    side.relax(hierarchy.targets[arc], distance + hierarchy.weights[arc], actual);
+                }
+            }
+
+            if (meeting < 0) {
+                return RouteResult.unreachable(settled);
+            }
+            // Upward path origin -> meeting, then meeting -> destination, unpacking every shortcut on the way
+            LinkedList<Integer> upward = new LinkedList<>();
+            for (int current = meeting; current >= 0; current = forward.predecessors()[current]) {
+                upward.addFirst(current);
+            }
+            for (int current = backward.predecessors()[meeting]; current >= 0; current = backward.predecessors()[current]) {
+                upward.addLast(current);
+            }
+            List<Long> route = new ArrayList<>();
+            route.add(graph.idOf(source));
+            Iterator<Integer> iterator = upward.iterator();
+            int previous = iterator.next();
+            while (iterator.hasNext()) {
+                int next = iterator.next();
+                hierarchy.unpack(previous, next, graph, route);
+                previous = next;
+            }
+            return new RouteResult(route, best, settled);
+        } finally {
+            forward.reset();
+            backward.reset();
+        }
+    }
+
+    private static boolean hasCandidateBelow(SearchScratch side, double bound) {
+        return !side.isEmpty() && side.peekKey() < bound;
+    }
+
+    @Override
+    protected Hierarchy preprocess(GraphSnapshot snapshot) {
+        return new Contraction(snapshot).run();
+    }
+
+    /**
+     * Upward graph in compressed sparse row layout: for every point only the arcs towards higher-ranked
+     * points are kept, each with the point it shortcuts ({@code -1} for original edges).
+     */
+    static class Hierarchy {
+        final int[] offsets;
+        final int[] targets;
+        final double[] weights;
+        final int[] middles;
+        final int[] ranks;
+
+        Hierarchy(int[] offsets, int[] targets, double[] weights, int[] middles, int[] ranks) {
+            this.offsets = offsets;
+            this.targets = targets;
+            this.weights = weights;
+            this.middles = middles;
+            this.ranks = ranks;
+        }
+
+        int size() {
+            return ranks.length;
+        }
+
+        /**
+         * Appends the original points of the arc {@code from -> to}, excluding {@code from}, to the route.
+         */
+        void unpack(int from, int to, WeightedGraph graph, List<Long> route) {
+            Deque<int[]> pending = new ArrayDeque<>();
+            pending.push(new int[]{from, to});
+            while (!pending.isEmpty()) {
+                int[] arc = pending.pop();
+                int middle = middleOf(arc[0], arc[1]);
+                if (middle < 0) {
+                    route.add(graph.idOf(arc[1]));
+                } else {
+                    // Second half is pushed first so the first half is expanded first
+                    pending.push(new int[]{middle, arc[1]});
+                    pending.push(new int[]{arc[0], middle});
+                }
+            }
+        }
+
+        // The arc between two points is stored on the lower-ranked one
+        private int middleOf(int a, int b) {
+            int low = ranks[a] < ranks[b] ? a : b;
+            int high = low == a ? b : a;
+            for (int arc = offsets[low]; arc < offsets[low + 1]; arc++) {
+                if (targets[arc] == high) {
+                    return middles[arc];
+                }
+            }
+            throw new IllegalStateException("Missing hierarchy arc between " + a + " and " + b);
+        }
+    }
+
+    /**
+     * State of the contraction of one snapshot.
+     */
+    private static class Contraction {
+        private final int size;
+        private final List<Map<Integer, Arc>> arcs;
+        private final boolean[] contracted;
+        private final int[] contractedNeighbors;
+        private final int[] ranks;
+        private final List<List<Arc>> upward;
+
+        Contraction(GraphSnapshot snapshot) {
+            size = snapshot.size();
+            arcs = new ArrayList<>(size);
+            upward = new ArrayList<>(size);
+            for (int node = 0; node < size; node++) {
+                Map<Integer, Arc> adjacent = new HashMap<>();
+                for (int i = 0; i < snapshot.degree(node); i++) {
+                    adjacent.put(snapshot.neighbor(node, i), new Arc(snapshot.neighbor(node, i), snapshot.weight(node, i), -1));
+                }
+                arcs.add(adjacent);
+                upward.add(null);
+            }
+            contracted = new boolean[size];
+            contractedNeighbors = new int[size];
+            ranks = new int[size];
+        }
+
+        Hierarchy run() {
+            PriorityQueue<int[]> order = new PriorityQueue<>(Comparator.comparingInt((int[] entry) -> entry[1]));
+            for (int node = 0; node < size; node++) {
+                order.add(new int[]{node, priority(node)});
+            }
+            int rank = 0;
+            while (!order.isEmpty()) {
+                int node = order.poll()[0];
+                if (contracted[node]) {
+                    continue;
+                }
+                // Lazy update: re-queue the node if its priority got worse than the next candidate
+                int priority = priority(node);
+                if (!order.isEmpty() && priority > order.peek()[1]) {
+                    order.add(new int[]{node, priority});
+                    continue;
+                }
+                contract(node);
+                ranks[node] = rank++;
+            }
+            return build();
+        }
+
+        private int priority(int node) {
+            int removed = arcs.get(node).size();
+            return shortcutsFor(node, false) - removed + contractedNeighbors[node];
+        }
+
+        private void contract(int node) {
+            shortcutsFor(node, true);
+            Map<Integer, Arc> adjacent = arcs.get(node);
+            upward.set(node, new ArrayList<>(adjacent.values()));
+            for (Integer neighbor : adjacent.keySet()) {
+                arcs.get(neighbor).remove(node);
+                contractedNeighbors[neighbor]++;
+            }
+            adjacent.clear();
+            contracted[node] = true;
+        }
+
+        /**
+         * Counts, and optionally adds, the shortcuts needed to preserve distances once {@code node} is gone.
+         */
+        private int shortcutsFor(int node, boolean add) {
+            List<Arc> adjacent = new ArrayList<>(arcs.get(node).values());
+            int shortcuts = 0;
+            for (int i = 0; i < adjacent.size(); i++) {
+                Arc first = adjacent.get(i);
+                double limit = 0.0;
+                for (int j = i + 1; j < adjacent.size(); j++) {
+                    limit = Math.max(limit, first.weight + adjacent.get(j).weight);
+                }
+                if (i + 1 == adjacent.size()) {
+                    break;
+                }
+                Map<Integer, Double> witnesses = witnessSearch(first.target, node, limit);
+                for (int j = i + 1; j < adjacent.size(); j++) {
+                    Arc second = adjacent.get(j);
+                    double viaNode = first.weight + second.weight;
+                    if (witnesses.getOrDefault(second.target, Double.POSITIVE_INFINITY) <= viaNode) {
+                        continue;
+                    }
+                    shortcuts++;
+                    if (add) {
+                        addShortcut(first.target, second.target, viaNode, node);
+                    }
+                }
+            }
+            return shortcuts;
+        }
+
+        private void addShortcut(int a, int b, double weight, int middle) {
+            Arc existing = arcs.get(a).get(b);
+            if (existing != null && existing.weight <= weight) {
+                return;
+            }
+            arcs.get(a).put(b, new Arc(b, weight, middle));
+            arcs.get(b).put(a, new Arc(a, weight, middle));
+        }
+
+        /**
+         * Dijkstra over the uncontracted points that skips {@code excluded}, bounded by cost and settled nodes.
+         */
+        private Map<Integer, Double> witnessSearch(int source, int excluded, double limit) {
+            Map<Integer, Double> distances = new HashMap<>();
+            PriorityQueue<Map.Entry<Integer, Double>> pq = new PriorityQueue<>(Comparator.comparing(Map.Entry::getValue));
+            distances.put(source, 0.0);
+            pq.add(new AbstractMap.SimpleEntry<>(source, 0.0));
+            int settled = 0;
+            while (!pq.isEmpty() && settled < WITNESS_SETTLED_LIMIT) {
+                Map.Entry<Integer, Double> entry = pq.poll();
+                int actual = entry.getKey();
+                if (entry.getValue() > distances.get(actual)) {
+                    continue;
+                }
+                if (entry.getValue() > limit) {
+                    break;
+                }
+                settled++;
+                for (Arc arc : arcs.get(actual).values()) {
+                    if (arc.target == excluded) {
+                        continue;
+                    }
+                    double newCost = entry.getValue() + arc.weight;
+                    if (newCost < distances.getOrDefault(arc.target, Double.POSITIVE_INFINITY)) {
+                        distances.put(arc.target, newCost);
+                        pq.add(new AbstractMap.SimpleEntry<>(arc.target, newCost));
+                    }
+                }
+            }
+            return distances;
+        }
+
+        private Hierarchy build() {
+            int[] offsets = new int[size + 1];
+            for (int node = 0; node < size; node++) {
+                offsets[node + 1] = offsets[node] + upward.get(node).size();
+            }
+            int[] targets = new int[offsets[size]];
+            double[] weights = new double[offsets[size]];
+            int[] middles = new int[offsets[size]];
+            for (int node = 0; node < size; node++) {
+                int arc = offsets[node];
+                for (Arc up : upward.get(node)) {
+                    targets[arc] = up.target;
+                    weights[arc] = up.weight;
+                    middles[arc] = up.middle;
+                    arc++;
+                }
+            }
+            return new Hierarchy(offsets, targets, weights, middles, ranks);
+        }
+    }
+
+    /**
+     * Arc of the graph being contracted; {@code middle} is the shortcut point or {@code -1}.
+     */
+    private static class Arc {
+        final int target;
+        final double weight;
+        final int middle;
+
+        Arc(int target, double weight, int middle) {
+            this.target = target;
+            this.weight = weight;
+            this.middle = middle;
+        }
+    }
+}
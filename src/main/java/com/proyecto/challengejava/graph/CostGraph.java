@@ -0,0 +1,446 @@
+package com.proyecto.challengejava.graph;
+
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static com.proyecto.challengejava.util.CostPointsUtil.generateKey;
+import static com.proyecto.challengejava.constants.Constants.REGEX;
+
+/**
+ * Adjacency index of the cost graph between sales points.
+ * Each point is mapped to a dense int index and its neighbors and weights are kept in
+ * primitive arrays, so enumerating the neighbors of a point is O(degree) and allocation-free.
+ * Edge costs are also kept in an {@link EdgeCostMap} keyed by packed point IDs for O(1) lookups.
+ *
+ * <p>Writers take the write lock internally. Readers that walk several nodes (e.g. a route search)
+ * either hold {@link #readLock()} for the whole traversal, or search the immutable snapshot returned by
+ * {@link #current()}, which takes no lock at all once published.
+ * Every effective mutation bumps {@link #version()} and is reported to the registered {@link GraphListener}s.</p>
+ *
+ * <p>The published snapshot is copy-on-write: mutations only drop it, and the first reader that finds it
+ * missing builds the next one. A burst of cost updates between two reads therefore costs a single rebuild.</p>
+ */
+public class CostGraph implements WeightedGraph {
+
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int INITIAL_DEGREE = 4;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Integer> indexes = new HashMap<>();
+    private final EdgeCostMap costs = new EdgeCostMap();
+    private final List<GraphListener> listeners = new CopyOnWriteArrayList<>();
+    private final Object publishLock = new Object();
+    private volatile long version;
+    private volatile GraphSnapshot published;
+
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private int[][] neighbors = new int[INITIAL_CAPACITY][];
+    private double[][] weights = new double[INITIAL_CAPACITY][];
+    private int[] degrees = new int[INITIAL_CAPACITY];
+    private int size;
+
+    /**
+     * Adds an undirected edge between two points or updates its weight if it already exists.
+     *
+     * @param idA  ID of the first point.
+     * @param idB  ID of the second point.
+     * @param cost Weight of the edge.
+     */
+    public void putEdge(long idA, long idB, double cost) {
+        long key = EdgeCostMap.pack(idA, idB);
+        lock.writeLock().lock();
+        try {
+            double oldCost = costs.get(key, Double.NaN);
+            costs.put(key, cost);
+            int a = indexFor(idA);
+            int b = indexFor(idB);
+            putArc(a, b, cost);
+            putArc(b, a, cost);
+            version++;
+            published = null;
+            listeners.forEach(listener -> listener.edgeChanged(idA, idB, oldCost, cost));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds an undirected edge only if the two points are not already connected.
+     *
+     * @param idA  ID of the first point.
+     * @param idB  ID of the second point.
+     * @param cost Weight of the edge.
+     * @return {@code true} if the edge was added.
+     */
+    public boolean putEdgeIfAbsent(long idA, long idB, double cost) {
+        long key = EdgeCostMap.pack(idA, idB);
+        lock.writeLock().lock();
+        try {
+            if (!costs.putIfAbsent(key, cost)) {
+                return false;
+            }
+            int a = indexFor(idA);
+            int b = indexFor(idB);
+            putArc(a, b, cost);
+            putArc(b, a, cost);
+            version++;
+            published = null;
+            listeners.forEach(listener -> listener.edgeChanged(idA, idB, Double.NaN, cost));
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes the edge between two points, if present.
+     *
+     * @param idA ID of the first point.
+     * @param idB ID of the second point.
+     */
+    public void removeEdge(long idA, long idB) {
+        lock.writeLock().lock();
+        try {
+            Integer a = indexes.get(idA);
+            Integer b = indexes.get(idB);
+            long key = EdgeCostMap.pack(idA, idB);
+            double oldCost = costs.get(key, Double.NaN);
+            if (a == null || b == null || !costs.remove(key)) {
+                return;
+            }
+            removeArc(a, b);
+            removeArc(b, a);
+            version++;
+            published = null;
+            listeners.forEach(listener -> listener.edgeChanged(idA, idB, oldCost, Double.NaN));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes every edge incident to a point. The point keeps its index with degree zero.
+     *
+     * @param id ID of the point.
+     */
+    public void removePoint(long id) {
+        lock.writeLock().lock();
+        try {
+            Integer index = indexes.get(id);
+            if (index == null) {
+                return;
+            }
+            int degree = degrees[index];
+            degrees[index] = 0;
+            for (int i = 0; i < degree; i++) {
+                int neighbor = neighbors[index][i];
+                double oldCost = weights[index][i];
+                long neighborId = ids[neighbor];
+                removeArc(neighbor, index);
+                costs.remove(EdgeCostMap.pack(id, neighborId));
+                version++;
+                published = null;
+                listeners.forEach(listener -> listener.edgeChanged(id, neighborId, oldCost, Double.NaN));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes every point and edge from the index.
+     */
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            indexes.clear();
+            costs.clear();
+            Arrays.fill(neighbors, 0, size, null);
+            Arrays.fill(weights, 0, size, null);
+            Arrays.fill(degrees, 0, size, 0);
+            size = 0;
+            version++;
+            published = null;
+            listeners.forEach(GraphListener::graphCleared);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Looks up the cost of the edge between two points.
+     *
+     * @param idA ID of the first point.
+     * @param idB ID of the second point.
+     * @return Cost of the edge, or {@link Double#NaN} if the points are not connected.
+     */
+    public double cost(long idA, long idB) {
+        long key = EdgeCostMap.pack(idA, idB);
+        lock.readLock().lock();
+        try {
+            return costs.get(key, Double.NaN);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return Number of edges in the graph.
+     */
+    public int edgeCount() {
+        lock.readLock().lock();
+        try {
+            return costs.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Read-only view of the edge costs keyed as {@code ID_A-ID_B} with the lower ID first.
+     * Lookups go straight to the packed store; iteration copies the entries under the read lock.
+     *
+     * @return Unmodifiable map view of the edge costs.
+     */
+    public Map<String, Double> costsView() {
+        return new AbstractMap<>() {
+            @Override
+            public Double get(Object key) {
+                long packed = parseKey(key);
+                lock.readLock().lock();
+                try {
+                    double cost = costs.get(packed, Double.NaN);
+                    return Double.isNaN(cost) ? null : cost;
+                } finally {
+                    lock.readLock().unlock();
+                }
+            }
+
+            @Override
+            public boolean containsKey(Object key) {
+                return get(key) != null;
+            }
+
+            @Override
+            public int size() {
+                return edgeCount();
+            }
+
+            @Override
+            public Set<Entry<String, Double>> entrySet() {
+                Map<String, Double> copy = new LinkedHashMap<>();
+                lock.readLock().lock();
+                try {
+                    costs.forEach((key, cost) ->
+                            copy.put(generateKey(EdgeCostMap.first(key), EdgeCostMap.second(key)), cost));
+                } finally {
+                    lock.readLock().unlock();
+                }
+                return Collections.unmodifiableMap(copy).entrySet();
+            }
+        };
+    }
+
+    /**
+     * Copies the current graph into an immutable {@link GraphSnapshot} under the read lock.
+     *
+     * @return Snapshot of the graph at its current version.
+     */
+    public GraphSnapshot snapshot() {
+        lock.readLock().lock();
+        try {
+            int[] offsets = new int[size + 1];
+            for (int i = 0; i < size; i++) {
+                offsets[i + 1] = offsets[i] + degrees[i];
+            }
+            int[] targets = new int[offsets[size]];
+            double[] arcWeights = new double[offsets[size]];
+            for (int i = 0; i < size; i++) {
+                System.arraycopy(neighbors[i], 0, targets, offsets[i], degrees[i]);
+                System.arraycopy(weights[i], 0, arcWeights, offsets[i], degrees[i]);
+            }
+            return new GraphSnapshot(version, new HashMap<>(indexes), Arrays.copyOf(ids, size),
+                    offsets, targets, arcWeights);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the snapshot of the current version with a single volatile read, building and publishing it
+     * first if a mutation has dropped the previous one. Must not be called while holding the read lock.
+     *
+     * @return Immutable snapshot of the graph at its current version.
+     */
+    public GraphSnapshot current() {
+        GraphSnapshot snapshot = published;
+        return snapshot != null ? snapshot : publish();
+    }
+
+    // Readers racing after a burst of writes wait here, so only the first one builds the snapshot.
+    // It is published under the read lock, so no writer can drop it between the copy and the store.
+    private GraphSnapshot publish() {
+        synchronized (publishLock) {
+            lock.readLock().lock();
+            try {
+                GraphSnapshot snapshot = published;
+                if (snapshot == null) {
+                    snapshot = snapshot();
+                    published = snapshot;
+                }
+                return snapshot;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Registers a listener for the mutations of this graph.
+     *
+     * @param listener Listener to notify.
+     */
+    public void addListener(GraphListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * @return Counter incremented by every effective mutation; stable while the read lock is held.
+     */
+    @Override
+    public long version() {
+        return version;
+    }
+
+    /**
+     * Lock that readers must hold while traversing the graph.
+     *
+     * @return Read lock of the index.
+     */
+    public Lock readLock() {
+        return lock.readLock();
+    }
+
+    /**
+     * @param id ID of a point.
+     * @return Dense index of the point, or {@code -1} if it has never been part of an edge.
+     */
+    @Override
+    public int indexOf(long id) {
+        Integer index = indexes.get(id);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * @param index Dense index of a point.
+     * @return ID of the point.
+     */
+    @Override
+    public long idOf(int index) {
+        return ids[index];
+    }
+
+    /**
+     * @return Number of indexed points, i.e. the upper bound for dense indexes.
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param index Dense index of a point.
+     * @return Number of neighbors of the point.
+     */
+    @Override
+    public int degree(int index) {
+        return degrees[index];
+    }
+
+    /**
+     * @param index Dense index of a point.
+     * @param i     Position in the adjacency list, between 0 and {@code degree(index) - 1}.
+     * @return Dense index of the neighbor.
+     */
+    @Override
+    public int neighbor(int index, int i) {
+        return neighbors[index][i];
+    }
+
+    /**
+     * @param index Dense index of a point.
+     * @param i     Position in the adjacency list, between 0 and {@code degree(index) - 1}.
+     * @return Weight of the edge to that neighbor.
+     */
+    @Override
+    public double weight(int index, int i) {
+        return weights[index][i];
+    }
+
+    // Returns the packed key of an "ID_A-ID_B" string, or 0 (the never-stored 0-0 key) if malformed
+    private static long parseKey(Object key) {
+        if (!(key instanceof String text)) {
+            return 0L;
+        }
+        String[] ids = text.split(REGEX);
+        try {
+            return ids.length == 2 ? EdgeCostMap.pack(Long.parseLong(ids[0]), Long.parseLong(ids[1])) : 0L;
+        } catch (IllegalArgumentException e) {
+            return 0L;
+        }
+    }
+
+    private int indexFor(long id) {
+        Integer existing = indexes.get(id);
+        if (existing != null) {
+            return existing;
+        }
+        if (size == ids.length) {
+            int capacity = size * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            neighbors = Arrays.copyOf(neighbors, capacity);
+            weights = Arrays.copyOf(weights, capacity);
+            degrees = Arrays.copyOf(degrees, capacity);
+        }
+        int index = size++;
+        ids[index] = id;
+        neighbors[index] = new int[INITIAL_DEGREE];
+        weights[index] = new double[INITIAL_DEGREE];
+        indexes.put(id, index);
+        return index;
+    }
+
+    private void putArc(int from, int to, double cost) {
+        int[] adjacent = neighbors[from];
+        int degree = degrees[from];
+        for (int i = 0; i < degree; i++) {
+            if (adjacent[i] == to) {
+                weights[from][i] = cost;
+                return;
+            }
+        }
+        if (degree == adjacent.length) {
+            neighbors[from] = Arrays.copyOf(adjacent, degree * 2);
+            weights[from] = Arrays.copyOf(weights[from], degree * 2);
+        }
+        neighbors[from][degree] = to;
+        weights[from][degree] = cost;
+        degrees[from] = degree + 1;
+    }
+
+    private void removeArc(int from, int to) {
+        int[] adjacent = neighbors[from];
+        int last = degrees[from] - 1;
+        for (int i = 0; i <= last; i++) {
+            if (adjacent[i] == to) {
+                adjacent[i] = adjacent[last];
+                weights[from][i] = weights[from][last];
+                degrees[from] = last;
+                return;
+            }
+        }
+    }
+}
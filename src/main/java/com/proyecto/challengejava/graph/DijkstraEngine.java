@@ -0,0 +1,153 @@
+package com.proyecto.challengejava.graph;
+
+import java.util.Arrays;
+
+/**
+ * Point-to-point Dijkstra that stops as soon as the destination is settled,
+ * instead of relaxing the whole component of the origin.
+ *
+ * <p>Every search runs on the per-thread {@link SearchScratch}, an indexed 4-ary heap with decrease-key over
+ * primitive distance and predecessor arrays, so a query allocates nothing but its result.</p>
+ */
+public class DijkstraEngine implements RouteEngine {
+
+    @Override
+    public RouteResult findRoute(WeightedGraph graph, int source, int target) {
+        SearchScratch scratch = SearchScratch.acquire(graph.size());
+        try {
+            scratch.relax(source, 0.0, -1);
+            int settled = 0;
+
+            while (!scratch.isEmpty()) {
+                int actual = scratch.poll();
+                if ((++settled & (SearchDeadline.CHECK_INTERVAL - 1)) == 0) {
+                    SearchDeadline.checkpoint(SearchDeadline.CHECK_INTERVAL);
+                }
+                if (actual == target) {
+                    return RouteResult.fromPredecessors(graph, scratch.predecessors(), target,
+                            scratch.distance(target), settled);
+                }
+                relaxNeighbors(graph, scratch, actual);
+            }
+            return RouteResult.unreachable(settled);
+        } finally {
+            scratch.reset();
+        }
+    }
+
+    /**
+     * Answers several destinations of the same origin with one single-source search,
+     * which stops as soon as every destination is settled.
+     * Meant for an immutable {@link GraphSnapshot}, which needs no lock.
+     *
+     * @param graph   Graph to search.
+     * @param source  Dense index of the origin point.
+     * @param targets Dense indexes of the destination points.
+     * @return Route to each destination, in the order of {@code targets}; all share the settled count of the search.
+     */
+    public static RouteResult[] findRoutes(WeightedGraph graph, int source, int[] targets) {
+        SearchScratch scratch = SearchScratch.acquire(graph.size());
+        try {
+            int pending = 0;
+            for (int target : targets) {
+                if (scratch.markTarget(target)) {
+                    pending++;
+                }
+            }
+            scratch.relax(source, 0.0, -1);
+            int settled = 0;
+
+            while (pending > 0 && !scratch.isEmpty()) {
+                int actual = scratch.poll();
+                if ((++settled & (SearchDeadline.CHECK_INTERVAL - 1)) == 0) {
+                    SearchDeadline.checkpoint(SearchDeadline.CHECK_INTERVAL);
+                }
+                if (scratch.settleTarget(actual)) {
+                    pending--;
+                }
+                relaxNeighbors(graph, scratch, actual);
+            }
+
+            RouteResult[] results = new RouteResult[targets.length];
+            for (int i = 0; i < targets.length; i++) {
+                int target = targets[i];
+                results[i] = scratch.isSettled(target)
+                        ? RouteResult.fromPredecessors(graph, scratch.predecessors(), target, scratch.distance(target), settled)
+                        : RouteResult.unreachable(settled);
+            }
+            return results;
+        } finally {
+            scratch.reset(targets);
+        }
+    }
+
+    /**
+     * Computes one row of a distance matrix: the cheapest cost from an origin to each destination.
+     * The search stops once every destination is settled and allocates nothing.
+     * Meant for an immutable {@link GraphSnapshot}, which needs no lock.
+     *
+     * @param graph   Graph to search.
+     * @param source  Dense index of the origin point.
+     * @param targets Dense indexes of the destination points; {@code -1} for points outside the graph.
+     * @param row     Receives the cost to each destination, {@link Double#POSITIVE_INFINITY} if unreachable.
+     */
+    public static void costsTo(WeightedGraph graph, int source, int[] targets, double[] row) {
+        SearchScratch scratch = SearchScratch.acquire(graph.size());
+        try {
+            int pending = 0;
+            for (int target : targets) {
+                if (target >= 0 && scratch.markTarget(target)) {
+                    pending++;
+                }
+            }
+            scratch.relax(source, 0.0, -1);
+
+            while (pending > 0 && !scratch.isEmpty()) {
+                int actual = scratch.poll();
+                if (scratch.settleTarget(actual)) {
+                    pending--;
+                }
+                relaxNeighbors(graph, scratch, actual);
+            }
+
+            for (int i = 0; i < targets.length; i++) {
+                row[i] = targets[i] < 0 ? Double.POSITIVE_INFINITY : scratch.distance(targets[i]);
+            }
+        } finally {
+            scratch.reset(targets);
+        }
+    }
+
+    /**
+     * Runs a full single-source search and returns the cheapest cost to every point.
+     * Meant for an immutable {@link GraphSnapshot}, which needs no lock.
+     *
+     * @param graph  Graph to search.
+     * @param source Dense index of the origin point.
+     * @return Cost from the origin to each dense index, {@link Double#POSITIVE_INFINITY} if unreachable.
+     */
+    public static double[] distancesFrom(WeightedGraph graph, int source) {
+        double[] distances = new double[graph.size()];
+        Arrays.fill(distances, Double.POSITIVE_INFINITY);
+        SearchScratch scratch = SearchScratch.acquire(graph.size());
+        try {
+            scratch.relax(source, 0.0, -1);
+            while (!scratch.isEmpty()) {
+                int actual = scratch.poll();
+                distances[actual] = scratch.distance(actual);
+                relaxNeighbors(graph, scratch, actual);
+            }
+            return distances;
+        } finally {
+            scratch.reset();
+        }
+    }
+
+    // Relaxes every arc leaving a node that has just been settled
+    private static void relaxNeighbors(WeightedGraph graph, SearchScratch scratch, int actual) {
+        double distance = scratch.distance(actual);
+        for (int i = 0; i < graph.degree(actual); i++) {
+            scratch.relax(graph.neighbor(actual, i), distance + graph.weight(actual, i), actual);
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.proyecto.challengejava.graph;
+
+import java.util.*;
+import java.util.stream.IntStream;
+
+/**
+ * Route engine backed by an all-pairs matrix of cheapest costs and next hops, for graphs of a few thousand points.
+ *
+ * <p>Both tables hold one primitive array per destination: for destination {@code t} and point {@code v},
+ * {@code distances[t][v]} is the cost between them and {@code nextHops[t][v]} the next point from {@code v}
+ * towards {@code t}. Each row is a shortest-path tree rooted at {@code t}, so a query is one lookup
+ * plus a walk along the tree.</p>
+ *
+ * <p>The matrix is maintained on every edge change, off the graph lock and copy-on-write: a published matrix
+ * is never modified, the change is applied to a copy that shares every row it does not touch.</p>
+ * <ul>
+ *     <li>a new or cheaper edge {@code (a, b)} is folded in with
+ *     {@code d(t, i) = min(d(t, i), d(t, b) + w + d(a, i), d(t, a) + w + d(b, i))}, in O(n²);</li>
+ *     <li>a more expensive or removed edge only invalidates the rows whose tree uses it,
+ *     which are recomputed in parallel on the fork-join pool;</li>
+ *     <li>a new point changes the dimensions and triggers a rebuild.</li>
+ * </ul>
+ */
+public class DistanceMatrixEngine extends PreprocessedRouteEngine<DistanceMatrixEngine.DistanceMatrix> {
+
+    private final int maxPoints;
+
+    /**
+     * @param graph     Graph whose mutations are applied to the matrix.
+     * @param maxPoints Largest number of points the matrix is built for; bigger graphs are answered by Dijkstra.
+     */
+    public DistanceMatrixEngine(CostGraph graph, int maxPoints) {
+        super(graph, "distance-matrix");
+        this.maxPoints = maxPoints;
+    }
+
+    @Override
+    protected RouteResult query(DistanceMatrix matrix, WeightedGraph graph, int source, int target) {
+        int n = matrix.size;
+        double[] distances = matrix.distances[target];
+        int[] nextHops = matrix.nextHops[target];
+        if (distances[source] == Double.POSITIVE_INFINITY) {
+            return RouteResult.unreachable(1);
+        }
+        List<Long> route = new ArrayList<>();
+        route.add(graph.idOf(source));
+        for (int current = source; current != target; ) {
+            current = nextHops[current];
+            // Incremental updates over zero-cost ties could in theory close a loop; never walk more than n hops
+            if (current < 0 || route.size() > n) {
+                return fallback.findRoute(graph, source, target);
+            }
+            route.add(graph.idOf(current));
+        }
+        return new RouteResult(route, distances[source], route.size());
+    }
+
+    @Override
+    protected DistanceMatrix preprocess(GraphSnapshot snapshot) {
+        int n = snapshot.size();
+        if (n > maxPoints) {
+            return null;
+        }
+        DistanceMatrix matrix = new DistanceMatrix(n);
+        IntStream.range(0, n).parallel().forEach(target -> matrix.fillRow(snapshot, target));
+        return matrix;
+    }
+
+    @Override
+    protected DistanceMatrix update(DistanceMatrix matrix, GraphSnapshot snapshot, long idA, long idB,
+                                    double oldCost, double newCost) {
+        int a = snapshot.indexOf(idA);
+        int b = snapshot.indexOf(idB);
+        if (a < 0 || b < 0 || snapshot.size() != matrix.size) {
+            return null;
+        }
+        if (!Double.isNaN(newCost) && (Double.isNaN(oldCost) || newCost < oldCost)) {
+            return matrix.withDecrease(a, b, newCost);
+        }
+        if (Double.isNaN(newCost) || newCost > oldCost) {
+            int[] affected = matrix.rowsUsing(a, b);
+            if (affected.length > 0) {
+                DistanceMatrix next = matrix.copy();
+                Arrays.stream(affected).parallel().forEach(target -> next.fillRow(snapshot, target));
+                return next;
+            }
+        }
+        return matrix;
+    }
+
+    /**
+     * All-pairs cost and next-hop tables of one graph version. Once published its rows are never written;
+     * a change builds a new matrix that shares the untouched rows.
+     */
+    static class DistanceMatrix {
+        final int size;
+        final double[][] distances;
+        final int[][] nextHops;
+
+        DistanceMatrix(int size) {
+            this(size, new double[size][], new int[size][]);
+        }
+
+        private DistanceMatrix(int size, double[][] distances, int[][] nextHops) {
+            this.size = size;
+            this.distances = distances;
+            this.nextHops = nextHops;
+        }
+
+        /**
+         * @return Matrix sharing every row with this one, whose rows can be replaced without affecting it.
+         */
+        DistanceMatrix copy() {
+            return new DistanceMatrix(size, distances.clone(), nextHops.clone());
+        }
+
+        /**
+         * Replaces the row of one destination with a full Dijkstra rooted at it.
+         */
+        void fillRow(WeightedGraph graph, int target) {
+            double[] row = new double[size];
+            int[] hops = new int[size];
+            Arrays.fill(row, Double.POSITIVE_INFINITY);
+            Arrays.fill(hops, -1);
+            PriorityQueue<Map.Entry<Integer, Double>> pq = new PriorityQueue<>(Comparator.comparing(Map.Entry::getValue));
+            row[target] = 0.0;
+            pq.add(new AbstractMap.SimpleEntry<>(target, 0.0));
+
+            while (!pq.isEmpty()) {
+                Map.Entry<Integer, Double> entry = pq.poll();
+                int actual = entry.getKey();
+                if (entry.getValue() > row[actual]) {
+                    continue;
+                }
+                for (int i = 0; i < graph.degree(actual); i++) {
+                    int neighbor = graph.neighbor(actual, i);
+                    double newCost = row[actual] + graph.weight(actual, i);
+                    if (newCost < row[neighbor]) {
+                        row[neighbor] = newCost;
+                        hops[neighbor] = actual;
+                        pq.add(new AbstractMap.SimpleEntry<>(neighbor, newCost));
+                    }
+                }
+            }
+            distances[target] = row;
+            nextHops[target] = hops;
+        }
+
+        /**
+         * Folds a new or cheaper edge into a copy of the matrix, using the rows of its endpoints before the change.
+         * Only the rows that improve are copied.
+         *
+         * @return Matrix with the edge folded in.
+         */
+        DistanceMatrix withDecrease(int a, int b, double cost) {
+            DistanceMatrix next = copy();
+            double[] fromA = distances[a];
+            double[] fromB = distances[b];
+            int[] towardsA = nextHops[a];
+            int[] towardsB = nextHops[b];
+
+            for (int target = 0; target < size; target++) {
+                double targetToA = fromA[target];
+                double targetToB = fromB[target];
+                if (targetToA == Double.POSITIVE_INFINITY && targetToB == Double.POSITIVE_INFINITY) {
+                    continue;
+                }
+                double[] row = distances[target];
+                int[] hops = nextHops[target];
+                boolean copied = false;
+                for (int i = 0; i < size; i++) {
+                    // Route i -> ... -> a -> b -> ... -> target
+                    double throughAB = fromA[i] + cost + targetToB;
+                    // Route i -> ... -> b -> a -> ... -> target
+                    double throughBA = fromB[i] + cost + targetToA;
+                    double best = Math.min(throughAB, throughBA);
+                    if (best >= row[i]) {
+                        continue;
+                    }
+                    if (!copied) {
+                        row = row.clone();
+                        hops = hops.clone();
+                        next.distances[target] = row;
+                        next.nextHops[target] = hops;
+                        copied = true;
+                    }
+                    row[i] = best;
+                    if (throughAB <= throughBA) {
+                        hops[i] = i == a ? b : towardsA[i];
+                    } else {
+                        hops[i] = i == b ? a : towardsB[i];
+                    }
+                }
+            }
+            return next;
+        }
+
+        /**
+         * @return Destinations whose shortest-path tree contains the edge {@code (a, b)}.
+         */
+        int[] rowsUsing(int a, int b) {
+            return IntStream.range(0, size)
+                    .filter(target -> nextHops[target][a] == b || nextHops[target][b] == a)
+                    .toArray();
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.proyecto.challengejava.graph;
+
+/**
+ * Edge change reported to a {@link GraphListener}, with the graph version it produced, kept by listeners
+ * that apply it later off the write lock to state that is exactly one version behind.
+ */
+final class EdgeChange {
+    final long version;
+    final long idA;
+    final long idB;
+    final double oldCost;
+    final double newCost;
+
+    EdgeChange(long version, long idA, long idB, double oldCost, double newCost) {
+        this.version = version;
+        this.idA = idA;
+        this.idB = idB;
+        this.oldCost = oldCost;
+        this.newCost = newCost;
+    }
+}
@@ -0,0 +1,216 @@
+package com.proyecto.challengejava.graph;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash map from a packed edge key to a primitive cost.
+ * Keys are built with {@link #pack(long, long)} so both directions of an edge share one slot,
+ * and values are stored as {@code double} without boxing.
+ *
+ * <p>Uses linear probing with backward-shift deletion, so there are no tombstones.
+ * Not thread-safe: callers are expected to guard it (see {@link CostGraph}).</p>
+ */
+public class EdgeCostMap {
+
+    /** Packed key of the (0, 0) self-loop, which is never a valid edge and marks empty slots. */
+    private static final long EMPTY = 0L;
+    private static final long MAX_ID = 0xFFFFFFFFL;
+    private static final int INITIAL_CAPACITY = 64;
+
+    private long[] keys = new long[INITIAL_CAPACITY];
+    private double[] values = new double[INITIAL_CAPACITY];
+    private int mask = INITIAL_CAPACITY - 1;
+    private int size;
+
+    /**
+     * Packs an unordered pair of point IDs into a single key, lower ID in the high half.
+     *
+     * @param idA ID of the first point.
+     * @param idB ID of the second point.
+     * @return Packed key, identical for (idA, idB) and (idB, idA).
+     * @throws IllegalArgumentException if an ID does not fit in 32 unsigned bits.
+     */
+    public static long pack(long idA, long idB) {
+        if (idA < 0 || idA > MAX_ID || idB < 0 || idB > MAX_ID) {
+            throw new IllegalArgumentException("Point IDs must be between 0 and " + MAX_ID);
+        }
+        return idA < idB ? (idA << 32) | idB : (idB << 32) | idA;
+    }
+
+    /**
+     * @param key Packed key.
+     * @return Lower ID of the edge.
+     */
+    public static long first(long key) {
+        return key >>> 32;
+    }
+
+    /**
+     * @param key Packed key.
+     * @return Higher ID of the edge.
+     */
+    public static long second(long key) {
+        return key & MAX_ID;
+    }
+
+    /**
+     * @param key     Packed key.
+     * @param missing Value returned when the key is absent.
+     * @return Cost stored for the key, or {@code missing}.
+     */
+    public double get(long key, double missing) {
+        int slot = find(key);
+        return slot < 0 ? missing : values[slot];
+    }
+
+    /**
+     * @param key Packed key.
+     * @return {@code true} if a cost is stored for the key.
+     */
+    public boolean containsKey(long key) {
+        return find(key) >= 0;
+    }
+
+    /**
+     * Stores a cost, replacing any previous value.
+     *
+     * @param key  Packed key.
+     * @param cost Cost to store.
+     */
+    public void put(long key, double cost) {
+        int slot = slotFor(key);
+        if (keys[slot] == EMPTY) {
+            keys[slot] = key;
+            size++;
+            values[slot] = cost;
+            growIfNeeded();
+        } else {
+            values[slot] = cost;
+        }
+    }
+
+    /**
+     * Stores a cost only if the key is absent.
+     *
+     * @param key  Packed key.
+     * @param cost Cost to store.
+     * @return {@code true} if the cost was stored.
+     */
+    public boolean putIfAbsent(long key, double cost) {
+        int slot = slotFor(key);
+        if (keys[slot] != EMPTY) {
+            return false;
+        }
+        keys[slot] = key;
+        values[slot] = cost;
+        size++;
+        growIfNeeded();
+        return true;
+    }
+
+    /**
+     * Removes the cost stored for a key, if any.
+     *
+     * @param key Packed key.
+     * @return {@code true} if a cost was removed.
+     */
+    public boolean remove(long key) {
+        int slot = find(key);
+        if (slot < 0) {
+            return false;
+        }
+        size--;
+        // Backward-shift the rest of the probe chain into the freed slot
+        int hole = slot;
+        int next = (hole + 1) & mask;
+        while (keys[next] != EMPTY) {
+            int home = hash(keys[next]) & mask;
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                values[hole] = values[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[hole] = EMPTY;
+        return true;
+    }
+
+    /**
+     * Removes every entry while keeping the allocated capacity.
+     */
+    public void clear() {
+        Arrays.fill(keys, EMPTY);
+        size = 0;
+    }
+
+    /**
+     * @return Number of stored edges.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Visits every stored edge.
+     *
+     * @param consumer Callback receiving the packed key and its cost.
+     */
+    public void forEach(EntryConsumer consumer) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != EMPTY) {
+                consumer.accept(keys[i], values[i]);
+            }
+        }
+    }
+
+    /**
+     * Primitive callback for {@link #forEach(EntryConsumer)}.
+     */
+    @FunctionalInterface
+    public interface EntryConsumer {
+        void accept(long key, double cost);
+    }
+
+    private int find(long key) {
+        int slot = hash(key) & mask;
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private int slotFor(long key) {
+        int slot = hash(key) & mask;
+        while (keys[slot] != EMPTY && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void growIfNeeded() {
+        if (size * 2 <= keys.length) {
+            return;
+        }
+        long[] oldKeys = keys;
+        double[] oldValues = values;
+        keys = new long[oldKeys.length * 2];
+        values = new double[oldKeys.length * 2];
+        mask = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = slotFor(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,24 @@
+package com.proyecto.challengejava.graph;
+
+/**
+ * Callback notified of every mutation of a {@link CostGraph}.
+ * Notifications run on the writer thread while it still holds the write lock,
+ * so implementations must be quick and hand heavy work to another thread.
+ */
+public interface GraphListener {
+
+    /**
+     * Called after an edge is added, updated or removed.
+     *
+     * @param idA     ID of the first point.
+     * @param idB     ID of the second point.
+     * @param oldCost Previous cost, or {@link Double#NaN} if the edge did not exist.
+     * @param newCost New cost, or {@link Double#NaN} if the edge was removed.
+     */
+    void edgeChanged(long idA, long idB, double oldCost, double newCost);
+
+    /**
+     * Called after every point and edge has been removed.
+     */
+    void graphCleared();
+}
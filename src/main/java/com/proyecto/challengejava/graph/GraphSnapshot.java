@@ -0,0 +1,64 @@
+package com.proyecto.challengejava.graph;
+
+import java.util.Map;
+
+/**
+ * Immutable copy of a {@link CostGraph} in compressed sparse row layout: the neighbors of point {@code i}
+ * are {@code targets[offsets[i]] .. targets[offsets[i + 1] - 1]}. Dense indexes match the ones of the
+ * source graph at {@link #version()}, so results computed on a snapshot can be applied to the live graph
+ * as long as its version has not moved.
+ */
+public class GraphSnapshot implements WeightedGraph {
+
+    private final long version;
+    private final Map<Long, Integer> indexes;
+    private final long[] ids;
+    private final int[] offsets;
+    private final int[] targets;
+    private final double[] weights;
+
+    GraphSnapshot(long version, Map<Long, Integer> indexes, long[] ids, int[] offsets, int[] targets, double[] weights) {
+        this.version = version;
+        this.indexes = indexes;
+        this.ids = ids;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+    }
+
+    @Override
+    public int indexOf(long id) {
+        Integer index = indexes.get(id);
+        return index == null ? -1 : index;
+    }
+
+    @Override
+    public long idOf(int index) {
+        return ids[index];
+    }
+
+    @Override
+    public int size() {
+        return ids.length;
+    }
+
+    @Override
+    public int degree(int index) {
+        return offsets[index + 1] - offsets[index];
+    }
+
+    @Override
+    public int neighbor(int index, int i) {
+        return targets[offsets[index] + i];
+    }
+
+    @Override
+    public double weight(int index, int i) {
+        return weights[offsets[index] + i];
+    }
+
+    @Override
+    public long version() {
+        return version;
+    }
+}
@@ -0,0 +1,177 @@
+package com.proyecto.challengejava.graph;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+/**
+ * Checksummed binary file holding the points and edges of a {@link CostGraph} together with a version,
+ * used to restart without reloading every cost from the database.
+ *
+ * <p>Layout, little-endian: a {@value #HEADER_BYTES}-byte header (magic, point count, version, edge count),
+ * the point IDs as {@code long[points]}, each edge once as {@code (int indexA, int indexB, double cost)}
+ * referring to those IDs, and a trailing {@code long} CRC-32C of every preceding byte.
+ * The file is streamed through a {@link FileChannel} in both directions, so its size is not bounded by a
+ * single buffer, and a torn or corrupted file is rejected before anything is loaded.</p>
+ */
+public final class GraphSnapshotFile {
+
+    static final int HEADER_BYTES = 24;
+
+    private static final int MAGIC = 0x47534E31;
+    private static final int EDGE_BYTES = 2 * Integer.BYTES + Double.BYTES;
+    private static final int READ_BUFFER_BYTES = 1 << 20;
+
+    private GraphSnapshotFile() {
+    }
+
+    /**
+     * Writes a graph to a file next to {@code path} and moves it into place once complete.
+     *
+     * @param source  Graph to write; must not change while it is written.
+     * @param version Version stored in the header, checked by the caller on restore.
+     * @param path    Destination file.
+     * @throws IOException if the file cannot be written.
+     */
+    public static void write(WeightedGraph source, long version, Path path) throws IOException {
+        int size = source.size();
+        long edges = 0;
+        for (int node = 0; node < size; node++) {
+            for (int i = 0; i < source.degree(node); i++) {
+                if (node < source.neighbor(node, i)) {
+                    edges++;
+                }
+            }
+        }
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ChannelWriter writer = new ChannelWriter(channel);
+            writer.buffer().putInt(MAGIC).putInt(size).putLong(version).putLong(edges);
+            for (int node = 0; node < size; node++) {
+                writer.ensure(Long.BYTES).putLong(source.idOf(node));
+            }
+            for (int node = 0; node < size; node++) {
+                for (int i = 0; i < source.degree(node); i++) {
+                    int neighbor = source.neighbor(node, i);
+                    if (node < neighbor) {
+                        writer.ensure(EDGE_BYTES).putInt(node).putInt(neighbor).putDouble(source.weight(node, i));
+                    }
+                }
+            }
+            writer.flush();
+            writer.buffer().putLong(writer.checksum());
+            writer.flush();
+            channel.force(true);
+        }
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads only the header of a file.
+     *
+     * @param path File to read.
+     * @return Version stored in the file.
+     * @throws IOException if the file cannot be read or has another format.
+     */
+    public static long readVersion(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return readHeader(channel, path).getLong(Integer.BYTES * 2);
+        }
+    }
+
+    /**
+     * Verifies the checksum of a file and then adds each of its edges to a graph.
+     *
+     * @param path  File to read.
+     * @param graph Graph that receives the edges; edges already present are kept.
+     * @return Number of edges read.
+     * @throws IOException if the file cannot be read, has another format or fails its checksum.
+     */
+    public static long restore(Path path, CostGraph graph) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = readHeader(channel, path);
+            int size = header.getInt(Integer.BYTES);
+            long edges = header.getLong(Integer.BYTES * 2 + Long.BYTES);
+            long body = HEADER_BYTES + (long) size * Long.BYTES + edges * EDGE_BYTES;
+            if (size < 0 || edges < 0 || channel.size() != body + Long.BYTES) {
+                throw new IOException("Truncated graph snapshot: " + path);
+            }
+            verifyChecksum(channel, body, path);
+
+            ChannelReader reader = new ChannelReader(channel, HEADER_BYTES);
+            long[] ids = new long[size];
+            for (int node = 0; node < size; node++) {
+                ids[node] = reader.ensure(Long.BYTES).getLong();
+            }
+            for (long edge = 0; edge < edges; edge++) {
+                ByteBuffer buffer = reader.ensure(EDGE_BYTES);
+                graph.putEdgeIfAbsent(ids[buffer.getInt()], ids[buffer.getInt()], buffer.getDouble());
+            }
+            return edges;
+        }
+    }
+
+    private static ByteBuffer readHeader(FileChannel channel, Path path) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        channel.read(header, 0);
+        if (header.position() < HEADER_BYTES || header.getInt(0) != MAGIC) {
+            throw new IOException("Not a graph snapshot file: " + path);
+        }
+        return header;
+    }
+
+    private static void verifyChecksum(FileChannel channel, long body, Path path) throws IOException {
+        CRC32C checksum = new CRC32C();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(READ_BUFFER_BYTES);
+        long position = 0;
+        while (position < body) {
+            buffer.clear().limit((int) Math.min(buffer.capacity(), body - position));
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                throw new IOException("Truncated graph snapshot: " + path);
+            }
+            position += read;
+            checksum.update(buffer.flip());
+        }
+        ByteBuffer trailer = ByteBuffer.allocate(Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        channel.read(trailer, body);
+        if (trailer.position() < Long.BYTES || trailer.getLong(0) != checksum.getValue()) {
+            throw new IOException("Graph snapshot failed its checksum: " + path);
+        }
+    }
+
+    // Refills a large buffer from the channel so that records can be read across chunk boundaries
+    private static class ChannelReader {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(READ_BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        private long position;
+
+        ChannelReader(FileChannel channel, long position) {
+            this.channel = channel;
+            this.position = position;
+            buffer.limit(0);
+        }
+
+        ByteBuffer ensure(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                buffer.compact();
+                while (buffer.position() < bytes) {
+                    int read = channel.read(buffer, position);
+                    if (read < 0) {
+                        throw new IOException("Truncated graph snapshot");
+                    }
+                    position += read;
+                }
+                buffer.flip();
+            }
+            return buffer;
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.proyecto.challengejava.graph;
+
+import java.util.*;
+
+/**
+ * Shortest-path trees of the most queried origins, kept in memory and repaired incrementally on every
+ * cost change, so that a route from a hot origin is a walk up its tree instead of a search.
+ *
+ * <p>Hot origins are picked from query frequency: an origin queried at least {@code minQueries} times
+ * gets a tree while there is room, or replaces the coldest hot origin once it has been queried more often.
+ * Counts are halved every {@value #DECAY_INTERVAL} queries so that the selection follows changes in demand.</p>
+ *
+ * <p>As a {@link GraphListener} this only remembers the last edge change, so writers never wait for a repair.
+ * A tree remembers the version it reflects and catches up on the next lookup for a newer snapshot: it is
+ * repaired incrementally when it is exactly one change behind, and rebuilt from the snapshot otherwise.
+ * A lookup for an older snapshot than the tree's is left to a regular search.</p>
+ */
+public class HotOriginTrees implements GraphListener {
+
+    private static final int DECAY_INTERVAL = 10000;
+
+    private final CostGraph graph;
+    private final int capacity;
+    private final int minQueries;
+    private final Map<Long, ShortestPathTree> trees = new HashMap<>();
+    private final Map<Long, Long> counts = new HashMap<>();
+    private int queriesSinceDecay;
+    private volatile EdgeChange lastChange;
+    private volatile boolean cleared;
+
+    /**
+     * @param graph      Graph whose mutations repair the trees.
+     * @param capacity   Maximum number of hot origins; {@code 0} disables the trees.
+     * @param minQueries Queries an origin needs before it can become hot.
+     */
+    public HotOriginTrees(CostGraph graph, int capacity, int minQueries) {
+        this.graph = graph;
+        this.capacity = capacity;
+        this.minQueries = minQueries;
+        graph.addListener(this);
+    }
+
+    /**
+     * Counts a query from an origin and builds its tree from the current snapshot if it has become hot.
+     *
+     * @param origin ID of the origin point.
+     */
+    public void recordQuery(long origin) {
+        if (capacity <= 0 || !shouldPromote(origin)) {
+            return;
+        }
+        GraphSnapshot snapshot = graph.current();
+        int source = snapshot.indexOf(origin);
+        if (source >= 0) {
+            promote(origin, new ShortestPathTree(snapshot, source));
+        }
+    }
+
+    /**
+     * @param origin   ID of the origin point.
+     * @param target   Dense index of the destination point in {@code snapshot}.
+     * @param snapshot Snapshot the caller is reading.
+     * @return Route read off the tree of the origin, brought up to the version of the snapshot first,
+     * or {@code null} if the origin is not hot or its tree already reflects a later version.
+     */
+    public synchronized RouteResult route(long origin, int target, WeightedGraph snapshot) {
+        dropIfCleared();
+        ShortestPathTree tree = trees.get(origin);
+        if (tree == null || tree.version() > snapshot.version()) {
+            return null;
+        }
+        if (tree.version() < snapshot.version()) {
+            tree = catchUp(origin, tree, snapshot);
+            if (tree == null) {
+                return null;
+            }
+        }
+        return tree.route(snapshot, target);
+    }
+
+    /**
+     * @return IDs of the hot origins, most queried first.
+     */
+    public synchronized List<Long> getHotOrigins() {
+        dropIfCleared();
+        List<Long> origins = new ArrayList<>(trees.keySet());
+        origins.sort(Comparator.comparing((Long origin) -> counts.getOrDefault(origin, 0L)).reversed());
+        return origins;
+    }
+
+    @Override
+    public void edgeChanged(long idA, long idB, double oldCost, double newCost) {
+        lastChange = new EdgeChange(graph.version(), idA, idB, oldCost, newCost);
+    }
+
+    @Override
+    public void graphCleared() {
+        lastChange = null;
+        cleared = true;
+    }
+
+    // Repairs the tree with the last change when it produced the snapshot from the tree's version, else rebuilds it
+    private ShortestPathTree catchUp(long origin, ShortestPathTree tree, WeightedGraph snapshot) {
+        EdgeChange change = lastChange;
+        if (change != null && change.version == snapshot.version() && tree.version() == snapshot.version() - 1) {
+            tree.edgeChanged(snapshot, snapshot.indexOf(change.idA), snapshot.indexOf(change.idB),
+                    change.oldCost, change.newCost);
+            return tree;
+        }
+        int source = snapshot.indexOf(origin);
+        if (source < 0) {
+            trees.remove(origin);
+            return null;
+        }
+        ShortestPathTree rebuilt = new ShortestPathTree(snapshot, source);
+        trees.put(origin, rebuilt);
+        return rebuilt;
+    }
+
+    private void dropIfCleared() {
+        if (cleared) {
+            cleared = false;
+            trees.clear();
+        }
+    }
+
+    private synchronized boolean shouldPromote(long origin) {
+        long count = counts.merge(origin, 1L, Long::sum);
+        if (++queriesSinceDecay >= DECAY_INTERVAL) {
+            queriesSinceDecay = 0;
+            counts.replaceAll((id, value) -> value / 2);
+            counts.values().removeIf(value -> value == 0);
+        }
+        if (trees.containsKey(origin) || count < minQueries) {
+            return false;
+        }
+        Long coldest = coldestOrigin();
+        return trees.size() < capacity || count > counts.getOrDefault(coldest, 0L);
+    }
+
+    private synchronized void promote(long origin, ShortestPathTree tree) {
+        dropIfCleared();
+        if (trees.containsKey(origin)) {
+            return;
+        }
+        if (trees.size() >= capacity) {
+            trees.remove(coldestOrigin());
+        }
+        trees.put(origin, tree);
+    }
+
+    private Long coldestOrigin() {
+        return trees.keySet().stream()
+                .min(Comparator.comparing(origin -> counts.getOrDefault(origin, 0L)))
+                .orElse(null);
+    }
+}
@@ -0,0 +1,178 @@
+package com.proyecto.challengejava.graph;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Base class of the route engines that answer queries from data preprocessed for one version of a {@link CostGraph}.
+ *
+ * <p>Every graph mutation queues a catch-up on a single background thread, and bursts of mutations coalesce
+ * into one. The catch-up takes a {@link GraphSnapshot}; if it is exactly one edge change ahead of the data,
+ * the change is offered to {@link #update}, otherwise, or if the engine cannot apply it incrementally, the data
+ * is rebuilt from the snapshot. Both run without any graph lock, so writers are never blocked by them, and
+ * published data is never modified: readers that hold it keep a consistent view of their version.
+ * Until the data catches up with {@link CostGraph#version()}, queries are answered by {@link DijkstraEngine}.</p>
+ *
+ * @param <T> Type of the preprocessed data.
+ */
+public abstract class PreprocessedRouteEngine<T> implements RouteEngine, GraphListener, AutoCloseable {
+
+    protected final CostGraph graph;
+    protected final RouteEngine fallback = new DijkstraEngine();
+    private final AtomicBoolean refreshPending = new AtomicBoolean();
+    private final ExecutorService refresher;
+
+    private volatile Prepared<T> prepared;
+    private volatile EdgeChange lastChange;
+
+    /**
+     * @param graph      Graph whose mutations trigger a rebuild.
+     * @param threadName Name of the background rebuild thread.
+     */
+    protected PreprocessedRouteEngine(CostGraph graph, String threadName) {
+        this.graph = graph;
+        this.refresher = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, threadName);
+            thread.setDaemon(true);
+            return thread;
+        });
+        graph.addListener(this);
+    }
+
+    /**
+     * Builds the engine data from a snapshot of the graph. Runs without holding any graph lock.
+     *
+     * @param snapshot Snapshot to preprocess.
+     * @return Preprocessed data, or {@code null} if the engine declines this graph and Dijkstra should answer.
+     */
+    protected abstract T preprocess(GraphSnapshot snapshot);
+
+    /**
+     * Answers a query with data preprocessed for the same version as {@code graph}.
+     *
+     * @param data   Preprocessed data.
+     * @param graph  Graph being searched; its dense indexes match the preprocessed ones.
+     * @param source Dense index of the origin point.
+     * @param target Dense index of the destination point.
+     * @return Route found, or an unreachable result.
+     */
+    protected abstract RouteResult query(T data, WeightedGraph graph, int source, int target);
+
+    /**
+     * Applies one edge change to data that matches the graph version right before the change.
+     * Runs on the background thread without any graph lock. The data may be read concurrently by queries,
+     * so it must not be modified: changes are made to a copy, which is returned.
+     *
+     * @param data     Data preprocessed for the previous version; read-only.
+     * @param snapshot Snapshot of the graph right after the change.
+     * @param idA      ID of the first point.
+     * @param idB      ID of the second point.
+     * @param oldCost  Previous cost, or {@link Double#NaN} if the edge did not exist.
+     * @param newCost  New cost, or {@link Double#NaN} if the edge was removed.
+     * @return Updated copy of the data, the same data if the change does not affect it,
+     * or {@code null} to request a full rebuild.
+     */
+    protected T update(T data, GraphSnapshot snapshot, long idA, long idB, double oldCost, double newCost) {
+        return null;
+    }
+
+    @Override
+    public RouteResult findRoute(WeightedGraph graph, int source, int target) {
+        Prepared<T> current = prepared;
+        if (current == null || current.version != graph.version()) {
+            scheduleRefresh();
+            return fallback.findRoute(graph, source, target);
+        }
+        if (current.data == null) {
+            return fallback.findRoute(graph, source, target);
+        }
+        return query(current.data, graph, source, target);
+    }
+
+    @Override
+    public boolean isReady() {
+        Prepared<T> current = prepared;
+        return current != null && current.data != null && current.version == graph.version();
+    }
+
+    /**
+     * @return Latest preprocessed data, possibly older than the graph, or {@code null} before the first build.
+     */
+    protected T latest() {
+        Prepared<T> current = prepared;
+        return current == null ? null : current.data;
+    }
+
+    // Runs under the write lock of the graph: only records the change, the catch-up applies it
+    @Override
+    public void edgeChanged(long idA, long idB, double oldCost, double newCost) {
+        lastChange = new EdgeChange(graph.version(), idA, idB, oldCost, newCost);
+        scheduleRefresh();
+    }
+
+    @Override
+    public void graphCleared() {
+        lastChange = null;
+        scheduleRefresh();
+    }
+
+    /**
+     * Rebuilds the preprocessed data synchronously on the calling thread.
+     */
+    public void refresh() {
+        GraphSnapshot snapshot = graph.snapshot();
+        publish(new Prepared<>(snapshot.version(), preprocess(snapshot)));
+    }
+
+    @Override
+    public void close() {
+        refresher.shutdownNow();
+    }
+
+    // Never replaces data with data built for an older version
+    private synchronized void publish(Prepared<T> next) {
+        if (prepared == null || prepared.version <= next.version) {
+            prepared = next;
+        }
+    }
+
+    // At most one catch-up is queued at any time; mutations during a catch-up queue exactly one more
+    private void scheduleRefresh() {
+        if (refreshPending.compareAndSet(false, true)) {
+            refresher.execute(() -> {
+                refreshPending.set(false);
+                catchUp();
+            });
+        }
+    }
+
+    // Applies the last edge change incrementally when the data is exactly one version behind it, else rebuilds
+    private void catchUp() {
+        GraphSnapshot snapshot = graph.snapshot();
+        Prepared<T> current = prepared;
+        EdgeChange change = lastChange;
+        if (current != null && current.version == snapshot.version()) {
+            return;
+        }
+        if (current != null && current.data != null && change != null
+                && change.version == snapshot.version() && current.version == snapshot.version() - 1) {
+            T updated = update(current.data, snapshot, change.idA, change.idB, change.oldCost, change.newCost);
+            if (updated != null) {
+                publish(new Prepared<>(snapshot.version(), updated));
+                return;
+            }
+        }
+        publish(new Prepared<>(snapshot.version(), preprocess(snapshot)));
+    }
+
+    private static class Prepared<T> {
+        final long version;
+        final T data;
+
+        Prepared(long version, T data) {
+            this.version = version;
+            this.data = data;
+        }
+    }
+}
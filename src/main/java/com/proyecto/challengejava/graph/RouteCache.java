@@ -0,0 +1,172 @@
+package com.proyecto.challengejava.graph;
+
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded LRU cache of route results keyed by (origin, destination), kept coherent with a {@link CostGraph}.
+ *
+ * <p>Instead of dropping everything on each mutation, every edge change only evicts the routes it can affect.
+ * Costs are never negative, so:</p>
+ * <ul>
+ *     <li>a more expensive or removed edge only invalidates the routes that use it, found through an
+ *     edge → routes index; every other route keeps its cost and cannot have been beaten;</li>
+ *     <li>a new or cheaper edge of cost {@code w} can only shorten routes costing more than {@code w},
+ *     and can only connect origin/destination pairs cached as unreachable.</li>
+ * </ul>
+ *
+ * <p>Every route is stored with the graph version it was computed on, and only if that is still the current
+ * version, so a route is never stored after a mutation it has not seen. A stored route stays exact for every
+ * later version until it is invalidated, so a lookup made for a snapshot only returns routes stored at or
+ * before the version of that snapshot. Invalidation runs under the write lock as a {@link GraphListener}.</p>
+ */
+public class RouteCache implements GraphListener {
+
+    private final CostGraph graph;
+    private final int capacity;
+    private final Map<Long, Entry> entries;
+    private final Map<Long, Set<Long>> routesByEdge = new HashMap<>();
+    private final Set<Long> unreachable = new HashSet<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    /**
+     * @param graph    Graph whose mutations invalidate the cached routes.
+     * @param capacity Maximum number of cached routes; {@code 0} disables the cache.
+     */
+    public RouteCache(CostGraph graph, int capacity) {
+        this.graph = graph;
+        this.capacity = capacity;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+        graph.addListener(this);
+    }
+
+    /**
+     * @param origin      ID of the origin point.
+     * @param destination ID of the destination point.
+     * @param version     Graph version the caller is reading.
+     * @return Cached result, or {@code null} on a miss or if it was stored after {@code version}.
+     */
+    public synchronized RouteResult get(long origin, long destination, long version) {
+        Entry entry = entries.get(key(origin, destination));
+        if (entry == null || entry.version > version) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.result;
+    }
+
+    /**
+     * Stores a result, evicting the least recently used route if full.
+     * Results tagged with a version other than the current one are discarded.
+     *
+     * @param origin      ID of the origin point.
+     * @param destination ID of the destination point.
+     * @param result      Route found by the engine.
+     * @param version     Graph version the result was computed on.
+     */
+    public synchronized void put(long origin, long destination, RouteResult result, long version) {
+        if (capacity <= 0 || version != graph.version()) {
+            return;
+        }
+        long key = key(origin, destination);
+        if (entries.containsKey(key)) {
+            remove(key);
+        } else if (entries.size() >= capacity) {
+            remove(entries.keySet().iterator().next());
+            evictions.increment();
+        }
+        entries.put(key, new Entry(result, version));
+        if (!result.isReachable()) {
+            unreachable.add(key);
+            return;
+        }
+        List<Long> route = result.getRoute();
+        for (int i = 0; i < route.size() - 1; i++) {
+            routesByEdge.computeIfAbsent(EdgeCostMap.pack(route.get(i), route.get(i + 1)), edge -> new HashSet<>())
+                    .add(key);
+        }
+    }
+
+    @Override
+    public synchronized void edgeChanged(long idA, long idB, double oldCost, double newCost) {
+        if (!Double.isNaN(newCost) && (Double.isNaN(oldCost) || newCost < oldCost)) {
+            List<Long> affected = new ArrayList<>(unreachable);
+            entries.forEach((key, entry) -> {
+                if (entry.result.isReachable() && entry.result.getCost() > newCost) {
+                    affected.add(key);
+                }
+            });
+            affected.forEach(this::invalidate);
+        } else if (Double.isNaN(newCost) || newCost > oldCost) {
+            Set<Long> using = routesByEdge.get(EdgeCostMap.pack(idA, idB));
+            if (using != null) {
+                new ArrayList<>(using).forEach(this::invalidate);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void graphCleared() {
+        invalidations.add(entries.size());
+        entries.clear();
+        routesByEdge.clear();
+        unreachable.clear();
+    }
+
+    public synchronized int size() { return entries.size(); }
+    public int getCapacity() { return capacity; }
+    public long getHits() { return hits.sum(); }
+    public long getMisses() { return misses.sum(); }
+    public long getEvictions() { return evictions.sum(); }
+    public long getInvalidations() { return invalidations.sum(); }
+
+    private void invalidate(long key) {
+        if (remove(key)) {
+            invalidations.increment();
+        }
+    }
+
+    private boolean remove(long key) {
+        Entry entry = entries.remove(key);
+        if (entry == null) {
+            return false;
+        }
+        RouteResult result = entry.result;
+        if (!result.isReachable()) {
+            unreachable.remove(key);
+            return true;
+        }
+        List<Long> route = result.getRoute();
+        for (int i = 0; i < route.size() - 1; i++) {
+            long edge = EdgeCostMap.pack(route.get(i), route.get(i + 1));
+            Set<Long> using = routesByEdge.get(edge);
+            if (using != null && using.remove(key) && using.isEmpty()) {
+                routesByEdge.remove(edge);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Cached route with the graph version it was computed on.
+     */
+    private static class Entry {
+        final RouteResult result;
+        final long version;
+
+        Entry(RouteResult result, long version) {
+            this.result = result;
+            this.version = version;
+        }
+    }
+
+    // Ordered pair: the route from A to B is cached separately from the one from B to A
+    private static long key(long origin, long destination) {
+        return (origin << 32) | destination;
+    }
+}
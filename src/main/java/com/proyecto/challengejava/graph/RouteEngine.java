@@ -0,0 +1,27 @@
+package com.proyecto.challengejava.graph;
+
+/**
+ * Strategy that computes the cheapest route between two points of a {@link WeightedGraph}.
+ */
+public interface RouteEngine {
+
+    /**
+     * Finds the cheapest route between two indexed points.
+     * Meant for an immutable {@link GraphSnapshot}, which needs no lock.
+     *
+     * @param graph  Graph to search.
+     * @param source Dense index of the origin point.
+     * @param target Dense index of the destination point.
+     * @return Route found, or an unreachable result if the points are not connected.
+     */
+    RouteResult findRoute(WeightedGraph graph, int source, int target);
+
+    /**
+     * Engines with preprocessing answer with a plain search until it is up to date with the graph.
+     *
+     * @return {@code true} if the preprocessing, if any, matches the current graph.
+     */
+    default boolean isReady() {
+        return true;
+    }
+}
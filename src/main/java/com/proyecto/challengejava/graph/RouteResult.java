@@ -0,0 +1,56 @@
+package com.proyecto.challengejava.graph;
+
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Outcome of a route search: the point IDs of the route, its total cost
+ * and the number of nodes the search settled to find it.
+ */
+public class RouteResult {
+
+    private final List<Long> route;
+    private final double cost;
+    private final int settledNodes;
+
+    public RouteResult(List<Long> route, double cost, int settledNodes) {
+        this.route = route;
+        this.cost = cost;
+        this.settledNodes = settledNodes;
+    }
+
+    /**
+     * @param settledNodes Nodes settled before the search gave up.
+     * @return Result for two points that are not connected.
+     */
+    public static RouteResult unreachable(int settledNodes) {
+        return new RouteResult(Collections.emptyList(), Double.POSITIVE_INFINITY, settledNodes);
+    }
+
+    /**
+     * Rebuilds a route by following a predecessor array back from the target.
+     *
+     * @param graph        Graph the predecessors refer to.
+     * @param predecessors Predecessor of each dense index, {@code -1} for the origin.
+     * @param target       Dense index of the destination point.
+     * @param cost         Total cost of the route.
+     * @param settledNodes Nodes settled by the search.
+     * @return Route from the origin to the target.
+     */
+    static RouteResult fromPredecessors(WeightedGraph graph, int[] predecessors, int target, double cost, int settledNodes) {
+        LinkedList<Long> route = new LinkedList<>();
+        for (int current = target; current >= 0; current = predecessors[current]) {
+            route.addFirst(graph.idOf(current));
+        }
+        return new RouteResult(route, cost, settledNodes);
+    }
+
+    public List<Long> getRoute() { return route; }
+    public double getCost() { return cost; }
+    public int getSettledNodes() { return settledNodes; }
+
+    public boolean isReachable() {
+        return !route.isEmpty();
+    }
+}
@@ -0,0 +1,56 @@
+package com.proyecto.challengejava.graph;
+
+import com.proyecto.challengejava.dto.RouteQueryStats;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe counters of the work done by route queries,
+ * plus the settled-node count of the most recent queries.
+ */
+public class RouteStatistics {
+
+    private static final int RECENT_QUERIES = 100;
+
+    private final LongAdder queries = new LongAdder();
+    private final LongAdder settledNodes = new LongAdder();
+    private final AtomicLong maxSettledNodes = new AtomicLong();
+    private final Deque<RouteQueryStats> recent = new ArrayDeque<>(RECENT_QUERIES);
+
+    /**
+     * Records one route query.
+     *
+     * @param origin      ID of the origin point.
+     * @param destination ID of the destination point.
+     * @param settled     Number of nodes the search settled.
+     */
+    public void record(Long origin, Long destination, int settled) {
+        queries.increment();
+        settledNodes.add(settled);
+        maxSettledNodes.accumulateAndGet(settled, Math::max);
+        synchronized (recent) {
+            if (recent.size() == RECENT_QUERIES) {
+                recent.removeFirst();
+            }
+            recent.addLast(new RouteQueryStats(origin, destination, settled));
+        }
+    }
+
+    public long getQueries() { return queries.sum(); }
+    public long getSettledNodes() { return settledNodes.sum(); }
+    public long getMaxSettledNodes() { return maxSettledNodes.get(); }
+
+    /**
+     * @return Most recent queries, oldest first.
+     */
+    public List<RouteQueryStats> getRecentQueries() {
+        synchronized (recent) {
+            return new ArrayList<>(recent);
+        }
+    }
+}
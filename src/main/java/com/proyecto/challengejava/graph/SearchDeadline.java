@@ -0,0 +1,96 @@
+package com.proyecto.challengejava.graph;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Deadline of one route computation, checked cooperatively by the search loops.
+ *
+ * <p>The deadline is bound to the thread that runs the computation with {@link #run(Callable)}, so the
+ * engines need no extra parameter: every {@value #CHECK_INTERVAL} settled points they call
+ * {@link #checkpoint(int)}, which records the progress and throws {@link Expired} once the deadline has passed
+ * or the computation was cancelled. Outside {@link #run(Callable)} a checkpoint does nothing.</p>
+ */
+public final class SearchDeadline {
+
+    /** Settled points between two checkpoints; a power of two so the test is a mask. */
+    public static final int CHECK_INTERVAL = 1024;
+
+    private static final ThreadLocal<SearchDeadline> CURRENT = new ThreadLocal<>();
+
+    private final long startNanos = System.nanoTime();
+    private final long deadlineNanos;
+    private volatile boolean cancelled;
+    private volatile long settledNodes;
+
+    /**
+     * @param millis Time budget of the computation, from now.
+     */
+    public SearchDeadline(long millis) {
+        this.deadlineNanos = startNanos + millis * 1_000_000L;
+    }
+
+    /**
+     * Runs a computation with this deadline bound to the calling thread.
+     *
+     * @param task Computation to run.
+     * @return Result of the computation.
+     * @throws Exception whatever the computation throws, including {@link Expired}.
+     */
+    public <T> T run(Callable<T> task) throws Exception {
+        SearchDeadline previous = CURRENT.get();
+        CURRENT.set(this);
+        try {
+            checkpoint(0);
+            return task.call();
+        } finally {
+            CURRENT.set(previous);
+        }
+    }
+
+    /**
+     * Called by the search loops every {@value #CHECK_INTERVAL} settled points.
+     *
+     * @param settled Points settled so far by the calling search.
+     * @throws Expired if the deadline bound to the thread has passed or was cancelled.
+     */
+    public static void checkpoint(int settled) {
+        SearchDeadline deadline = CURRENT.get();
+        if (deadline == null) {
+            return;
+        }
+        deadline.settledNodes += settled;
+        if (deadline.cancelled || System.nanoTime() - deadline.deadlineNanos > 0) {
+            throw new Expired();
+        }
+    }
+
+    /**
+     * Makes the next checkpoint of the computation throw, e.g. once its caller stopped waiting.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * @return Points settled by the computation up to its last checkpoint.
+     */
+    public long getSettledNodes() {
+        return settledNodes;
+    }
+
+    /**
+     * @return Milliseconds elapsed since the deadline was created.
+     */
+    public long getElapsedMillis() {
+        return (System.nanoTime() - startNanos) / 1_000_000L;
+    }
+
+    /**
+     * Thrown from a checkpoint to unwind a search whose deadline has passed.
+     */
+    public static class Expired extends RuntimeException {
+        Expired() {
+            super(null, null, false, false);
+        }
+    }
+}
@@ -0,0 +1,256 @@
+package com.proyecto.challengejava.graph;
+
+import java.util.Arrays;
+
+/**
+ * Working arrays of a single-source search over dense indexes, kept per thread and reused across searches,
+ * so that a query allocates nothing but its result.
+ *
+ * <p>Distances and predecessors live in dense primitive arrays that are only reset on the slots the previous
+ * search touched. The priority queue is an indexed 4-ary heap over parallel primitive arrays: each queued node
+ * knows its slot, so an improved distance moves the node up in place (decrease-key) instead of queuing a
+ * stale duplicate, and the heap never holds more entries than there are reached points. A 4-ary heap is
+ * shallower than a binary one and keeps the children of a slot on the same cache line.</p>
+ *
+ * <p>Searches that must resume on another thread, such as {@link BudgetSearch}, own a private instance.
+ * A search must call {@link #reset()} when it ends, including when it is cut short by a {@link SearchDeadline}.</p>
+ */
+final class SearchScratch {
+
+    private static final ThreadLocal<SearchScratch> FORWARD = ThreadLocal.withInitial(SearchScratch::new);
+    private static final ThreadLocal<SearchScratch> BACKWARD = ThreadLocal.withInitial(SearchScratch::new);
+
+    private static final int ARITY = 4;
+    private static final int NOT_QUEUED = -1;
+
+    private double[] distances = new double[0];
+    private int[] predecessors = new int[0];
+    private int[] positions = new int[0];
+    private boolean[] targets = new boolean[0];
+    private int[] touched = new int[16];
+    private int touchedCount;
+
+    private double[] heapKeys = new double[16];
+    private int[] heapNodes = new int[16];
+    private int heapSize;
+
+    SearchScratch() {
+    }
+
+    /**
+     * @param size Number of dense indexes of the graph to search.
+     * @return Clean scratch of the calling thread, sized for the graph.
+     */
+    static SearchScratch acquire(int size) {
+        return FORWARD.get().ensureCapacity(size);
+    }
+
+    /**
+     * @param size Number of dense indexes of the graph to search.
+     * @return Second clean scratch of the calling thread, for the backward half of a bidirectional search.
+     */
+    static SearchScratch acquireBackward(int size) {
+        return BACKWARD.get().ensureCapacity(size);
+    }
+
+    /**
+     * Grows the dense arrays to hold a graph; they never shrink.
+     *
+     * @return This scratch.
+     */
+    SearchScratch ensureCapacity(int size) {
+        if (distances.length < size) {
+            int capacity = Math.max(size, distances.length * 2);
+            distances = new double[capacity];
+            predecessors = new int[capacity];
+            positions = new int[capacity];
+            targets = new boolean[capacity];
+            Arrays.fill(distances, Double.POSITIVE_INFINITY);
+            Arrays.fill(predecessors, -1);
+            Arrays.fill(positions, NOT_QUEUED);
+        }
+        return this;
+    }
+
+    double distance(int node) {
+        return distances[node];
+    }
+
+    /**
+     * @return Predecessor of every node on its cheapest known route, {@code -1} for the origin and unreached
+     * nodes. Only valid until {@link #reset()}.
+     */
+    int[] predecessors() {
+        return predecessors;
+    }
+
+    /**
+     * @return {@code true} if the node was reached and has already been removed from the queue.
+     */
+    boolean isSettled(int node) {
+        return distances[node] != Double.POSITIVE_INFINITY && positions[node] == NOT_QUEUED;
+    }
+
+    /**
+     * Lowers the distance of a node and queues it by that distance, if {@code cost} improves it.
+     *
+     * @return {@code true} if the distance improved.
+     */
+    boolean relax(int node, double cost, int predecessor) {
+        return relax(node, cost, predecessor, cost);
+    }
+
+    /**
+     * Lowers the distance of a node and queues it by {@code key}, if {@code cost} improves it.
+     * A node already queued keeps its slot and moves up; the key must not be higher than its current one.
+     *
+     * @param node        Dense index of the node.
+     * @param cost        Cost of the route found to the node.
+     * @param predecessor Node the route arrives from, {@code -1} for the origin.
+     * @param key         Priority of the node, e.g. the cost plus an A* lower bound.
+     * @return {@code true} if the distance improved.
+     */
+    boolean relax(int node, double cost, int predecessor, double key) {
+        if (cost >= distances[node]) {
+            return false;
+        }
+        if (distances[node] == Double.POSITIVE_INFINITY) {
+            if (touchedCount == touched.length) {
+                touched = Arrays.copyOf(touched, touchedCount * 2);
+            }
+            touched[touchedCount++] = node;
+        }
+        distances[node] = cost;
+        predecessors[node] = predecessor;
+        int slot = positions[node];
+        if (slot == NOT_QUEUED) {
+            if (heapSize == heapKeys.length) {
+                heapKeys = Arrays.copyOf(heapKeys, heapSize * 2);
+                heapNodes = Arrays.copyOf(heapNodes, heapSize * 2);
+            }
+            slot = heapSize++;
+        }
+        siftUp(slot, key, node);
+        return true;
+    }
+
+    boolean isEmpty() {
+        return heapSize == 0;
+    }
+
+    int queued() {
+        return heapSize;
+    }
+
+    /**
+     * @return Key of the cheapest queued node; the queue must not be empty.
+     */
+    double peekKey() {
+        return heapKeys[0];
+    }
+
+    /**
+     * Removes the cheapest queued node, which is settled with its final distance; the queue must not be empty.
+     *
+     * @return Dense index of the node.
+     */
+    int poll() {
+        int node = heapNodes[0];
+        positions[node] = NOT_QUEUED;
+        heapSize--;
+        if (heapSize > 0) {
+            siftDown(0, heapKeys[heapSize], heapNodes[heapSize]);
+        }
+        return node;
+    }
+
+    /**
+     * Marks a node as a destination of the current search.
+     *
+     * @return {@code false} if it was already marked (repeated destination).
+     */
+    boolean markTarget(int node) {
+        boolean marked = !targets[node];
+        targets[node] = true;
+        return marked;
+    }
+
+    /**
+     * Clears the target mark of a node.
+     *
+     * @return {@code true} if the node was a pending target.
+     */
+    boolean settleTarget(int node) {
+        boolean target = targets[node];
+        targets[node] = false;
+        return target;
+    }
+
+    /**
+     * Restores the touched slots, empties the queue and clears the given target marks, in O(touched).
+     *
+     * @param targetNodes Targets marked for the search, some possibly still pending; {@code -1} entries are ignored.
+     */
+    void reset(int[] targetNodes) {
+        for (int node : targetNodes) {
+            if (node >= 0) {
+                targets[node] = false;
+            }
+        }
+        reset();
+    }
+
+    /**
+     * Restores the touched slots and empties the queue, in O(touched).
+     */
+    void reset() {
+        for (int i = 0; i < touchedCount; i++) {
+            int node = touched[i];
+            distances[node] = Double.POSITIVE_INFINITY;
+            predecessors[node] = -1;
+            positions[node] = NOT_QUEUED;
+        }
+        touchedCount = 0;
+        heapSize = 0;
+    }
+
+    private void siftUp(int hole, double key, int node) {
+        while (hole > 0) {
+            int parent = (hole - 1) / ARITY;
+            if (heapKeys[parent] <= key) {
+                break;
+            }
+            place(hole, heapKeys[parent], heapNodes[parent]);
+            hole = parent;
+        }
+        place(hole, key, node);
+    }
+
+    private void siftDown(int hole, double key, int node) {
+        while (true) {
+            int first = ARITY * hole + 1;
+            if (first >= heapSize) {
+                break;
+            }
+            int child = first;
+            int last = Math.min(first + ARITY, heapSize);
+            for (int candidate = first + 1; candidate < last; candidate++) {
+                if (heapKeys[candidate] < heapKeys[child]) {
+                    child = candidate;
+                }
+            }
+            if (key <= heapKeys[child]) {
+                break;
+            }
+            place(hole, heapKeys[child], heapNodes[child]);
+            hole = child;
+        }
+        place(hole, key, node);
+    }
+
+    private void place(int slot, double key, int node) {
+        heapKeys[slot] = key;
+        heapNodes[slot] = node;
+        positions[node] = slot;
+    }
+}
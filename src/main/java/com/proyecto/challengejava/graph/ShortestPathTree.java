@@ -0,0 +1,175 @@
+package com.proyecto.challengejava.graph;
+
+import java.util.Arrays;
+
+/**
+ * Shortest-path tree of one origin, repaired in place after an edge change following Ramalingam and Reps:
+ * only the points whose distance can change are visited.
+ *
+ * <ul>
+ *     <li>A new or cheaper edge can only shorten routes through it, so improvements are propagated
+ *     from its far endpoint with a Dijkstra that stops expanding points that do not improve.</li>
+ *     <li>A more expensive or removed edge only matters if it is a tree edge. Then the affected points are
+ *     exactly the subtree below it, collected by walking down the tree edges from its top: each one is seeded
+ *     with its best distance through an unaffected neighbor, and a Dijkstra restricted to the subtree settles
+ *     the new distances.</li>
+ * </ul>
+ *
+ * <p>Both searches run on the calling thread's {@link SearchScratch} heap, and only the affected subtree is
+ * marked, so a repair costs time and memory in proportion to the points it touches.</p>
+ *
+ * <p>Not thread-safe; {@link HotOriginTrees} guards every tree.</p>
+ */
+final class ShortestPathTree {
+
+    private double[] distances = new double[0];
+    private int[] parents = new int[0];
+    private boolean[] affected = new boolean[0];
+    private int[] subtree = new int[16];
+    private long version;
+
+    /**
+     * Builds the tree with a full Dijkstra.
+     *
+     * @param graph  Immutable snapshot to search.
+     * @param source Dense index of the origin point.
+     */
+    ShortestPathTree(WeightedGraph graph, int source) {
+        ensureCapacity(graph.size());
+        propagate(graph, source, 0.0, -1);
+        this.version = graph.version();
+    }
+
+    long version() {
+        return version;
+    }
+
+    /**
+     * Repairs the tree, which reflects the version just before {@code graph}, after the single edge change
+     * between {@code a} and {@code b} that produced it.
+     *
+     * @param graph   Snapshot already holding the new cost.
+     * @param a       Dense index of one endpoint.
+     * @param b       Dense index of the other endpoint.
+     * @param oldCost Previous cost, {@link Double#NaN} if the edge is new.
+     * @param newCost Current cost, {@link Double#NaN} if the edge was removed.
+     */
+    void edgeChanged(WeightedGraph graph, int a, int b, double oldCost, double newCost) {
+        ensureCapacity(graph.size());
+        if (!Double.isNaN(newCost) && (Double.isNaN(oldCost) || newCost < oldCost)) {
+            if (distances[a] + newCost < distances[b]) {
+                propagate(graph, b, distances[a] + newCost, a);
+            } else if (distances[b] + newCost < distances[a]) {
+                propagate(graph, a, distances[b] + newCost, b);
+            }
+        } else if (Double.isNaN(newCost) || newCost > oldCost) {
+            if (parents[b] == a) {
+                repairSubtree(graph, b);
+            } else if (parents[a] == b) {
+                repairSubtree(graph, a);
+            }
+        }
+        version = graph.version();
+    }
+
+    /**
+     * @param graph  Graph the tree refers to, at the version of the tree.
+     * @param target Dense index of the destination point.
+     * @return Route read off the tree, without searching.
+     */
+    RouteResult route(WeightedGraph graph, int target) {
+        if (target >= distances.length || Double.isInfinite(distances[target])) {
+            return RouteResult.unreachable(0);
+        }
+        return RouteResult.fromPredecessors(graph, parents, target, distances[target], 0);
+    }
+
+    // Lowers the distance of start and propagates it to every point it improves
+    private void propagate(WeightedGraph graph, int start, double distance, int parent) {
+        SearchScratch scratch = SearchScratch.acquire(graph.size());
+        try {
+            scratch.relax(start, distance, parent);
+            drain(graph, scratch, false);
+        } finally {
+            scratch.reset();
+        }
+    }
+
+    // Every point whose tree path goes through the edge above child loses its distance
+    private void repairSubtree(WeightedGraph graph, int child) {
+        int size = markSubtree(graph, child);
+        SearchScratch scratch = SearchScratch.acquire(graph.size());
+        try {
+            for (int i = 0; i < size; i++) {
+                distances[subtree[i]] = Double.POSITIVE_INFINITY;
+                parents[subtree[i]] = -1;
+            }
+            for (int i = 0; i < size; i++) {
+                int node = subtree[i];
+                for (int j = 0; j < graph.degree(node); j++) {
+                    int neighbor = graph.neighbor(node, j);
+                    if (!affected[neighbor] && !Double.isInfinite(distances[neighbor])) {
+                        scratch.relax(node, distances[neighbor] + graph.weight(node, j), neighbor);
+                    }
+                }
+            }
+            drain(graph, scratch, true);
+        } finally {
+            scratch.reset();
+            for (int i = 0; i < size; i++) {
+                affected[subtree[i]] = false;
+            }
+        }
+    }
+
+    // Collects the subtree of child into subtree[], walking down the tree edges, which are all still in the graph
+    private int markSubtree(WeightedGraph graph, int child) {
+        affected[child] = true;
+        subtree[0] = child;
+        int size = 1;
+        for (int next = 0; next < size; next++) {
+            int node = subtree[next];
+            for (int i = 0; i < graph.degree(node); i++) {
+                int neighbor = graph.neighbor(node, i);
+                if (parents[neighbor] == node && !affected[neighbor]) {
+                    if (size == subtree.length) {
+                        subtree = Arrays.copyOf(subtree, size * 2);
+                    }
+                    affected[neighbor] = true;
+                    subtree[size++] = neighbor;
+                }
+            }
+        }
+        return size;
+    }
+
+    // Dijkstra from the queued points, settling each into the tree; when restricted, only affected points are relaxed
+    private void drain(WeightedGraph graph, SearchScratch scratch, boolean restricted) {
+        int[] predecessors = scratch.predecessors();
+        while (!scratch.isEmpty()) {
+            int node = scratch.poll();
+            double distance = scratch.distance(node);
+            distances[node] = distance;
+            parents[node] = predecessors[node];
+            for (int i = 0; i < graph.degree(node); i++) {
+                int neighbor = graph.neighbor(node, i);
+                double cost = distance + graph.weight(node, i);
+                if ((!restricted || affected[neighbor]) && cost < distances[neighbor]) {
+                    scratch.relax(neighbor, cost, node);
+                }
+            }
+        }
+    }
+
+    private void ensureCapacity(int size) {
+        int old = distances.length;
+        if (old >= size) {
+            return;
+        }
+        distances = Arrays.copyOf(distances, size);
+        parents = Arrays.copyOf(parents, size);
+        affected = Arrays.copyOf(affected, size);
+        Arrays.fill(distances, old, size, Double.POSITIVE_INFINITY);
+        Arrays.fill(parents, old, size, -1);
+    }
+}
@@ -0,0 +1,129 @@
+package com.proyecto.challengejava.graph;
+
+import java.util.Arrays;
+
+/**
+ * Minimum spanning forest of a graph snapshot: the cheapest set of edges that keeps every
+ * component connected, computed with Kruskal's algorithm.
+ *
+ * <p>Edges are ordered with two primitive parallel sorts, so that a million edges are sorted without
+ * boxing: the weights are sorted first to rank each edge, and then the edges are sorted by a
+ * {@code (rank << 32) | edge} key. Points are joined with a union-find by size with path halving.</p>
+ */
+public class SpanningForest {
+
+    private final long version;
+    private final long[] idsA;
+    private final long[] idsB;
+    private final double[] costs;
+    private final double totalCost;
+    private final int trees;
+
+    private SpanningForest(long version, long[] idsA, long[] idsB, double[] costs, double totalCost, int trees) {
+        this.version = version;
+        this.idsA = idsA;
+        this.idsB = idsB;
+        this.costs = costs;
+        this.totalCost = totalCost;
+        this.trees = trees;
+    }
+
+    /**
+     * @param snapshot Graph to span.
+     * @return Minimum spanning forest over the points that have at least one edge.
+     */
+    public static SpanningForest of(WeightedGraph snapshot) {
+        int nodes = snapshot.size();
+        int edgeCount = 0;
+        for (int node = 0; node < nodes; node++) {
+            for (int i = 0; i < snapshot.degree(node); i++) {
+                if (node < snapshot.neighbor(node, i)) {
+                    edgeCount++;
+                }
+            }
+        }
+        int[] from = new int[edgeCount];
+        int[] to = new int[edgeCount];
+        double[] weights = new double[edgeCount];
+        int connectedPoints = 0;
+        for (int node = 0, edge = 0; node < nodes; node++) {
+            if (snapshot.degree(node) > 0) {
+                connectedPoints++;
+            }
+            for (int i = 0; i < snapshot.degree(node); i++) {
+                int neighbor = snapshot.neighbor(node, i);
+                if (node < neighbor) {
+                    from[edge] = node;
+                    to[edge] = neighbor;
+                    weights[edge++] = snapshot.weight(node, i);
+                }
+            }
+        }
+
+        double[] sortedWeights = weights.clone();
+        Arrays.parallelSort(sortedWeights);
+        long[] order = new long[edgeCount];
+        for (int edge = 0; edge < edgeCount; edge++) {
+            long rank = Arrays.binarySearch(sortedWeights, weights[edge]);
+            order[edge] = (rank << 32) | edge;
+        }
+        Arrays.parallelSort(order);
+
+        int[] parents = new int[nodes];
+        int[] sizes = new int[nodes];
+        for (int node = 0; node < nodes; node++) {
+            parents[node] = node;
+            sizes[node] = 1;
+        }
+        int capacity = Math.max(connectedPoints - 1, 0);
+        long[] idsA = new long[capacity];
+        long[] idsB = new long[capacity];
+        double[] costs = new double[capacity];
+        int accepted = 0;
+        double totalCost = 0.0;
+        for (int i = 0; i < edgeCount && accepted < capacity; i++) {
+            int edge = (int) order[i];
+            if (union(parents, sizes, from[edge], to[edge])) {
+                idsA[accepted] = snapshot.idOf(from[edge]);
+                idsB[accepted] = snapshot.idOf(to[edge]);
+                costs[accepted++] = weights[edge];
+                totalCost += weights[edge];
+            }
+        }
+        return new SpanningForest(snapshot.version(), Arrays.copyOf(idsA, accepted), Arrays.copyOf(idsB, accepted),
+                Arrays.copyOf(costs, accepted), totalCost, connectedPoints - accepted);
+    }
+
+    public long version() { return version; }
+    public int size() { return costs.length; }
+    public long idA(int i) { return idsA[i]; }
+    public long idB(int i) { return idsB[i]; }
+    public double cost(int i) { return costs[i]; }
+    public double getTotalCost() { return totalCost; }
+    public int getTrees() { return trees; }
+
+    // Union by size with path halving; returns false if both points were already joined
+    private static boolean union(int[] parents, int[] sizes, int a, int b) {
+        int rootA = find(parents, a);
+        int rootB = find(parents, b);
+        if (rootA == rootB) {
+            return false;
+        }
+        if (sizes[rootA] < sizes[rootB]) {
+            int swap = rootA;
+            rootA = rootB;
+            rootB = swap;
+        }
+        parents[rootB] = rootA;
+        sizes[rootA] += sizes[rootB];
+        return true;
+    }
+
+    private static int find(int[] parents, int node) {
+        while (parents[node] != node) {
+            parents[node] = parents[parents[node]];
+            node = parents[node];
+        }
+        return node;
+    }
+}
@@ -0,0 +1,66 @@
+package com.proyecto.challengejava.graph;
+
+/**
+ * Read-only view of an undirected weighted graph whose points are addressed by dense int indexes.
+ * Implemented by the mutable {@link CostGraph} and by its immutable {@link GraphSnapshot}s.
+ */
+public interface WeightedGraph {
+
+    /**
+     * @param id ID of a point.
+     * @return Dense index of the point, or {@code -1} if it is not part of the graph.
+     */
+    int indexOf(long id);
+
+    /**
+     * @param index Dense index of a point.
+     * @return ID of the point.
+     */
+    long idOf(int index);
+
+    /**
+     * @return Number of indexed points, i.e. the upper bound for dense indexes.
+     */
+    int size();
+
+    /**
+     * @param index Dense index of a point.
+     * @return Number of neighbors of the point.
+     */
+    int degree(int index);
+
+    /**
+     * @param index Dense index of a point.
+     * @param i     Position in the adjacency list, between 0 and {@code degree(index) - 1}.
+     * @return Dense index of the neighbor.
+     */
+    int neighbor(int index, int i);
+
+    /**
+     * @param index Dense index of a point.
+     * @param i     Position in the adjacency list, between 0 and {@code degree(index) - 1}.
+     * @return Weight of the edge to that neighbor.
+     */
+    double weight(int index, int i);
+
+    /**
+     * Looks up the weight of the edge between two points by scanning the adjacency list of the first one.
+     *
+     * @param from Dense index of a point.
+     * @param to   Dense index of a neighbor.
+     * @return Weight of the edge, or {@link Double#NaN} if the points are not adjacent.
+     */
+    default double weightBetween(int from, int to) {
+        for (int i = 0; i < degree(from); i++) {
+            if (neighbor(from, i) == to) {
+                return weight(from, i);
+            }
+        }
+        return Double.NaN;
+    }
+
+    /**
+     * @return Version of the graph this view reflects.
+     */
+    long version();
+}
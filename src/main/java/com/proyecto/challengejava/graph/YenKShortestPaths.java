@@ -0,0 +1,198 @@
+package com.proyecto.challengejava.graph;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Yen's algorithm for the k cheapest loopless routes between two points.
+ *
+ * <p>Starting from the cheapest route, each iteration takes the last accepted route and, for every point
+ * on it (the spur point), searches the cheapest way to the destination that leaves the spur point through
+ * an edge not used by any accepted route sharing the same prefix (the root), and that never revisits
+ * a root point. Every spur route becomes a candidate, and the cheapest candidate is accepted next.</p>
+ *
+ * <p>The spur searches of one iteration are independent and run in parallel on the given executor. They
+ * read the dense adjacency index of an immutable {@link GraphSnapshot} directly, so neither the caller nor
+ * the workers take any lock.</p>
+ */
+public class YenKShortestPaths {
+
+    private final WeightedGraph graph;
+    private final Executor executor;
+
+    /**
+     * @param graph    Graph to search.
+     * @param executor Executor running the spur searches of each iteration.
+     */
+    public YenKShortestPaths(WeightedGraph graph, Executor executor) {
+        this.graph = graph;
+        this.executor = executor;
+    }
+
+    /**
+     * @param source Dense index of the origin point.
+     * @param target Dense index of the destination point.
+     * @param k      Maximum number of routes.
+     * @return Up to {@code k} loopless routes, cheapest first; empty if the destination is unreachable.
+     */
+    public List<RouteResult> find(int source, int target, int k) {
+        List<Candidate> accepted = new ArrayList<>();
+        Candidate first = spurSearch(source, target, new boolean[graph.size()], Collections.emptySet());
+        if (first == null) {
+            return Collections.emptyList();
+        }
+        accepted.add(first);
+        PriorityQueue<Candidate> candidates = new PriorityQueue<>(
+                Comparator.comparingDouble((Candidate candidate) -> candidate.cost)
+                        .thenComparingInt(candidate -> candidate.nodes.length));
+        Set<List<Integer>> seen = new HashSet<>();
+        seen.add(first.asList());
+        int settled = first.settled;
+
+        while (accepted.size() < k) {
+            Candidate previous = accepted.get(accepted.size() - 1);
+            List<CompletableFuture<Candidate>> spurs = new ArrayList<>();
+            for (int i = 0; i < previous.nodes.length - 1; i++) {
+                int spurIndex = i;
+                spurs.add(CompletableFuture.supplyAsync(() -> spur(accepted, previous, spurIndex, target), executor));
+            }
+            for (CompletableFuture<Candidate> spur : spurs) {
+                Candidate candidate = spur.join();
+                if (candidate != null) {
+                    settled += candidate.settled;
+                    if (seen.add(candidate.asList())) {
+                        candidates.add(candidate);
+                    }
+                }
+            }
+            if (candidates.isEmpty()) {
+                break;
+            }
+            accepted.add(candidates.poll());
+        }
+
+        List<RouteResult> routes = new ArrayList<>(accepted.size());
+        for (Candidate candidate : accepted) {
+            List<Long> route = new ArrayList<>(candidate.nodes.length);
+            for (int node : candidate.nodes) {
+                route.add(graph.idOf(node));
+            }
+            routes.add(new RouteResult(route, candidate.cost, settled));
+        }
+        return routes;
+    }
+
+    /**
+     * Builds the candidate that deviates from {@code previous} at position {@code spurIndex}.
+     */
+    private Candidate spur(List<Candidate> accepted, Candidate previous, int spurIndex, int target) {
+        int spurNode = previous.nodes[spurIndex];
+        Set<Long> blockedArcs = new HashSet<>();
+        for (Candidate route : accepted) {
+            if (route.nodes.length > spurIndex + 1 && route.sharesPrefix(previous, spurIndex)) {
+                blockedArcs.add(arc(route.nodes[spurIndex], route.nodes[spurIndex + 1]));
+            }
+        }
+        boolean[] blockedNodes = new boolean[graph.size()];
+        for (int i = 0; i < spurIndex; i++) {
+            blockedNodes[previous.nodes[i]] = true;
+        }
+
+        Candidate spurPath = spurSearch(spurNode, target, blockedNodes, blockedArcs);
+        if (spurPath == null) {
+            return null;
+        }
+        int[] nodes = new int[spurIndex + spurPath.nodes.length];
+        System.arraycopy(previous.nodes, 0, nodes, 0, spurIndex);
+        System.arraycopy(spurPath.nodes, 0, nodes, spurIndex, spurPath.nodes.length);
+        return new Candidate(nodes, previous.prefixCosts[spurIndex] + spurPath.cost, spurPath.settled);
+    }
+
+    /**
+     * Dijkstra from {@code source} to {@code target} that skips the blocked points and the blocked arcs.
+     *
+     * @return Cheapest route, or {@code null} if the target cannot be reached.
+     */
+    private Candidate spurSearch(int source, int target, boolean[] blockedNodes, Set<Long> blockedArcs) {
+        SearchScratch scratch = SearchScratch.acquire(graph.size());
+        try {
+            scratch.relax(source, 0.0, -1);
+            int settled = 0;
+
+            while (!scratch.isEmpty()) {
+                int actual = scratch.poll();
+                if ((++settled & (SearchDeadline.CHECK_INTERVAL - 1)) == 0) {
+                    SearchDeadline.checkpoint(SearchDeadline.CHECK_INTERVAL);
+                }
+                if (actual == target) {
+                    break;
+                }
+                double distance = scratch.distance(actual);
+                for (int i = 0; i < graph.degree(actual); i++) {
+                    int neighbor = graph.neighbor(actual, i);
+                    if (blockedNodes[neighbor] || (actual == source && blockedArcs.contains(arc(actual, neighbor)))) {
+                        continue;
+                    }
+                    scratch.relax(neighbor, distance + graph.weight(actual, i), actual);
+                }
+            }
+            if (scratch.distance(target) == Double.POSITIVE_INFINITY) {
+                return null;
+            }
+            int[] predecessors = scratch.predecessors();
+            int length = 0;
+            for (int current = target; current >= 0; current = predecessors[current]) {
+                length++;
+            }
+            int[] nodes = new int[length];
+            for (int current = target, i = length - 1; current >= 0; current = predecessors[current], i--) {
+                nodes[i] = current;
+            }
+            return new Candidate(nodes, scratch.distance(target), settled);
+        } finally {
+            scratch.reset();
+        }
+    }
+
+    private double weightOf(int from, int to) {
+        double weight = graph.weightBetween(from, to);
+        if (Double.isNaN(weight)) {
+            throw new IllegalStateException("Missing arc between " + from + " and " + to);
+        }
+        return weight;
+    }
+
+    // Directed arc between two dense indexes
+    private static long arc(int from, int to) {
+        return ((long) from << 32) | (to & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Route of dense indexes with its cost and the cost of each of its prefixes.
+     */
+    private class Candidate {
+        final int[] nodes;
+        final double cost;
+        final double[] prefixCosts;
+        final int settled;
+
+        Candidate(int[] nodes, double cost, int settled) {
+            this.nodes = nodes;
+            this.cost = cost;
+            this.settled = settled;
+            this.prefixCosts = new double[nodes.length];
+            for (int i = 1; i < nodes.length; i++) {
+                prefixCosts[i] = prefixCosts[i - 1] + weightOf(nodes[i - 1], nodes[i]);
+            }
+        }
+
+        boolean sharesPrefix(Candidate other, int length) {
+            return Arrays.equals(nodes, 0, length + 1, other.nodes, 0, length + 1);
+        }
+
+        List<Integer> asList() {
+            return Arrays.stream(nodes).boxed().toList();
+        }
+    }
+}
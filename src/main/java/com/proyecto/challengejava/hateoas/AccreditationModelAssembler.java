@@ -21,7 +21,7 @@ public class AccreditationModelAssembler implements RepresentationModelAssembler
 
         entity.add(WebMvcLinkBuilder.linkTo(
                 WebMvcLinkBuilder.methodOn(AccreditationController.class)
-                        .getAccreditations()
+                        .getAccreditations(null, null, null, null, null)
         ).withRel(SEE_ALL_ACCREDITATIONS));
 
         return entity;
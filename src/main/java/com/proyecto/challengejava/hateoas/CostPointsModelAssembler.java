@@ -24,7 +24,7 @@ public class CostPointsModelAssembler implements RepresentationModelAssembler<Co
         entity.add(
                 WebMvcLinkBuilder.linkTo(
                         WebMvcLinkBuilder.methodOn(CostPointsController.class)
-                                .calculateMinCost(new CostPointsRequest(entity.getIdA(), entity.getIdB()))
+                                .calculateMinCost(new CostPointsRequest(entity.getIdA(), entity.getIdB()), null)
                 ).withRel(CALCULATE_MIN_ROUTE)
         );
 
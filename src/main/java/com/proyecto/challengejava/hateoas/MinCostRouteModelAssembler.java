@@ -21,7 +21,7 @@ public class MinCostRouteModelAssembler implements RepresentationModelAssembler<
 
             response.add(WebMvcLinkBuilder.linkTo(
                     WebMvcLinkBuilder.methodOn(CostPointsController.class)
-                            .calculateMinCost(request)
+                            .calculateMinCost(request, null)
             ).withRel(RECALCULATE_ROUTE));
         }
 
@@ -0,0 +1,242 @@
+package com.proyecto.challengejava.ingestion;
+
+import com.proyecto.challengejava.entity.Accreditation;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only local file of the accreditations acknowledged but not yet written to the database.
+ *
+ * <p>Each record is little-endian: an {@code int} payload length, the payload (journal sequence, amount,
+ * point of sale ID, reception day, name length and UTF-8 name) and an {@code int} CRC-32C of the payload.
+ * An append returns once the record is forced to disk; appends that arrive while another thread is forcing
+ * the file are covered by the next single force (group commit). On recovery the records are read up to
+ * the first torn or corrupted one, and the file is cut there.</p>
+ *
+ * <p>Records stay open until they are released, once written elsewhere. Compaction drops the records before
+ * the oldest open one: in place when none is open, otherwise by copying the rest to a new file that replaces
+ * the journal, which is only done once the dropped prefix is at least as long as the rest, so every byte is
+ * copied a bounded number of times. A replacement lost to a crash only brings back released records.</p>
+ */
+public class AccreditationJournal implements AutoCloseable {
+
+    private static final int FIXED_PAYLOAD_BYTES = Long.BYTES + Double.BYTES + Long.BYTES + Long.BYTES + Short.BYTES;
+    private static final int MAX_NAME_BYTES = Short.MAX_VALUE;
+
+    private final Path path;
+    private final Object syncLock = new Object();
+    private final ByteBuffer buffer = ByteBuffer.allocate(256).order(ByteOrder.LITTLE_ENDIAN);
+    // Offset of every open record, by sequence
+    private final TreeMap<Long, Long> open = new TreeMap<>();
+    private FileChannel channel;
+    private long sequence;
+    private volatile long written;
+    private long synced;
+
+    /**
+     * Opens the journal, creating the file and its directory if missing.
+     *
+     * @param path Journal file.
+     * @throws IOException if the file cannot be opened.
+     */
+    public AccreditationJournal(Path path) throws IOException {
+        this.path = path;
+        Path directory = path.toAbsolutePath().getParent();
+        if (directory != null) {
+            Files.createDirectories(directory);
+        }
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+    }
+
+    /**
+     * Reads every intact record, cuts off a torn tail and positions the journal for appends.
+     * Every recovered record is open. Must be called once, before the first append.
+     *
+     * @param lastSequence Highest sequence known elsewhere, e.g. already written to the database;
+     *                     new records are numbered after it and after every recovered record.
+     * @return Recovered records, in journal order, with their sequence set.
+     * @throws IOException if the file cannot be read or cut.
+     */
+    public synchronized List<Accreditation> recover(long lastSequence) throws IOException {
+        List<Accreditation> records = new ArrayList<>();
+        sequence = lastSequence;
+        long position = 0;
+        long size = channel.size();
+        ByteBuffer header = ByteBuffer.allocate(Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        while (position + Integer.BYTES <= size) {
+            header.clear();
+            channel.read(header, position);
+            int length = header.getInt(0);
+            if (length < FIXED_PAYLOAD_BYTES || length > FIXED_PAYLOAD_BYTES + MAX_NAME_BYTES
+                    || position + Integer.BYTES + length + Integer.BYTES > size) {
+                break;
+            }
+            ByteBuffer record = ByteBuffer.allocate(length + Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            channel.read(record, position + Integer.BYTES);
+            CRC32C checksum = new CRC32C();
+            checksum.update(record.array(), 0, length);
+            if (record.getInt(length) != (int) checksum.getValue()) {
+                break;
+            }
+            Accreditation accreditation = decode(record);
+            sequence = Math.max(sequence, accreditation.getJournalSequence());
+            records.add(accreditation);
+            open.put(accreditation.getJournalSequence(), position);
+            position += Integer.BYTES + length + Integer.BYTES;
+        }
+        channel.truncate(position);
+        channel.position(position);
+        channel.force(true);
+        written = position;
+        synced = position;
+        return records;
+    }
+
+    /**
+     * Numbers an accreditation with the next sequence, appends it as an open record and waits until it is on disk.
+     *
+     * @param accreditation Accreditation to append; its journal sequence is set.
+     * @throws IOException if the record cannot be written or forced.
+     */
+    public void append(Accreditation accreditation) throws IOException {
+        long end;
+        synchronized (this) {
+            accreditation.setJournalSequence(++sequence);
+            ByteBuffer record = encode(accreditation);
+            open.put(sequence, channel.position());
+            while (record.hasRemaining()) {
+                channel.write(record);
+            }
+            end = channel.position();
+            written = end;
+        }
+        synchronized (syncLock) {
+            if (synced < end) {
+                long target = written;
+                channel.force(false);
+                synced = target;
+            }
+        }
+    }
+
+    /**
+     * Marks records as written elsewhere, so that compaction may drop them.
+     *
+     * @param records Records appended or recovered by this journal.
+     */
+    public synchronized void release(Collection<Accreditation> records) {
+        for (Accreditation record : records) {
+            open.remove(record.getJournalSequence());
+        }
+    }
+
+    /**
+     * Drops the records before the oldest open one, if that is worth it, while no append can run.
+     *
+     * @return {@code true} if the journal was compacted.
+     * @throws IOException if the file cannot be cut or replaced.
+     */
+    public synchronized boolean compact() throws IOException {
+        long start = open.isEmpty() ? written : open.firstEntry().getValue();
+        if (start == 0 || start < written - start) {
+            return false;
+        }
+        if (start == written) {
+            channel.truncate(0);
+            channel.position(0);
+            synchronized (syncLock) {
+                written = 0;
+                synced = 0;
+            }
+            return true;
+        }
+        long kept = written - start;
+        Path compacted = path.resolveSibling(path.getFileName() + ".compact");
+        try (FileChannel target = FileChannel.open(compacted, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            long copied = 0;
+            while (copied < kept) {
+                copied += channel.transferTo(start + copied, kept - copied, target);
+            }
+            target.force(true);
+        }
+        synchronized (syncLock) {
+            Files.move(compacted, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            channel.close();
+            channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            channel.position(kept);
+            open.replaceAll((sequence, offset) -> offset - start);
+            written = kept;
+            synced = kept;
+        }
+        return true;
+    }
+
+    /**
+     * @return Current size of the journal in bytes.
+     */
+    public long size() {
+        return written;
+    }
+
+    /**
+     * @return Journal file.
+     */
+    public Path path() {
+        return path;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        channel.close();
+    }
+
+    private ByteBuffer encode(Accreditation accreditation) {
+        byte[] name = accreditation.getPointSaleName() == null
+                ? new byte[0] : accreditation.getPointSaleName().getBytes(StandardCharsets.UTF_8);
+        if (name.length > MAX_NAME_BYTES) {
+            throw new IllegalArgumentException("Point of sale name too long for the journal");
+        }
+        int length = FIXED_PAYLOAD_BYTES + name.length;
+        ByteBuffer record = length + 2 * Integer.BYTES <= buffer.capacity()
+                ? buffer.clear()
+                : ByteBuffer.allocate(length + 2 * Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        record.putInt(length)
+                .putLong(accreditation.getJournalSequence())
+                .putDouble(accreditation.getAmount())
+                .putLong(accreditation.getIdPointSale())
+                .putLong(accreditation.getDateReception().toEpochDay())
+                .putShort((short) name.length)
+                .put(name);
+        CRC32C checksum = new CRC32C();
+        checksum.update(record.array(), Integer.BYTES, length);
+        record.putInt((int) checksum.getValue());
+        return record.flip();
+    }
+
+    private static Accreditation decode(ByteBuffer record) {
+        Accreditation accreditation = new Accreditation();
+        accreditation.setJournalSequence(record.getLong(0));
+        accreditation.setAmount(record.getDouble(8));
+        accreditation.setIdPointSale(record.getLong(16));
+        accreditation.setDateReception(LocalDate.ofEpochDay(record.getLong(24)));
+        int nameLength = record.getShort(32);
+        accreditation.setPointSaleName(new String(record.array(), FIXED_PAYLOAD_BYTES, nameLength, StandardCharsets.UTF_8));
+        return accreditation;
+    }
+}
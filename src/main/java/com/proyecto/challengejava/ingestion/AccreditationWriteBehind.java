@@ -0,0 +1,350 @@
+package com.proyecto.challengejava.ingestion;
+
+import com.proyecto.challengejava.config.IngestionProperties;
+import com.proyecto.challengejava.dto.IngestionStats;
+import com.proyecto.challengejava.entity.Accreditation;
+import com.proyecto.challengejava.enums.IngestionMode;
+import com.proyecto.challengejava.exception.IngestionBackpressureException;
+import com.proyecto.challengejava.rollup.AccreditationRollups;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.proyecto.challengejava.constants.Constants.*;
+
+/**
+ * Write-behind persistence of accreditations, active when {@code accreditations.ingestion.mode=journal}.
+ *
+ * <p>An accreditation is acknowledged once it is forced to the {@link AccreditationJournal}. A single
+ * background thread then writes queued accreditations to the database with one multi-row insert per batch,
+ * flushing when {@code batch-size} accreditations are waiting or {@code flush-interval-millis} after the
+ * first of them arrived. A failed insert is retried with the same batch, minus any rows an earlier attempt
+ * committed, after {@code flush-interval-millis}. Accreditations are checked against the table before they
+ * are journaled, so the database should never refuse an acknowledged one; if it still does, the batch is
+ * split until the offending rows are isolated and those are parked in {@code <journal-file>.parked} so the
+ * rest keep flowing. After every batch the journal drops the records before the oldest one still pending.</p>
+ *
+ * <p>At most {@code max-pending} accreditations may be journaled but not yet written; further ones wait up
+ * to {@code backpressure-timeout-millis} for room and are then rejected. Every row carries its journal
+ * sequence under a unique index, so on startup the journaled accreditations whose sequence is not in the
+ * database yet are queued again, with the writer already running so that they too wait for room; none is
+ * written twice. Accreditations are added to the rollups as they reach the database, so the rollups, rebuilt
+ * from it on startup, never count a replayed one twice.</p>
+ */
+@Component
+public class AccreditationWriteBehind {
+
+    private static final String INSERT_PREFIX =
+            "INSERT INTO accreditation (amount, id_point_sale, point_sale_name, date_reception, journal_sequence) VALUES ";
+    private static final String INSERT_ROW = "(?, ?, ?, ?, ?)";
+    // Length of accreditation.point_sale_name
+    private static final int MAX_NAME_LENGTH = 255;
+    // Bounds of a MySQL DATE
+    private static final LocalDate EARLIEST_DATE = LocalDate.of(1000, 1, 1);
+    private static final LocalDate LATEST_DATE = LocalDate.of(9999, 12, 31);
+
+    private final IngestionProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+    private final AccreditationRollups rollups;
+    private final LinkedBlockingQueue<Accreditation> queue = new LinkedBlockingQueue<>();
+    private final Semaphore room;
+    private final AtomicLong appended = new AtomicLong();
+    private final AtomicLong flushed = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong failedFlushes = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong parked = new AtomicLong();
+    private final AtomicLong totalFlushMillis = new AtomicLong();
+    private volatile long lastFlushMillis;
+    private volatile long maxFlushMillis;
+    private volatile long replayed;
+    private volatile boolean running;
+    private AccreditationJournal journal;
+    private Thread writer;
+
+    /**
+     * @param properties   Ingestion settings.
+     * @param jdbcTemplate Template used for the multi-row inserts and the recovery queries.
+     * @param rollups      Daily rollups, which count every accreditation once it is written.
+     */
+    public AccreditationWriteBehind(IngestionProperties properties, JdbcTemplate jdbcTemplate,
+                                    AccreditationRollups rollups) {
+        this.properties = properties;
+        this.jdbcTemplate = jdbcTemplate;
+        this.rollups = rollups;
+        this.room = new Semaphore(properties.getMaxPending());
+    }
+
+    /**
+     * Opens the journal, starts the writer thread and queues the accreditations the journal holds that are
+     * not in the database yet, waiting for room as the writer stores them. Does nothing unless the journal
+     * mode is enabled.
+     *
+     * @throws IOException if the journal cannot be opened or read.
+     */
+    @PostConstruct
+    public void start() throws IOException {
+        if (!isEnabled()) {
+            return;
+        }
+        journal = new AccreditationJournal(Path.of(properties.getJournalFile()));
+        Long lastSequence = jdbcTemplate.queryForObject(
+                "SELECT MAX(journal_sequence) FROM accreditation", Long.class);
+        List<Accreditation> records = journal.recover(lastSequence == null ? 0 : lastSequence);
+        List<Accreditation> missing = records;
+        if (!records.isEmpty()) {
+            Set<Long> written = writtenOf(records);
+            journal.release(records.stream().filter(row -> written.contains(row.getJournalSequence())).toList());
+            missing = records.stream().filter(row -> !written.contains(row.getJournalSequence())).toList();
+        }
+        running = true;
+        writer = new Thread(this::drain, "accreditation-writer");
+        writer.setDaemon(true);
+        writer.start();
+        for (Accreditation record : missing) {
+            room.acquireUninterruptibly();
+            queue.add(record);
+            replayed++;
+        }
+    }
+
+    /**
+     * @return {@code true} if accreditations are acknowledged from the journal and written behind.
+     */
+    public boolean isEnabled() {
+        return properties.getMode() == IngestionMode.JOURNAL;
+    }
+
+    /**
+     * Journals an accreditation and queues it for the database, waiting for room if too many are pending.
+     *
+     * @param accreditation Accreditation to persist; its journal sequence is set.
+     * @throws IllegalArgumentException if the accreditation does not fit the accreditation table.
+     * @throws IngestionBackpressureException if no room frees up within the backpressure timeout.
+     */
+    public void submit(Accreditation accreditation) {
+        validate(accreditation);
+        try {
+            if (!room.tryAcquire(properties.getBackpressureTimeoutMillis(), TimeUnit.MILLISECONDS)) {
+                rejected.incrementAndGet();
+                throw new IngestionBackpressureException(INGESTION_BACKPRESSURE);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IngestionBackpressureException(INGESTION_BACKPRESSURE);
+        }
+        try {
+            journal.append(accreditation);
+        } catch (IOException e) {
+            room.release();
+            throw new UncheckedIOException(e);
+        }
+        appended.incrementAndGet();
+        queue.add(accreditation);
+    }
+
+    /**
+     * @return Queue depth, journal size, throughput counters and flush latencies.
+     */
+    public IngestionStats getStats() {
+        long batchCount = batches.get();
+        return new IngestionStats(properties.getMode().name().toLowerCase(Locale.ROOT),
+                properties.getMaxPending() - room.availablePermits(), journal == null ? 0 : journal.size(),
+                appended.get(), replayed, flushed.get(), batchCount, failedFlushes.get(), rejected.get(), parked.get(),
+                lastFlushMillis, maxFlushMillis, batchCount == 0 ? 0 : totalFlushMillis.get() / batchCount);
+    }
+
+    /**
+     * Stops the writer once the queue is written, then closes the journal.
+     * Accreditations still pending because the database is unreachable stay in the journal for the next start.
+     * If the writer is stuck in a database call that ignores the interrupt, the journal is left open for it.
+     */
+    @PreDestroy
+    public void shutdown() throws IOException, InterruptedException {
+        if (writer == null) {
+            return;
+        }
+        running = false;
+        writer.join(Math.max(properties.getFlushIntervalMillis() * 10, 5000));
+        writer.interrupt();
+        writer.join(properties.getFlushIntervalMillis());
+        if (!writer.isAlive()) {
+            journal.close();
+        }
+    }
+
+    // Checks what the database would refuse, so that an acknowledged accreditation is never parked
+    private static void validate(Accreditation accreditation) {
+        Double amount = accreditation.getAmount();
+        String name = accreditation.getPointSaleName();
+        LocalDate date = accreditation.getDateReception();
+        if (amount == null || !Double.isFinite(amount) || accreditation.getIdPointSale() == null
+                || name == null || name.length() > MAX_NAME_LENGTH
+                || date == null || date.isBefore(EARLIEST_DATE) || date.isAfter(LATEST_DATE)) {
+            throw new IllegalArgumentException(INVALID_ACCREDITATION);
+        }
+    }
+
+    // Body of the writer thread: gathers batches by count or time and writes them until stopped and drained
+    private void drain() {
+        List<Accreditation> batch = new ArrayList<>(properties.getBatchSize());
+        try {
+            while (running || !queue.isEmpty()) {
+                Accreditation first = queue.poll(properties.getFlushIntervalMillis(), TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(properties.getFlushIntervalMillis());
+                while (batch.size() < properties.getBatchSize()) {
+                    long remaining = deadline - System.nanoTime();
+                    Accreditation next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                write(batch);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Writes one batch, retrying and isolating rejected rows until every row is stored or parked
+    void write(List<Accreditation> batch) throws InterruptedException {
+        long start = System.nanoTime();
+        rollups.beginWrite();
+        try {
+            store(batch);
+        } finally {
+            rollups.endWrite();
+        }
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        lastFlushMillis = millis;
+        maxFlushMillis = Math.max(maxFlushMillis, millis);
+        totalFlushMillis.addAndGet(millis);
+        batches.incrementAndGet();
+        room.release(batch.size());
+        compactJournal();
+    }
+
+    // Inserts rows with a single multi-row insert. Failures caused by the rows themselves are isolated;
+    // anything else (an outage, a lock timeout, a missing grant) is retried after the flush interval
+    private void store(List<Accreditation> rows) throws InterruptedException {
+        while (!rows.isEmpty()) {
+            try {
+                insert(rows);
+                stored(rows);
+                return;
+            } catch (DuplicateKeyException e) {
+                // An earlier attempt was committed although its answer was lost: keep only the missing rows
+                failedFlushes.incrementAndGet();
+                Set<Long> written = writtenOf(rows);
+                if (written.isEmpty()) {
+                    isolate(rows);
+                    return;
+                }
+                stored(rows.stream().filter(row -> written.contains(row.getJournalSequence())).toList());
+                rows = rows.stream().filter(row -> !written.contains(row.getJournalSequence())).toList();
+            } catch (DataIntegrityViolationException e) {
+                failedFlushes.incrementAndGet();
+                isolate(rows);
+                return;
+            } catch (DataAccessException e) {
+                failedFlushes.incrementAndGet();
+                Thread.sleep(properties.getFlushIntervalMillis());
+            }
+        }
+    }
+
+    // Counts rows that reached the database, adds them to the rollups and releases them from the journal
+    private void stored(List<Accreditation> rows) {
+        journal.release(rows);
+        flushed.addAndGet(rows.size());
+        for (Accreditation row : rows) {
+            rollups.record(row.getIdPointSale(), row.getDateReception(), row.getAmount());
+        }
+    }
+
+    // Halves the rows until the ones the database refuses are alone, then parks those
+    private void isolate(List<Accreditation> rows) throws InterruptedException {
+        if (rows.size() == 1) {
+            park(rows.get(0));
+            return;
+        }
+        int half = rows.size() / 2;
+        store(rows.subList(0, half));
+        store(rows.subList(half, rows.size()));
+    }
+
+    // Appends a refused row to the parked file, retrying while the file cannot be written
+    private void park(Accreditation accreditation) throws InterruptedException {
+        String line = accreditation.getJournalSequence() + "\t" + accreditation.getAmount() + "\t"
+                + accreditation.getIdPointSale() + "\t" + accreditation.getPointSaleName() + "\t"
+                + accreditation.getDateReception() + System.lineSeparator();
+        Path file = Path.of(properties.getJournalFile() + ".parked");
+        while (true) {
+            try {
+                Files.writeString(file, line, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                        StandardOpenOption.APPEND, StandardOpenOption.SYNC);
+                journal.release(List.of(accreditation));
+                parked.incrementAndGet();
+                return;
+            } catch (IOException e) {
+                failedFlushes.incrementAndGet();
+                Thread.sleep(properties.getFlushIntervalMillis());
+            }
+        }
+    }
+
+    private void insert(List<Accreditation> rows) {
+        String sql = INSERT_PREFIX + String.join(", ", Collections.nCopies(rows.size(), INSERT_ROW));
+        Object[] arguments = new Object[rows.size() * 5];
+        for (int i = 0; i < rows.size(); i++) {
+            Accreditation accreditation = rows.get(i);
+            arguments[i * 5] = accreditation.getAmount();
+            arguments[i * 5 + 1] = accreditation.getIdPointSale();
+            arguments[i * 5 + 2] = accreditation.getPointSaleName();
+            arguments[i * 5 + 3] = Date.valueOf(accreditation.getDateReception());
+            arguments[i * 5 + 4] = accreditation.getJournalSequence();
+        }
+        jdbcTemplate.update(sql, arguments);
+    }
+
+    // Sequences of the rows that are already in the database; rows need not be in sequence order
+    private Set<Long> writtenOf(List<Accreditation> rows) {
+        LongSummaryStatistics sequences = rows.stream()
+                .mapToLong(Accreditation::getJournalSequence).summaryStatistics();
+        return new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT journal_sequence FROM accreditation WHERE journal_sequence BETWEEN ? AND ?",
+                Long.class, sequences.getMin(), sequences.getMax()));
+    }
+
+    private void compactJournal() {
+        try {
+            journal.compact();
+        } catch (IOException e) {
+            // The journal keeps its released records until the next compaction; replay skips them
+        }
+    }
+}
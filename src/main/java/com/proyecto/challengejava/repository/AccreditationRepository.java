@@ -1,7 +1,33 @@
 package com.proyecto.challengejava.repository;
 
+import com.proyecto.challengejava.dto.AccreditationResponse;
 import com.proyecto.challengejava.entity.Accreditation;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
 
 public interface AccreditationRepository extends JpaRepository<Accreditation, Long> {
+
+    // Keyset page of accreditations after (afterDate, afterId) up to a date, read through ix_accreditation_date_id
+    @Query("SELECT new com.proyecto.challengejava.dto.AccreditationResponse("
+            + "a.id, a.amount, a.idPointSale, a.pointSaleName, a.dateReception) FROM Accreditation a "
+            + "WHERE (a.dateReception > :afterDate OR (a.dateReception = :afterDate AND a.id > :afterId)) "
+            + "AND a.dateReception <= :to ORDER BY a.dateReception, a.id")
+    List<AccreditationResponse> findPageAfter(@Param("afterDate") LocalDate afterDate, @Param("afterId") Long afterId,
+                                              @Param("to") LocalDate to, Pageable page);
+
+    // Same page restricted to one point of sale, read through ix_accreditation_point_date_id
+    @Query("SELECT new com.proyecto.challengejava.dto.AccreditationResponse("
+            + "a.id, a.amount, a.idPointSale, a.pointSaleName, a.dateReception) FROM Accreditation a "
+            + "WHERE a.idPointSale = :idPointSale "
+            + "AND (a.dateReception > :afterDate OR (a.dateReception = :afterDate AND a.id > :afterId)) "
+            + "AND a.dateReception <= :to ORDER BY a.dateReception, a.id")
+    List<AccreditationResponse> findPageOfPointSaleAfter(@Param("idPointSale") Long idPointSale,
+                                                         @Param("afterDate") LocalDate afterDate,
+                                                         @Param("afterId") Long afterId,
+                                                         @Param("to") LocalDate to, Pageable page);
 }
@@ -1,10 +1,56 @@
 package com.proyecto.challengejava.repository;
 
+import com.proyecto.challengejava.dto.CostEdge;
 import com.proyecto.challengejava.entity.CostPoints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface CostRepository extends JpaRepository<CostPoints, Long> {
     Optional<CostPoints> findByIdAAndIdB(Long idA, Long idB);
-}
\ No newline at end of file
+
+    // Keyset page of costs after an ID, as projections that never enter the persistence context
+    @Query("SELECT new com.proyecto.challengejava.dto.CostEdge(c.id, c.idA, c.idB, c.cost) "
+            + "FROM CostPoints c WHERE c.id > :afterId ORDER BY c.id")
+    List<CostEdge> findEdgesAfter(@Param("afterId") Long afterId, Pageable page);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM CostPoints c WHERE c.idA = :id OR c.idB = :id")
+    int deleteByPoint(@Param("id") Long id);
+
+    // Version marker of the persisted costs, bumped before every change so a graph snapshot file can be validated
+    @Query("SELECT g.version FROM GraphVersion g WHERE g.id = 1")
+    Optional<Long> findGraphVersion();
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE GraphVersion g SET g.version = g.version + 1 WHERE g.id = 1")
+    int incrementGraphVersion();
+
+    // Saves or updates the cost between two points and bumps the version marker, in one transaction
+    @Transactional
+    default void saveCost(Long idA, Long idB, Double cost) {
+        incrementGraphVersion();
+        Long minor = Math.min(idA, idB);
+        Long mayor = Math.max(idA, idB);
+        CostPoints costPoints = findByIdAAndIdB(minor, mayor).orElseGet(CostPoints::new);
+        costPoints.setIdA(minor);
+        costPoints.setIdB(mayor);
+        costPoints.setCost(cost);
+        save(costPoints);
+    }
+
+    // Deletes the costs of a point and bumps the version marker, in one transaction
+    @Transactional
+    default void deleteCostsOf(Long id) {
+        incrementGraphVersion();
+        deleteByPoint(id);
+    }
+}
@@ -0,0 +1,272 @@
+package com.proyecto.challengejava.rollup;
+
+import com.proyecto.challengejava.config.RollupProperties;
+import com.proyecto.challengejava.dto.AccreditationRollupResponse;
+import com.proyecto.challengejava.dto.AccreditationTotalResponse;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory count, sum, minimum and maximum of the accreditations of every point of sale per reception day,
+ * updated with each accreditation stored and persisted to the {@code accreditation_rollup} table.
+ *
+ * <p>The days of each point are kept in a sorted map, so the totals of a date range are read off the days
+ * in it without touching the accreditation table. Rollups changed since the last write are upserted every
+ * {@code flush-interval-seconds} and on shutdown, followed by the highest accreditation ID they count, read
+ * while no accreditation is between its insert and its {@link #record}. On startup the persisted rollups
+ * are loaded, except from the earliest reception day of the accreditations after that ID onward: those days,
+ * which may have missed the final write whatever their date, are recomputed from the accreditation table
+ * and written again.</p>
+ */
+@Component
+public class AccreditationRollups {
+
+    private static final String UPSERT = "INSERT INTO accreditation_rollup "
+            + "(id_point_sale, date_reception, accreditation_count, total_amount, min_amount, max_amount) "
+            + "VALUES (?, ?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE accreditation_count = VALUES(accreditation_count), "
+            + "total_amount = VALUES(total_amount), min_amount = VALUES(min_amount), max_amount = VALUES(max_amount)";
+    private static final String UPSERT_MARK = "INSERT INTO accreditation_rollup_mark (id, last_accreditation_id) "
+            + "VALUES (1, ?) ON DUPLICATE KEY UPDATE last_accreditation_id = VALUES(last_accreditation_id)";
+    private static final String SELECT_PERSISTED = "SELECT id_point_sale, date_reception, accreditation_count, "
+            + "total_amount, min_amount, max_amount FROM accreditation_rollup";
+    private static final String BEFORE_DAY = " WHERE date_reception < ?";
+    private static final String SELECT_RECOMPUTED = "SELECT id_point_sale, date_reception, COUNT(*), SUM(amount), "
+            + "MIN(amount), MAX(amount) FROM accreditation WHERE date_reception >= ? AND id_point_sale IS NOT NULL "
+            + "AND amount IS NOT NULL GROUP BY id_point_sale, date_reception";
+    // How long a flush waits for in-flight writes before leaving the mark where it was
+    private static final long MARK_TIMEOUT_MILLIS = 1000;
+
+    private final RollupProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<Long, NavigableMap<LocalDate, DailyAggregate>> points = new ConcurrentHashMap<>();
+    private final Set<DailyAggregate> changed = ConcurrentHashMap.newKeySet();
+    // Shared by writes between their insert and their records, exclusive while the mark is read
+    private final ReadWriteLock marking = new ReentrantReadWriteLock();
+    private ScheduledExecutorService flushExecutor;
+
+    /**
+     * @param properties   Rollup settings.
+     * @param jdbcTemplate Template used to load and upsert the rollups.
+     */
+    public AccreditationRollups(RollupProperties properties, JdbcTemplate jdbcTemplate) {
+        this.properties = properties;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Loads the persisted rollups, recomputes the days from the earliest one of an accreditation written
+     * after the persisted mark onward, and schedules the periodic writes.
+     */
+    @PostConstruct
+    public void load() {
+        Long mark = jdbcTemplate.queryForObject(
+                "SELECT MAX(last_accreditation_id) FROM accreditation_rollup_mark", Long.class);
+        LocalDate firstDay = jdbcTemplate.queryForObject("SELECT MIN(date_reception) FROM accreditation WHERE id > ?",
+                LocalDate.class, mark == null ? 0L : mark);
+        RowCallbackHandler persisted = row -> aggregate(row.getLong(1), row.getObject(2, LocalDate.class))
+                .merge(row.getLong(3), row.getDouble(4), row.getDouble(5), row.getDouble(6));
+        if (firstDay == null) {
+            jdbcTemplate.query(SELECT_PERSISTED, persisted);
+        } else {
+            jdbcTemplate.query(SELECT_PERSISTED + BEFORE_DAY, persisted, Date.valueOf(firstDay));
+            jdbcTemplate.query(SELECT_RECOMPUTED, row -> {
+                DailyAggregate aggregate = aggregate(row.getLong(1), row.getObject(2, LocalDate.class));
+                aggregate.merge(row.getLong(3), row.getDouble(4), row.getDouble(5), row.getDouble(6));
+                changed.add(aggregate);
+            }, Date.valueOf(firstDay));
+        }
+
+        int interval = properties.getFlushIntervalSeconds();
+        if (interval > 0) {
+            flushExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "accreditation-rollup");
+                thread.setDaemon(true);
+                return thread;
+            });
+            flushExecutor.scheduleWithFixedDelay(() -> {
+                try {
+                    flush();
+                } catch (RuntimeException e) {
+                    // The rollups that failed stay marked as changed; the next period writes them
+                }
+            }, interval, interval, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Starts a write of accreditations that are {@linkplain #record recorded} once stored. Until the matching
+     * {@link #endWrite()}, on the same thread, no flush moves the mark past the accreditations it inserts.
+     */
+    public void beginWrite() {
+        marking.readLock().lock();
+    }
+
+    /**
+     * Ends a write started with {@link #beginWrite()}.
+     */
+    public void endWrite() {
+        marking.readLock().unlock();
+    }
+
+    /**
+     * Adds an accreditation to the rollup of its point of sale and day.
+     *
+     * @param idPointSale ID of the sales point.
+     * @param day         Reception day.
+     * @param amount      Amount received.
+     */
+    public void record(Long idPointSale, LocalDate day, double amount) {
+        DailyAggregate aggregate = aggregate(idPointSale, day);
+        aggregate.add(amount);
+        changed.add(aggregate);
+    }
+
+    /**
+     * @param idPointSale ID of the sales point, or {@code null} for all of them.
+     * @param from        First day included.
+     * @param to          Last day included.
+     * @return Rollup of every day with accreditations in the range, by point of sale and then by day.
+     */
+    public List<AccreditationRollupResponse> getDaily(Long idPointSale, LocalDate from, LocalDate to) {
+        List<AccreditationRollupResponse> rollups = new ArrayList<>();
+        for (Long point : selectedPoints(idPointSale)) {
+            for (DailyAggregate aggregate : days(point, from, to)) {
+                rollups.add(new AccreditationRollupResponse(point, aggregate.day(), aggregate.count(),
+                        aggregate.total(), aggregate.min(), aggregate.max()));
+            }
+        }
+        return rollups;
+    }
+
+    /**
+     * @param idPointSale ID of the sales point, or {@code null} for all of them.
+     * @param from        First day included.
+     * @param to          Last day included.
+     * @return Totals of every point of sale with accreditations in the range, from its first to its last day
+     * with accreditations.
+     */
+    public List<AccreditationTotalResponse> getTotals(Long idPointSale, LocalDate from, LocalDate to) {
+        List<AccreditationTotalResponse> totals = new ArrayList<>();
+        for (Long point : selectedPoints(idPointSale)) {
+            Collection<DailyAggregate> days = days(point, from, to);
+            if (days.isEmpty()) {
+                continue;
+            }
+            long count = 0;
+            double total = 0;
+            double min = Double.POSITIVE_INFINITY;
+            double max = Double.NEGATIVE_INFINITY;
+            LocalDate first = null;
+            LocalDate last = null;
+            for (DailyAggregate aggregate : days) {
+                count += aggregate.count();
+                total += aggregate.total();
+                min = Math.min(min, aggregate.min());
+                max = Math.max(max, aggregate.max());
+                first = first == null ? aggregate.day() : first;
+                last = aggregate.day();
+            }
+            totals.add(new AccreditationTotalResponse(point, first, last, days.size(), count, total, min, max));
+        }
+        return totals;
+    }
+
+    /**
+     * Upserts every rollup changed since the last write, then the mark. A rollup is unmarked before it is read,
+     * so an accreditation added while it is written marks it again for the next write. The mark is read first,
+     * so every accreditation up to it is already in a rollup marked as changed.
+     *
+     * @return Number of rollups written.
+     * @throws DataAccessException if the write fails; the rollups stay marked as changed.
+     */
+    public synchronized int flush() {
+        Long mark = readMark();
+        List<DailyAggregate> written = new ArrayList<>();
+        List<Object[]> rows = new ArrayList<>();
+        for (Iterator<DailyAggregate> iterator = changed.iterator(); iterator.hasNext(); ) {
+            DailyAggregate aggregate = iterator.next();
+            iterator.remove();
+            written.add(aggregate);
+            rows.add(new Object[]{aggregate.idPointSale(), Date.valueOf(aggregate.day()), aggregate.count(),
+                    aggregate.total(), aggregate.min(), aggregate.max()});
+        }
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        try {
+            jdbcTemplate.batchUpdate(UPSERT, rows);
+        } catch (DataAccessException e) {
+            changed.addAll(written);
+            throw e;
+        }
+        if (mark != null) {
+            jdbcTemplate.update(UPSERT_MARK, mark);
+        }
+        return rows.size();
+    }
+
+    // Highest accreditation ID, or null if writes kept it from being read while none is unrecorded
+    private Long readMark() {
+        Lock lock = marking.writeLock();
+        try {
+            if (!lock.tryLock(MARK_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                return null;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+        try {
+            return jdbcTemplate.queryForObject("SELECT MAX(id) FROM accreditation", Long.class);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stops the periodic writes and writes the rollups still changed.
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (flushExecutor != null) {
+            flushExecutor.shutdownNow();
+        }
+        try {
+            flush();
+        } catch (DataAccessException e) {
+            // Days of accreditations after the persisted mark are recomputed from the accreditation table on the next start
+        }
+    }
+
+    private DailyAggregate aggregate(Long idPointSale, LocalDate day) {
+        return points.computeIfAbsent(idPointSale, id -> new ConcurrentSkipListMap<>())
+                .computeIfAbsent(day, key -> new DailyAggregate(idPointSale, key));
+    }
+
+    private Collection<Long> selectedPoints(Long idPointSale) {
+        if (idPointSale != null) {
+            return points.containsKey(idPointSale) ? List.of(idPointSale) : List.of();
+        }
+        return new TreeSet<>(points.keySet());
+    }
+
+    private Collection<DailyAggregate> days(Long idPointSale, LocalDate from, LocalDate to) {
+        return points.get(idPointSale).subMap(from, true, to, true).values();
+    }
+}
@@ -0,0 +1,67 @@
+package com.proyecto.challengejava.rollup;
+
+import java.time.LocalDate;
+import java.util.concurrent.atomic.DoubleAccumulator;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Running count, sum, minimum and maximum of the accreditations of one point of sale on one day.
+ * Every figure is a striped counter, so concurrent accreditations of the same point and day
+ * update separate cells instead of contending on one.
+ */
+final class DailyAggregate {
+
+    private final Long idPointSale;
+    private final LocalDate day;
+    private final LongAdder count = new LongAdder();
+    private final DoubleAdder total = new DoubleAdder();
+    private final DoubleAccumulator min = new DoubleAccumulator(Math::min, Double.POSITIVE_INFINITY);
+    private final DoubleAccumulator max = new DoubleAccumulator(Math::max, Double.NEGATIVE_INFINITY);
+
+    DailyAggregate(Long idPointSale, LocalDate day) {
+        this.idPointSale = idPointSale;
+        this.day = day;
+    }
+
+    void add(double amount) {
+        count.increment();
+        total.add(amount);
+        min.accumulate(amount);
+        max.accumulate(amount);
+    }
+
+    /**
+     * Adds figures computed elsewhere, e.g. a persisted rollup.
+     */
+    void merge(long count, double total, double min, double max) {
+        this.count.add(count);
+        this.total.add(total);
+        this.min.accumulate(min);
+        this.max.accumulate(max);
+    }
+
+    Long idPointSale() {
+        return idPointSale;
+    }
+
+    LocalDate day() {
+        return day;
+    }
+
+    long count() {
+        return count.sum();
+    }
+
+    double total() {
+        return total.sum();
+    }
+
+    double min() {
+        return min.get();
+    }
+
+    double max() {
+        return max.get();
+    }
+}
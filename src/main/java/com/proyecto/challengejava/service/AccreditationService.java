@@ -1,8 +1,24 @@
 package com.proyecto.challengejava.service;
 
+import com.proyecto.challengejava.dto.AccreditationCursor;
+import com.proyecto.challengejava.dto.AccreditationPage;
+import com.proyecto.challengejava.dto.AccreditationResponse;
+import com.proyecto.challengejava.dto.AccreditationRollupResponse;
+import com.proyecto.challengejava.dto.AccreditationTotalResponse;
+import com.proyecto.challengejava.dto.IngestionStats;
 import com.proyecto.challengejava.entity.Accreditation;
 
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
 public interface AccreditationService {
     Accreditation receiveAccreditation(Double amount, Long idPointSale);
-    Iterable<Accreditation> getAccreditations();
+    AccreditationPage getAccreditations(Long idPointSale, LocalDate from, LocalDate to,
+                                        AccreditationCursor after, Integer size);
+    Stream<AccreditationResponse> exportAccreditations(Long idPointSale, LocalDate from, LocalDate to,
+                                                       AccreditationCursor after);
+    List<AccreditationRollupResponse> getDailyRollups(Long idPointSale, LocalDate from, LocalDate to);
+    List<AccreditationTotalResponse> getRangeTotals(Long idPointSale, LocalDate from, LocalDate to);
+    IngestionStats getIngestionStats();
 }
@@ -1,12 +1,26 @@
 package com.proyecto.challengejava.service;
 
+import com.proyecto.challengejava.config.ListingProperties;
+import com.proyecto.challengejava.dto.AccreditationCursor;
+import com.proyecto.challengejava.dto.AccreditationPage;
+import com.proyecto.challengejava.dto.AccreditationResponse;
+import com.proyecto.challengejava.dto.AccreditationRollupResponse;
+import com.proyecto.challengejava.dto.AccreditationTotalResponse;
 import com.proyecto.challengejava.entity.Accreditation;
-import com.proyecto.challengejava.entity.PointSale;
+import com.proyecto.challengejava.dto.IngestionStats;
 import com.proyecto.challengejava.exception.PointSaleNotFoundException;
+import com.proyecto.challengejava.ingestion.AccreditationWriteBehind;
 import com.proyecto.challengejava.repository.AccreditationRepository;
+import com.proyecto.challengejava.rollup.AccreditationRollups;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
 
 import static com.proyecto.challengejava.constants.Constants.*;
 
@@ -17,64 +31,209 @@ import static com.proyecto.challengejava.constants.Constants.*;
 @Service
 public class AccreditationServiceImpl implements AccreditationService {
 
+    // Bounds of a MySQL DATE, used when the listing has no date filter
+    private static final LocalDate EARLIEST_DATE = LocalDate.of(1000, 1, 1);
+    private static final LocalDate LATEST_DATE = LocalDate.of(9999, 12, 31);
+
+    private static final String EXPORT_SELECT =
+            "SELECT id, amount, id_point_sale, point_sale_name, date_reception FROM accreditation WHERE ";
+    private static final String EXPORT_POINT_SALE = "id_point_sale = ? AND ";
+    private static final String EXPORT_KEYSET = "(date_reception > ? OR (date_reception = ? AND id > ?)) "
+            + "AND date_reception <= ? ORDER BY date_reception, id";
+
     private final AccreditationRepository repository;
     private final PointSaleService pointSaleService;
+    private final AccreditationWriteBehind writeBehind;
+    private final JdbcTemplate jdbcTemplate;
+    private final ListingProperties listingProperties;
+    private final AccreditationRollups rollups;
 
     /**
      * Constructor that injects the required repositories and services.
      *
-     * @param repository        Repository for accreditations.
+     * @param repository       Repository for accreditations.
      * @param pointSaleService Service for managing sales points.
+     * @param writeBehind       Journal and background writer used when the journal ingestion mode is enabled.
+     * @param jdbcTemplate      Template used to stream the export from a forward-only result set.
+     * @param listingProperties Page sizes of the listing and fetch size of the export.
+     * @param rollups           Per-point daily totals, updated with every accreditation stored.
      */
-    public AccreditationServiceImpl(AccreditationRepository repository, PointSaleService pointSaleService) {
+    public AccreditationServiceImpl(AccreditationRepository repository, PointSaleService pointSaleService,
+                                    AccreditationWriteBehind writeBehind, JdbcTemplate jdbcTemplate,
+                                    ListingProperties listingProperties, AccreditationRollups rollups) {
         this.repository = repository;
         this.pointSaleService = pointSaleService;
+        this.writeBehind = writeBehind;
+        this.jdbcTemplate = jdbcTemplate;
+        this.listingProperties = listingProperties;
+        this.rollups = rollups;
     }
 
     /**
      * Registers a new accreditation for a specific sales point.
      *
+     * <p>In the journal ingestion mode the accreditation is returned once it is in the local journal, without
+     * a database ID; it is written to the database shortly after, in a batch, and only then added to the
+     * rollups.</p>
+     *
      * @param amount        Amount received.
      * @param idPointSale   ID of the sales point receiving the accreditation.
-     * @return {@link Accreditation} object persisted in the database.
+     * @return {@link Accreditation} object persisted in the database, or journaled.
      * @throws PointSaleNotFoundException if the sales point does not exist.
      */
     public Accreditation receiveAccreditation(Double amount, Long idPointSale) {
-        if (!pointSaleExists(idPointSale)) {
+        String nombrePuntoVenta = pointSaleService.nameOf(idPointSale);
+        if (nombrePuntoVenta == null) {
             throw new PointSaleNotFoundException(POINT_OF_SALE_NOT_FOUND + ": " + idPointSale);
         }
 
-        String nombrePuntoVenta = pointSaleService.getAllPointSale().stream()
-                .filter(p -> p.getId().equals(idPointSale))
-                .map(PointSale::getName)
-                .findFirst()
-                .orElseThrow(() -> new IllegalArgumentException(POINT_OF_SALE_NOT_FOUND));
-
         Accreditation accreditation = new Accreditation();
         accreditation.setAmount(amount);
         accreditation.setIdPointSale(idPointSale);
         accreditation.setPointSaleName(nombrePuntoVenta);
         accreditation.setDateReception(LocalDate.now());
 
-        return repository.save(accreditation);
+        Accreditation saved;
+        if (writeBehind.isEnabled()) {
+            writeBehind.submit(accreditation);
+            saved = accreditation;
+        } else {
+            rollups.beginWrite();
+            try {
+                saved = repository.save(accreditation);
+                rollups.record(idPointSale, accreditation.getDateReception(), amount);
+            } finally {
+                rollups.endWrite();
+            }
+        }
+        return saved;
+    }
+
+    /**
+     * Retrieves the accreditation totals of each sales point per day, from the in-memory rollups.
+     *
+     * @param idPointSale ID of the sales point, or {@code null} for all of them.
+     * @param from        First reception date included, or {@code null}.
+     * @param to          Last reception date included, or {@code null}.
+     * @return Count, sum, minimum and maximum of every day with accreditations, by sales point and then by day.
+     * @throws IllegalArgumentException if {@code from} is after {@code to}.
+     */
+    public List<AccreditationRollupResponse> getDailyRollups(Long idPointSale, LocalDate from, LocalDate to) {
+        validateRange(from, to);
+        return rollups.getDaily(idPointSale, from == null ? EARLIEST_DATE : from, to == null ? LATEST_DATE : to);
+    }
+
+    /**
+     * Retrieves the accreditation totals of each sales point over a date range, summed from its daily rollups.
+     *
+     * @param idPointSale ID of the sales point, or {@code null} for all of them.
+     * @param from        First reception date included, or {@code null}.
+     * @param to          Last reception date included, or {@code null}.
+     * @return Count, sum, minimum and maximum of every sales point with accreditations in the range.
+     * @throws IllegalArgumentException if {@code from} is after {@code to}.
+     */
+    public List<AccreditationTotalResponse> getRangeTotals(Long idPointSale, LocalDate from, LocalDate to) {
+        validateRange(from, to);
+        return rollups.getTotals(idPointSale, from == null ? EARLIEST_DATE : from, to == null ? LATEST_DATE : to);
+    }
+
+    /**
+     * Retrieves the state of the accreditation ingestion.
+     *
+     * @return Mode, pending accreditations, journal size and flush metrics.
+     */
+    public IngestionStats getIngestionStats() {
+        return writeBehind.getStats();
     }
 
     /**
-     * Checks whether a sales point with the specified ID exists.
+     * Retrieves one page of accreditations ordered by reception date and ID, optionally for a single
+     * sales point and a date range. The page is read from an index seek past the cursor, so every page
+     * costs the same however deep into the listing it is.
      *
-     * @param id ID of the sales point to verify.
-     * @return {@code true} if it exists, {@code false} otherwise.
+     * @param idPointSale ID of the sales point, or {@code null} for all of them.
+     * @param from        First reception date included, or {@code null}.
+     * @param to          Last reception date included, or {@code null}.
+     * @param after       Last accreditation of the previous page, or {@code null} for the first page.
+     * @param size        Accreditations per page, or {@code null} for the default; capped at the configured maximum.
+     * @return Accreditations of the page, and the cursor of the next page unless this is the last one.
+     * @throws IllegalArgumentException if the size is not positive or {@code from} is after {@code to}.
      */
-    private boolean pointSaleExists(Long id) {
-        return pointSaleService.getAllPointSale().stream().anyMatch(p -> p.getId().equals(id));
+    public AccreditationPage getAccreditations(Long idPointSale, LocalDate from, LocalDate to,
+                                               AccreditationCursor after, Integer size) {
+        if (size != null && size < 1) {
+            throw new IllegalArgumentException(INVALID_PAGE_SIZE);
+        }
+        AccreditationCursor start = start(from, to, after);
+        LocalDate end = to == null ? LATEST_DATE : to;
+        int limit = Math.min(size == null ? listingProperties.getPageSize() : size, listingProperties.getMaxPageSize());
+        // One extra row tells whether another page follows, so the last page never links to an empty one
+        PageRequest page = PageRequest.ofSize(limit + 1);
+        List<AccreditationResponse> rows = idPointSale == null
+                ? repository.findPageAfter(start.getDateReception(), start.getId(), end, page)
+                : repository.findPageOfPointSaleAfter(idPointSale, start.getDateReception(), start.getId(), end, page);
+        if (rows.size() <= limit) {
+            return new AccreditationPage(rows, null);
+        }
+        List<AccreditationResponse> accreditations = rows.subList(0, limit);
+        AccreditationResponse last = accreditations.get(limit - 1);
+        return new AccreditationPage(accreditations, new AccreditationCursor(last.getDateReception(), last.getId()));
     }
 
     /**
-     * Retrieves all accreditations stored in the database.
+     * Streams every accreditation matching the filters, in listing order, from a forward-only read-only
+     * result set fetched {@code export-fetch-size} rows at a time, so memory use does not grow with the result.
+     * The database connection is held until the stream is closed.
      *
-     * @return Iterable of {@link Accreditation} objects.
+     * @param idPointSale ID of the sales point, or {@code null} for all of them.
+     * @param from        First reception date included, or {@code null}.
+     * @param to          Last reception date included, or {@code null}.
+     * @param after       Accreditation to resume after, or {@code null} to start from the beginning.
+     * @return Stream of accreditations; must be closed.
+     * @throws IllegalArgumentException if {@code from} is after {@code to}.
+     */
+    public Stream<AccreditationResponse> exportAccreditations(Long idPointSale, LocalDate from, LocalDate to,
+                                                              AccreditationCursor after) {
+        AccreditationCursor start = start(from, to, after);
+        LocalDate end = to == null ? LATEST_DATE : to;
+        String sql = EXPORT_SELECT + (idPointSale == null ? "" : EXPORT_POINT_SALE) + EXPORT_KEYSET;
+        return jdbcTemplate.queryForStream(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+                    ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(listingProperties.getExportFetchSize());
+            int index = 1;
+            if (idPointSale != null) {
+                statement.setLong(index++, idPointSale);
+            }
+            statement.setObject(index++, start.getDateReception());
+            statement.setObject(index++, start.getDateReception());
+            statement.setLong(index++, start.getId());
+            statement.setObject(index, end);
+            return statement;
+        }, (row, rowNumber) -> new AccreditationResponse(row.getLong("id"), row.getObject("amount", Double.class),
+                row.getObject("id_point_sale", Long.class), row.getString("point_sale_name"),
+                row.getObject("date_reception", LocalDate.class)));
+    }
+
+    /**
+     * Keyset position the listing starts after: the cursor, or the start of the {@code from} day if the cursor
+     * is before it or missing. Accreditation IDs are positive, so ID 0 precedes every accreditation of a day.
+     */
+    private AccreditationCursor start(LocalDate from, LocalDate to, AccreditationCursor after) {
+        validateRange(from, to);
+        LocalDate first = from == null ? EARLIEST_DATE : from;
+        if (after == null || after.getDateReception().isBefore(first)) {
+            return new AccreditationCursor(first, 0L);
+        }
+        return after;
+    }
+
+    /**
+     * @throws IllegalArgumentException if both dates are given and {@code from} is after {@code to}.
      */
-    public Iterable<Accreditation> getAccreditations() {
-        return repository.findAll();
+    private void validateRange(LocalDate from, LocalDate to) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException(INVALID_DATE_RANGE);
+        }
     }
-}
\ No newline at end of file
+}
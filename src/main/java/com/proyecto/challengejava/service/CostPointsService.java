@@ -1,13 +1,33 @@
 package com.proyecto.challengejava.service;
 
+import com.proyecto.challengejava.dto.ComponentsResponse;
+import com.proyecto.challengejava.dto.CostPointsRequest;
 import com.proyecto.challengejava.dto.CostPointsResponse;
+import com.proyecto.challengejava.dto.DistanceMatrixRow;
+import com.proyecto.challengejava.dto.HydrationStatus;
+import com.proyecto.challengejava.dto.MinCostRoute;
+import com.proyecto.challengejava.dto.MstResponse;
+import com.proyecto.challengejava.dto.ReachablePointResponse;
+import com.proyecto.challengejava.dto.RouteBatchResult;
+import com.proyecto.challengejava.dto.RouteStatsResponse;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface CostPointsService {
     void addCostPoints(Long idA, Long idB, Double cost);
     void removeCostPoints(Long idA, Long idB);
     List<CostPointsResponse> getCostsFromPoint(Long idA);
     List<Long> calculateMinPath(Long pointA, Long pointB);
+    MinCostRoute calculateMinCostRoute(Long pointA, Long pointB);
+    MinCostRoute calculateMinCostRoute(Long pointA, Long pointB, Long deadlineMillis);
     Double calculateTotalRouteCost(List<Long> route);
+    List<MinCostRoute> calculateAlternativeRoutes(Long pointA, Long pointB, int k);
+    List<RouteBatchResult> calculateMinPaths(List<CostPointsRequest> pairs);
+    Stream<DistanceMatrixRow> calculateDistanceMatrix(List<Long> sources, List<Long> targets);
+    Stream<ReachablePointResponse> calculateReachablePoints(Long id, Double maxCost);
     void deleteRelatedCostsTo(Long id);
+    RouteStatsResponse getRouteStats();
+    ComponentsResponse getComponents();
+    HydrationStatus getHydrationStatus();
+    MstResponse getMinimumSpanningForest();
 }
@@ -1,65 +1,310 @@
 package com.proyecto.challengejava.service;
 
+import com.proyecto.challengejava.config.RoutingProperties;
+import com.proyecto.challengejava.dto.ComponentsResponse;
+import com.proyecto.challengejava.dto.CostPointsRequest;
 import com.proyecto.challengejava.dto.CostPointsResponse;
-import com.proyecto.challengejava.entity.CostPoints;
-import com.proyecto.challengejava.entity.PointSale;
+import com.proyecto.challengejava.dto.CostEdge;
+import com.proyecto.challengejava.dto.DistanceMatrixRow;
+import com.proyecto.challengejava.dto.HydrationStatus;
+import com.proyecto.challengejava.dto.MinCostRoute;
+import com.proyecto.challengejava.dto.MstEdge;
+import com.proyecto.challengejava.dto.MstResponse;
+import com.proyecto.challengejava.dto.ReachablePointResponse;
+import com.proyecto.challengejava.dto.RouteBatchResult;
+import com.proyecto.challengejava.dto.RouteCacheStats;
+import com.proyecto.challengejava.dto.RouteStatsResponse;
+import com.proyecto.challengejava.exception.GraphHydratingException;
 import com.proyecto.challengejava.exception.PointSaleNotFoundException;
+import com.proyecto.challengejava.exception.RouteNotFoundException;
+import com.proyecto.challengejava.exception.RouteTimeoutException;
+import com.proyecto.challengejava.graph.*;
 import com.proyecto.challengejava.repository.CostRepository;
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import static com.proyecto.challengejava.constants.Constants.*;
-import static com.proyecto.challengejava.util.CostPointsUtil.*;
 
 /**
  * Implementation of the service that manages connection costs between sales points,
  * using an in-memory cache and database persistence.
+ * The cache is a {@link CostGraph}, which stores costs under packed primitive keys
+ * and keeps the adjacency index used for route searches.
+ * Route searches read the immutable snapshot published by {@link CostGraph#current()} instead of locking it.
+ * Route results are memoized in a {@link RouteCache} that evicts only the routes affected by each cost change,
+ * and queries between disconnected points are rejected upfront by a {@link ConnectedComponents} index.
+ * The most queried origins keep a {@link HotOriginTrees} shortest-path tree, so their routes need no search.
+ * The graph is saved to a {@link GraphSnapshotFile} periodically and on shutdown, and restored from it on startup
+ * while its version matches the version marker of the database.
  */
 @Service
 public class CostPointsServiceImpl implements CostPointsService {
 
-    private final ConcurrentHashMap<String, Double> cache = new ConcurrentHashMap<>();
+    private final CostGraph graph = new CostGraph();
+    private final RouteStatistics routeStatistics = new RouteStatistics();
     private final PointSaleService pointSaleService;
     private final CostRepository costRepository;
+    private final RoutingProperties routingProperties;
+    private final RouteEngine routeEngine;
+    private final RouteCache routeCache;
+    private final ConnectedComponents components;
+    private final HotOriginTrees hotOrigins;
+    private final ExecutorService batchExecutor;
+    private final ExecutorService routeExecutor;
+    private final ReadWriteLock persistLock = new ReentrantReadWriteLock();
+    private ScheduledExecutorService snapshotExecutor;
+    private Thread hydrationThread;
+    private volatile boolean hydrated;
+    private volatile String hydrationSource;
+    private volatile long hydrationStarted;
+    private volatile long hydrationFinished;
+    private long savedDatabaseVersion = -1;
+    private long savedGraphVersion = -1;
+    private volatile MstResponse spanningForest;
 
     /**
      * Constructor that injects the required services.
      *
-     * @param pointSaleService Service for managing sales points.
-     * @param costRepository   Repository for persisting costs.
+     * @param pointSaleService  Service for managing sales points.
+     * @param costRepository    Repository for persisting costs.
+     * @param routingProperties Settings that select the route engine.
      */
-    public CostPointsServiceImpl(PointSaleService pointSaleService, CostRepository costRepository) {
+    public CostPointsServiceImpl(PointSaleService pointSaleService, CostRepository costRepository,
+                                 RoutingProperties routingProperties) {
         this.pointSaleService = pointSaleService;
         this.costRepository = costRepository;
+        this.routingProperties = routingProperties;
+        this.routeEngine = createRouteEngine();
+        this.routeCache = new RouteCache(graph, routingProperties.getCacheSize());
+        this.components = new ConnectedComponents(graph);
+        this.hotOrigins = new HotOriginTrees(graph, routingProperties.getHotOrigins(),
+                routingProperties.getHotOriginMinQueries());
+        this.batchExecutor = createBatchExecutor(routingProperties.getBatchThreads());
+        this.routeExecutor = createRouteExecutor(routingProperties.getRouteThreads(), routingProperties.getRouteQueueSize());
     }
 
     /**
-     * Initializes the cache by loading data from the database.
+     * Builds the route engine selected by {@code costs.routing.engine}.
+     *
+     * @return Engine used by {@link #calculateMinPath(Long, Long)}.
+     */
+    private RouteEngine createRouteEngine() {
+        return switch (routingProperties.getEngine()) {
+            case BIDIRECTIONAL -> new BidirectionalDijkstraEngine();
+            case ALT -> new AltEngine(graph, routingProperties.getLandmarks());
+            case CH -> new ContractionHierarchyEngine(graph);
+            case MATRIX -> new DistanceMatrixEngine(graph, routingProperties.getMatrixMaxPoints());
+            case DIJKSTRA -> new DijkstraEngine();
+        };
+    }
+
+    /**
+     * Builds the bounded pool of daemon threads that answers route batches.
+     *
+     * @param threads Number of threads.
+     * @return Executor used by the batch, matrix and alternative route calculations.
+     */
+    private static ExecutorService createBatchExecutor(int threads) {
+        AtomicInteger counter = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "route-batch-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Builds the bounded pool of daemon threads that runs route computations with a deadline.
+     * Once every thread is busy and the queue is full, new computations are rejected instead of waiting.
+     *
+     * @param threads   Number of threads.
+     * @param queueSize Computations that may wait for a thread.
+     * @return Executor used by {@link #calculateMinCostRoute(Long, Long, Long)}.
+     */
+    private static ExecutorService createRouteExecutor(int threads, int queueSize) {
+        AtomicInteger counter = new AtomicInteger();
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueSize),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "route-task-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Stops the batch executor and the background work of the route engine, if any,
+     * and saves the graph snapshot file.
+     */
+    @PreDestroy
+    public void shutdown() throws Exception {
+        if (hydrationThread != null) {
+            hydrationThread.interrupt();
+        }
+        if (snapshotExecutor != null) {
+            snapshotExecutor.shutdownNow();
+        }
+        batchExecutor.shutdownNow();
+        routeExecutor.shutdownNow();
+        if (routeEngine instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+        saveGraphSnapshot();
+    }
+
+    /**
+     * Initializes the cache from the graph snapshot file, or from the database if the file is missing
+     * or does not match the database, and schedules the periodic snapshot writes.
+     * With {@code costs.routing.hydrate-in-background} the cache is loaded on another thread
+     * and {@link #getHydrationStatus()} reports its progress.
      * This method is automatically executed after the bean is constructed.
      */
     @PostConstruct
     public void init() {
-        // Wait for sales points to be preloaded
-        List<PointSale> puntos = pointSaleService.getAllPointSale();
-        // Initial cost preloading could be done here if needed
-        loadCacheFromDB();
+        if (routingProperties.isHydrateInBackground()) {
+            hydrationThread = new Thread(this::hydrate, "graph-hydration");
+            hydrationThread.setDaemon(true);
+            hydrationThread.start();
+        } else {
+            hydrate();
+        }
+        int interval = routingProperties.getSnapshotIntervalSeconds();
+        if (snapshotPath() != null && interval > 0) {
+            snapshotExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "graph-snapshot");
+                thread.setDaemon(true);
+                return thread;
+            });
+            snapshotExecutor.scheduleWithFixedDelay(() -> {
+                try {
+                    saveGraphSnapshot();
+                } catch (IOException | RuntimeException e) {
+                    // A failed write leaves the previous file in place; the next period tries again
+                }
+            }, interval, interval, TimeUnit.SECONDS);
+        }
+    }
+
+    private void hydrate() {
+        hydrationStarted = System.currentTimeMillis();
+        hydrationSource = HYDRATION_SNAPSHOT;
+        if (!loadCacheFromSnapshot()) {
+            hydrationSource = HYDRATION_DATABASE;
+            loadCacheFromDB();
+        }
+        hydrationFinished = System.currentTimeMillis();
+        hydrated = !Thread.currentThread().isInterrupted();
     }
 
     /**
-     * Loads all costs from the database and stores them in the cache.
+     * Loads all costs from the database into the cache, one keyset page of projections at a time,
+     * so memory use is bounded by the page size whatever the number of costs.
+     * Stops early if the calling thread is interrupted.
      */
     public void loadCacheFromDB() {
-        costRepository.findAll().forEach(cost -> {
-            Long idA = cost.getIdA();
-            Long idB = cost.getIdB();
-            Double amount = cost.getCost();
-            String key = generateKey(idA, idB);
-            cache.putIfAbsent(key, amount);
-            System.out.println(LOADED_CACHE + key + " => " + amount);
-        });
+        PageRequest page = PageRequest.ofSize(routingProperties.getHydrationPageSize());
+        long afterId = 0L;
+        List<CostEdge> edges;
+        do {
+            edges = costRepository.findEdgesAfter(afterId, page);
+            for (CostEdge edge : edges) {
+                graph.putEdgeIfAbsent(edge.getIdA(), edge.getIdB(), edge.getCost());
+            }
+            if (!edges.isEmpty()) {
+                afterId = edges.get(edges.size() - 1).getId();
+            }
+        } while (edges.size() == page.getPageSize() && !Thread.currentThread().isInterrupted());
+    }
+
+    // Queries over a graph still loading in the background would answer from part of it
+    private void requireHydrated() {
+        if (hydrationThread != null && !hydrated) {
+            throw new GraphHydratingException(GRAPH_HYDRATING);
+        }
+    }
+
+    /**
+     * Reports whether the cache has finished loading, where from, and how many costs it holds so far.
+     *
+     * @return Hydration status; {@code ready} stays {@code false} until the load finishes.
+     */
+    public HydrationStatus getHydrationStatus() {
+        long started = hydrationStarted;
+        long end = hydrated ? hydrationFinished : System.currentTimeMillis();
+        return new HydrationStatus(hydrated, hydrationSource, graph.edgeCount(), started == 0 ? 0 : end - started);
+    }
+
+    /**
+     * Loads the cache from the graph snapshot file if its version matches the version marker of the database.
+     *
+     * @return {@code true} if the cache was loaded; {@code false} if the costs must be loaded from the database.
+     */
+    public boolean loadCacheFromSnapshot() {
+        Path file = snapshotPath();
+        Optional<Long> databaseVersion = costRepository.findGraphVersion();
+        if (file == null || databaseVersion.isEmpty() || !Files.isRegularFile(file)) {
+            return false;
+        }
+        try {
+            if (GraphSnapshotFile.readVersion(file) != databaseVersion.get()) {
+                return false;
+            }
+            GraphSnapshotFile.restore(file, graph);
+            return true;
+        } catch (IOException e) {
+            graph.clear();
+            return false;
+        }
+    }
+
+    /**
+     * Writes the graph snapshot file, unless the cache is still loading or neither the graph nor the database
+     * changed since the last write.
+     * The graph and the database version are captured while no cost change is in progress,
+     * so the file never holds a change whose version marker it does not carry.
+     *
+     * @throws IOException if the file cannot be written; the previous file is kept.
+     */
+    public synchronized void saveGraphSnapshot() throws IOException {
+        Path file = snapshotPath();
+        if (file == null || !hydrated) {
+            return;
+        }
+        WeightedGraph snapshot;
+        Optional<Long> databaseVersion;
+        persistLock.writeLock().lock();
+        try {
+            databaseVersion = costRepository.findGraphVersion();
+            snapshot = graph.current();
+        } finally {
+            persistLock.writeLock().unlock();
+        }
+        if (databaseVersion.isEmpty()
+                || databaseVersion.get() == savedDatabaseVersion && snapshot.version() == savedGraphVersion) {
+            return;
+        }
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        GraphSnapshotFile.write(snapshot, databaseVersion.get(), file);
+        savedDatabaseVersion = databaseVersion.get();
+        savedGraphVersion = snapshot.version();
+    }
+
+    private Path snapshotPath() {
+        String file = routingProperties.getSnapshotFile();
+        return file == null || file.isBlank() ? null : Path.of(file);
     }
 
     /**
@@ -74,32 +319,41 @@ public class CostPointsServiceImpl implements CostPointsService {
         if (cost < 0) {
             throw new IllegalArgumentException(COST_POINTS_LESS_THAN_ZERO);
         }
-        List<PointSale> puntos = pointSaleService.getAllPointSale();
-        if (!pointSaleExists(puntos, idA) || !pointSaleExists(puntos, idB)) {
+        if (!pointSaleService.exists(idA) || !pointSaleService.exists(idB)) {
             throw new IllegalArgumentException(POINT_OF_SALE_NOT_FOUND);
         }
 
-        String key = generateKey(idA, idB);
-        cache.put(key, cost);
-
-        saveCostToDB(idA, idB, cost);
+        // The cost and the version marker are committed together before the graph changes, so a failed write
+        // leaves both untouched and a snapshot file never holds a change the database does not
+        persistLock.readLock().lock();
+        try {
+            costRepository.saveCost(idA, idB, cost);
+            graph.putEdge(idA, idB, cost);
+        } finally {
+            persistLock.readLock().unlock();
+        }
     }
 
     /**
-     * Removes the cost between two sales points by replacing its value with 0 in the cache.
+     * Removes the cost between two sales points by replacing its value with 0, in the database and in the cache.
      *
      * @param idA ID of the first point.
      * @param idB ID of the second point.
      * @throws PointSaleNotFoundException if any of the points do not exist.
      */
     public void removeCostPoints(Long idA, Long idB) {
-        List<PointSale> points = pointSaleService.getAllPointSale();
-        if (!pointSaleExists(points, idA) || !pointSaleExists(points, idB)) {
+        if (!pointSaleService.exists(idA) || !pointSaleService.exists(idB)) {
             throw new PointSaleNotFoundException(POINT_OF_SALE_NOT_FOUND);
         }
 
-        String key = generateKey(idA, idB);
-        cache.put(key, 0.0);
+        // Persisted like in addCostPoints, so a cold start loads the same cost as a snapshot file
+        persistLock.readLock().lock();
+        try {
+            costRepository.saveCost(idA, idB, 0.0);
+            graph.putEdge(idA, idB, 0.0);
+        } finally {
+            persistLock.readLock().unlock();
+        }
     }
 
     /**
@@ -110,90 +364,174 @@ public class CostPointsServiceImpl implements CostPointsService {
      * @throws IllegalArgumentException if the point does not exist.
      */
     public List<CostPointsResponse> getCostsFromPoint(Long idA) {
-        List<PointSale> points = pointSaleService.getAllPointSale();
-        if (!pointSaleExists(points, idA)) {
+        if (!pointSaleService.exists(idA)) {
             throw new IllegalArgumentException(POINT_OF_SALE_NOT_FOUND);
         }
         List<CostPointsResponse> costs = new ArrayList<>();
-        cache.forEach((key, value) -> {
-            String[] ids = key.split(REGEX);
-            Long id1 = Long.valueOf(ids[0]);
-            Long id2 = Long.valueOf(ids[1]);
-
-            if (id1.equals(idA)) {
-                Long idB = id2;
-                if (!pointSaleExists(points, idB)) return;
-                String pointBName = getPointSaleName(idB, points);
-                costs.add(new CostPointsResponse(idA, idB, value, pointBName));
-            } else if (id2.equals(idA)) {
-                Long idB = id1;
-                if (!pointSaleExists(points, idB)) return;
-                String nombrePuntoB = getPointSaleName(idB, points);
-                costs.add(new CostPointsResponse(idA, idB, value, nombrePuntoB));
-            }
-        });
+        WeightedGraph snapshot = graph.current();
+        int index = snapshot.indexOf(idA);
+        for (int i = 0; index >= 0 && i < snapshot.degree(index); i++) {
+            Long idB = snapshot.idOf(snapshot.neighbor(index, i));
+            String pointBName = pointSaleService.nameOf(idB);
+            if (pointBName == null) continue;
+            costs.add(new CostPointsResponse(idA, idB, snapshot.weight(index, i), pointBName));
+        }
         return costs;
     }
 
     /**
-     * Retrieves the name of a sales point by its ID.
+     * Calculates the lowest cost route between two sales points using the configured {@link RouteEngine}
+     * (Dijkstra by default, stopping as soon as the destination is settled).
      *
-     * @param id     ID of the point.
-     * @param points List of sales points.
-     * @return Name of the point or a default value if not found.
+     * @param pointA ID of the origin point.
+     * @param pointB ID of the destination point.
+     * @return List of point IDs representing the optimal route.
+     * @throws IllegalArgumentException if any of the points do not exist.
+     * @throws RouteNotFoundException   if the points are not connected.
+     * @see #calculateMinCostRoute(Long, Long)
      */
-    private String getPointSaleName(Long id, List<PointSale> points) {
-        return points.stream()
-                .filter(p -> p.getId().equals(id))
-                .map(PointSale::getName)
-                .findFirst()
-                .orElse(UNKNOWN);
+    public List<Long> calculateMinPath(Long pointA, Long pointB) {
+        return calculateMinCostRoute(pointA, pointB).getRoute();
     }
 
     /**
-     * Calculates the lowest cost route between two sales points using Dijkstra's algorithm.
+     * Calculates the lowest cost route between two sales points together with the cost of each hop and
+     * their total.
+     *
+     * <p>The search runs without locks on the immutable snapshot published by the graph, and the hop costs
+     * are read from that same snapshot, so route and costs always come from the same version of the costs,
+     * which is reported in the result. Results are served
+     * from the route cache while no cost change can have affected them, routes from a hot origin are read off
+     * its shortest-path tree, and points in different components are rejected without searching.</p>
      *
      * @param pointA ID of the origin point.
      * @param pointB ID of the destination point.
-     * @return List of point IDs representing the optimal route.
+     * @return Route, hop costs, total cost and version of the graph snapshot they were computed on.
      * @throws IllegalArgumentException if any of the points do not exist.
+     * @throws RouteNotFoundException   if the points are not connected.
+     * @throws GraphHydratingException while the cache is still loading in the background.
      */
-    public List<Long> calculateMinPath(Long pointA, Long pointB) {
-        Map<Long, Double> distances = new HashMap<>();
-        Map<Long, Long> predecessors = new HashMap<>();
-        PriorityQueue<Map.Entry<Long, Double>> pq = new PriorityQueue<>(Comparator.comparing(Map.Entry::getValue));
-
-        List<PointSale> points = pointSaleService.getAllPointSale();
-        if (!pointSaleExists(points, pointA) || !pointSaleExists(points, pointB)) {
+    public MinCostRoute calculateMinCostRoute(Long pointA, Long pointB) {
+        requireHydrated();
+        if (!pointSaleService.exists(pointA) || !pointSaleService.exists(pointB)) {
             throw new IllegalArgumentException(POINT_OF_SALE_NOT_FOUND);
         }
 
-        pointSaleService.getAllPointSale().forEach(p -> distances.put(p.getId(), Double.MAX_VALUE));
-        distances.put(pointA, 0.0);
-
-        pq.add(new AbstractMap.SimpleEntry<>(pointA, 0.0));
-
-        while (!pq.isEmpty()) {
-            long actual = pq.poll().getKey();
-
-            for (Map.Entry<Long, Double> neighbor : getNeighbors(actual, cache, REGEX).entrySet()) {
-                double newCost = distances.get(actual) + neighbor.getValue();
-                if (newCost < distances.get(neighbor.getKey())) {
-                    distances.put(neighbor.getKey(), newCost);
-                    predecessors.put(neighbor.getKey(), actual);
-                    pq.add(new AbstractMap.SimpleEntry<>(neighbor.getKey(), newCost));
+        hotOrigins.recordQuery(pointA);
+        WeightedGraph snapshot = graph.current();
+        int source = snapshot.indexOf(pointA);
+        int target = snapshot.indexOf(pointB);
+        if (connected(snapshot, source, target)) {
+            RouteResult result = routeCache.get(pointA, pointB, snapshot.version());
+            if (result == null) {
+                result = hotOrigins.route(pointA, target, snapshot);
+                if (result == null) {
+                    result = routeEngine.findRoute(snapshot, source, target);
                 }
+                routeStatistics.record(pointA, pointB, result.getSettledNodes());
+                routeCache.put(pointA, pointB, result, snapshot.version());
+            }
+            if (result.isReachable()) {
+                return toMinCostRoute(result, snapshot);
             }
         }
+        throw new RouteNotFoundException(String.format(NO_ROUTE_BETWEEN, pointA, pointB));
+    }
 
-        List<Long> route = new ArrayList<>();
-        Long current = pointB;
-        while (current != null) {
-            route.add(current);
-            current = predecessors.get(current);
+    /**
+     * Same as {@link #calculateMinCostRoute(Long, Long)}, run as a cancellable task on the bounded route executor
+     * so that a slow search cannot hold the request thread past its deadline.
+     * The search checks the deadline cooperatively through {@link SearchDeadline} and stops soon after it passes.
+     *
+     * @param pointA         ID of the origin point.
+     * @param pointB         ID of the destination point.
+     * @param deadlineMillis Deadline of the computation, capped at {@code costs.routing.route-deadline-millis};
+     *                       {@code null} uses that property, and when it is zero the search runs on the calling
+     *                       thread without a deadline.
+     * @return Route, hop costs, total cost and version of the graph snapshot they were computed on.
+     * @throws IllegalArgumentException if the requested deadline is zero or negative.
+     * @throws RouteTimeoutException if the deadline passes first or the executor is saturated.
+     * @throws GraphHydratingException while the cache is still loading in the background.
+     */
+    public MinCostRoute calculateMinCostRoute(Long pointA, Long pointB, Long deadlineMillis) {
+        requireHydrated();
+        if (deadlineMillis != null && deadlineMillis <= 0) {
+            throw new IllegalArgumentException(INVALID_ROUTE_DEADLINE);
+        }
+        long configured = routingProperties.getRouteDeadlineMillis();
+        if (deadlineMillis == null && configured <= 0) {
+            return calculateMinCostRoute(pointA, pointB);
+        }
+        long millis = deadlineMillis == null ? configured
+                : configured > 0 ? Math.min(deadlineMillis, configured) : deadlineMillis;
+        SearchDeadline deadline = new SearchDeadline(millis);
+        Future<MinCostRoute> task;
+        try {
+            task = routeExecutor.submit(() -> deadline.run(() -> calculateMinCostRoute(pointA, pointB)));
+        } catch (RejectedExecutionException e) {
+            throw new RouteTimeoutException(ROUTE_EXECUTOR_BUSY, 0, deadline.getElapsedMillis(), millis);
+        }
+        try {
+            return task.get(millis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (!(e.getCause() instanceof SearchDeadline.Expired)) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : new IllegalStateException(e.getCause());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (TimeoutException e) {
+            // Reported below
+        }
+        deadline.cancel();
+        task.cancel(true);
+        throw new RouteTimeoutException(String.format(ROUTE_DEADLINE_EXCEEDED, pointA, pointB, millis),
+                deadline.getSettledNodes(), deadline.getElapsedMillis(), millis);
+    }
+
+    /**
+     * Reads the cost of every hop of a route from the snapshot it was found on.
+     * The total is their sum in route order, i.e. the same value a Dijkstra search accumulates.
+     *
+     * @param result   Reachable route.
+     * @param snapshot Snapshot the route is valid for.
+     * @return Route with its hop costs and total cost.
+     */
+    private MinCostRoute toMinCostRoute(RouteResult result, WeightedGraph snapshot) {
+        List<Long> route = result.getRoute();
+        List<Double> hopCosts = new ArrayList<>(route.size() - 1);
+        double totalCost = 0.0;
+        int previous = snapshot.indexOf(route.get(0));
+        for (int i = 1; i < route.size(); i++) {
+            int next = snapshot.indexOf(route.get(i));
+            double cost = snapshot.weightBetween(previous, next);
+            hopCosts.add(cost);
+            totalCost += cost;
+            previous = next;
+        }
+        return new MinCostRoute(new ArrayList<>(route), totalCost, hopCosts, snapshot.version());
+    }
+
+    /**
+     * Checks the component index for two points of a snapshot. The index follows the live graph,
+     * so it is only consulted while the graph is still at the version of the snapshot; otherwise
+     * the search on the snapshot decides.
+     *
+     * @param snapshot Snapshot being searched.
+     * @param source   Dense index of the origin point, {@code -1} if it has no edges.
+     * @param target   Dense index of the destination point, {@code -1} if it has no edges.
+     * @return {@code false} if the points cannot be connected in the snapshot.
+     */
+    private boolean connected(WeightedGraph snapshot, int source, int target) {
+        if (source < 0 || target < 0) {
+            return false;
+        }
+        Lock readLock = graph.readLock();
+        readLock.lock();
+        try {
+            return graph.version() != snapshot.version() || components.connected(source, target);
+        } finally {
+            readLock.unlock();
         }
-        Collections.reverse(route);
-        return route;
     }
 
     /**
@@ -202,6 +540,7 @@ public class CostPointsServiceImpl implements CostPointsService {
      * @param route List of IDs representing the route.
      * @return Total sum of costs between each pair of consecutive points.
      * @throws IllegalStateException if any cost is missing in the cache.
+     * @see #calculateMinCostRoute(Long, Long)
      */
     public Double calculateTotalRouteCost(List<Long> route) {
         double totalCost = 0.0;
@@ -209,12 +548,9 @@ public class CostPointsServiceImpl implements CostPointsService {
         for (int i = 0; i < route.size() - 1; i++) {
             Long idA = route.get(i);
             Long idB = route.get(i + 1);
-            String key = generateKey(idA, idB);
 
-            Double cost = cache.get(key);
-            if (!cache.containsKey(key)) {
-                System.err.println(MISSING_KEY + key);
-                System.err.println(AVAILABLE_CACHE + cache);
+            double cost = graph.cost(idA, idB);
+            if (Double.isNaN(cost)) {
                 throw new IllegalStateException(MISSING_COST_BETWEEN + idA + " and " + idB);
             }
 
@@ -225,28 +561,289 @@ public class CostPointsServiceImpl implements CostPointsService {
     }
 
     /**
-     * Saves or updates the cost between two sales points in the database.
+     * Calculates the {@code k} cheapest loopless routes between two sales points with Yen's algorithm.
+     * The spur searches of each iteration run in parallel on the batch executor, over one graph snapshot.
      *
-     * @param idA   ID of the first point.
-     * @param idB   ID of the second point.
-     * @param cost Cost between them.
+     * @param pointA ID of the origin point.
+     * @param pointB ID of the destination point.
+     * @param k      Maximum number of routes.
+     * @return Routes with their hop costs and total cost, cheapest first.
+     * @throws IllegalArgumentException if any point doesn't exist or {@code k} is out of range.
+     * @throws RouteNotFoundException   if the points are not connected.
+     * @throws GraphHydratingException while the cache is still loading in the background.
      */
-    private void saveCostToDB(Long idA, Long idB, Double cost) {
-        Long minor = Math.min(idA, idB);
-        Long mayor = Math.max(idA, idB);
+    public List<MinCostRoute> calculateAlternativeRoutes(Long pointA, Long pointB, int k) {
+        requireHydrated();
+        if (k < 1 || k > routingProperties.getMaxAlternatives()) {
+            throw new IllegalArgumentException(String.format(INVALID_ALTERNATIVES, routingProperties.getMaxAlternatives()));
+        }
+        if (!pointSaleService.exists(pointA) || !pointSaleService.exists(pointB)) {
+            throw new IllegalArgumentException(POINT_OF_SALE_NOT_FOUND);
+        }
 
-        Optional<CostPoints> existing = costRepository.findByIdAAndIdB(minor, mayor);
-        if (existing.isPresent()) {
-            CostPoints existingCost = existing.get();
-            existingCost.setCost(cost);
-            costRepository.save(existingCost);
-        } else {
-            CostPoints newCost = new CostPoints();
-            newCost.setIdA(minor);
-            newCost.setIdB(mayor);
-            newCost.setCost(cost);
-            costRepository.save(newCost);
+        List<MinCostRoute> routes = new ArrayList<>();
+        WeightedGraph snapshot = graph.current();
+        int source = snapshot.indexOf(pointA);
+        int target = snapshot.indexOf(pointB);
+        if (connected(snapshot, source, target)) {
+            for (RouteResult result : new YenKShortestPaths(snapshot, batchExecutor).find(source, target, k)) {
+                routes.add(toMinCostRoute(result, snapshot));
+            }
+        }
+        if (routes.isEmpty()) {
+            throw new RouteNotFoundException(String.format(NO_ROUTE_BETWEEN, pointA, pointB));
+        }
+        return routes;
+    }
+
+    /**
+     * Calculates the lowest cost routes of many origin/destination pairs in one call.
+     *
+     * <p>Pairs are checked against the point-of-sale registry and grouped by origin so that one
+     * single-source search answers every destination of that origin. Groups run in parallel on a bounded
+     * executor, all over the same graph snapshot. Invalid pairs are reported in their own result instead
+     * of failing the batch.</p>
+     *
+     * @param pairs Origin/destination pairs, answered in the same order.
+     * @return One result per pair, with either the route and its cost or an error message.
+     * @throws IllegalArgumentException if the batch exceeds {@code costs.routing.batch-max-pairs}.
+     * @throws GraphHydratingException while the cache is still loading in the background.
+     */
+    public List<RouteBatchResult> calculateMinPaths(List<CostPointsRequest> pairs) {
+        requireHydrated();
+        if (pairs.size() > routingProperties.getBatchMaxPairs()) {
+            throw new IllegalArgumentException(String.format(BATCH_TOO_LARGE, routingProperties.getBatchMaxPairs()));
+        }
+        RouteBatchResult[] results = new RouteBatchResult[pairs.size()];
+        Map<Long, List<Integer>> byOrigin = new LinkedHashMap<>();
+        for (int i = 0; i < pairs.size(); i++) {
+            Long idA = pairs.get(i).getIdA();
+            Long idB = pairs.get(i).getIdB();
+            if (idA.equals(idB)) {
+                results[i] = RouteBatchResult.failed(idA, idB, INVALID_ID_EXCEPTION);
+            } else if (!pointSaleService.exists(idA) || !pointSaleService.exists(idB)) {
+                results[i] = RouteBatchResult.failed(idA, idB, POINT_OF_SALE_NOT_FOUND);
+            } else {
+                byOrigin.computeIfAbsent(idA, origin -> new ArrayList<>()).add(i);
+            }
+        }
+
+        WeightedGraph snapshot = graph.current();
+        List<CompletableFuture<Void>> groups = byOrigin.entrySet().stream()
+                .map(group -> CompletableFuture.runAsync(
+                        () -> calculateOriginGroup(snapshot, group.getKey(), group.getValue(), pairs, results),
+                        batchExecutor))
+                .toList();
+        groups.forEach(CompletableFuture::join);
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Answers every pair of one origin, from the route cache when possible and otherwise
+     * with a single search that stops once all the remaining destinations are settled.
+     *
+     * @param snapshot Snapshot of the graph searched by the whole batch.
+     * @param origin   ID of the origin point shared by the pairs.
+     * @param indexes  Positions of the pairs of this origin in the batch.
+     * @param pairs    Whole batch.
+     * @param results  Results of the batch, filled at the same positions.
+     */
+    private void calculateOriginGroup(WeightedGraph snapshot, Long origin, List<Integer> indexes,
+                                      List<CostPointsRequest> pairs, RouteBatchResult[] results) {
+        try {
+            long version = snapshot.version();
+            int source = snapshot.indexOf(origin);
+            List<Integer> pending = new ArrayList<>();
+            for (int index : indexes) {
+                Long destination = pairs.get(index).getIdB();
+                RouteResult cached = routeCache.get(origin, destination, version);
+                if (cached != null) {
+                    results[index] = toBatchResult(origin, destination, cached, version);
+                } else if (!connected(snapshot, source, snapshot.indexOf(destination))) {
+                    results[index] = toBatchResult(origin, destination, RouteResult.unreachable(0), version);
+                } else {
+                    pending.add(index);
+                }
+            }
+            pending.removeIf(index -> {
+                Long destination = pairs.get(index).getIdB();
+                RouteResult fromTree = hotOrigins.route(origin, snapshot.indexOf(destination), snapshot);
+                if (fromTree != null) {
+                    results[index] = toBatchResult(origin, destination, fromTree, version);
+                }
+                return fromTree != null;
+            });
+            if (pending.isEmpty()) {
+                return;
+            }
+            int[] targets = pending.stream().mapToInt(index -> snapshot.indexOf(pairs.get(index).getIdB())).toArray();
+            RouteResult[] found = DijkstraEngine.findRoutes(snapshot, source, targets);
+            for (int i = 0; i < found.length; i++) {
+                Long destination = pairs.get(pending.get(i)).getIdB();
+                routeStatistics.record(origin, destination, found[i].getSettledNodes());
+                routeCache.put(origin, destination, found[i], version);
+                results[pending.get(i)] = toBatchResult(origin, destination, found[i], version);
+            }
+        } catch (RuntimeException e) {
+            for (int index : indexes) {
+                if (results[index] == null) {
+                    results[index] = RouteBatchResult.failed(origin, pairs.get(index).getIdB(), e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Converts a route result into a batch result.
+     * Unreachable destinations get the same error as the single-pair endpoint.
+     */
+    private RouteBatchResult toBatchResult(Long origin, Long destination, RouteResult result, long version) {
+        if (!result.isReachable()) {
+            return RouteBatchResult.failed(origin, destination, String.format(NO_ROUTE_BETWEEN, origin, destination));
+        }
+        return new RouteBatchResult(origin, destination, new ArrayList<>(result.getRoute()), result.getCost(), version);
+    }
+
+    /**
+     * Calculates the cost matrix between a list of origins and a list of destinations.
+     *
+     * <p>Validation happens eagerly; the rows are then computed lazily as the returned stream is consumed.
+     * Each row is one single-source search over a snapshot of the graph, so the whole matrix sees the same
+     * costs and writers are not blocked while it streams. Rows run in parallel on the batch executor with
+     * a small window of rows in flight, and are returned in the order they finish, so memory stays flat
+     * regardless of the number of origins.</p>
+     *
+     * @param sources IDs of the origin points.
+     * @param targets IDs of the destination points; every row lists its costs in this order.
+     * @return Lazy stream of rows; an unreachable destination has a {@code null} cost.
+     * @throws IllegalArgumentException if any point doesn't exist or the matrix exceeds
+     *                                  {@code costs.routing.matrix-max-cells}.
+     * @throws GraphHydratingException while the cache is still loading in the background.
+     */
+    public Stream<DistanceMatrixRow> calculateDistanceMatrix(List<Long> sources, List<Long> targets) {
+        requireHydrated();
+        if ((long) sources.size() * targets.size() > routingProperties.getMatrixMaxCells()) {
+            throw new IllegalArgumentException(String.format(MATRIX_TOO_LARGE, routingProperties.getMatrixMaxCells()));
+        }
+        if (!sources.stream().allMatch(pointSaleService::exists) || !targets.stream().allMatch(pointSaleService::exists)) {
+            throw new IllegalArgumentException(POINT_OF_SALE_NOT_FOUND);
+        }
+
+        WeightedGraph snapshot = graph.current();
+        int[] targetIndexes = targets.stream().mapToInt(snapshot::indexOf).toArray();
+        Iterator<DistanceMatrixRow> rows = new MatrixRowIterator(sources, targets, snapshot, targetIndexes,
+                batchExecutor, routingProperties.getBatchThreads() * 2);
+        return StreamSupport.stream(Spliterators.spliterator(rows, sources.size(), Spliterator.NONNULL), false);
+    }
+
+    /**
+     * Iterator over the rows of a distance matrix that keeps at most {@code window} rows being computed,
+     * submitting the next origin each time a finished row is handed out.
+     */
+    private static class MatrixRowIterator implements Iterator<DistanceMatrixRow> {
+        private final List<Long> sources;
+        private final List<Long> targetIds;
+        private final WeightedGraph snapshot;
+        private final int[] targets;
+        private final CompletionService<DistanceMatrixRow> completion;
+        private int submitted;
+        private int inFlight;
+
+        MatrixRowIterator(List<Long> sources, List<Long> targetIds, WeightedGraph snapshot, int[] targets,
+                          Executor executor, int window) {
+            this.sources = sources;
+            this.targetIds = targetIds;
+            this.snapshot = snapshot;
+            this.targets = targets;
+            this.completion = new ExecutorCompletionService<>(executor);
+            while (inFlight < window && submitted < sources.size()) {
+                submitNext();
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return inFlight > 0;
+        }
+
+        @Override
+        public DistanceMatrixRow next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            try {
+                DistanceMatrixRow row = completion.take().get();
+                inFlight--;
+                if (submitted < sources.size()) {
+                    submitNext();
+                }
+                return row;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+
+        private void submitNext() {
+            Long source = sources.get(submitted++);
+            inFlight++;
+            completion.submit(() -> {
+                double[] costs = new double[targets.length];
+                int index = snapshot.indexOf(source);
+                if (index < 0) {
+                    Arrays.fill(costs, Double.POSITIVE_INFINITY);
+                } else {
+                    DijkstraEngine.costsTo(snapshot, index, targets, costs);
+                }
+                List<Double> row = new ArrayList<>(costs.length);
+                for (int i = 0; i < costs.length; i++) {
+                    // A point without edges is still at cost 0 from itself
+                    double cost = source.equals(targetIds.get(i)) ? 0.0 : costs[i];
+                    row.add(Double.isInfinite(cost) ? null : cost);
+                }
+                return new DistanceMatrixRow(source, row);
+            });
+        }
+    }
+
+    /**
+     * Finds every sales point reachable from an origin within a cost budget, with the cheapest cost to each.
+     *
+     * <p>Validation happens eagerly; the points are then settled lazily, cheapest first, by a Dijkstra over
+     * a graph snapshot that stops once the cheapest queued point exceeds the budget, so a very large result
+     * can be streamed without being held in memory. Names are resolved from the point-of-sale registry as
+     * points are found, and points deleted in the meantime are left out.</p>
+     *
+     * @param id      ID of the origin point, which is not part of the result.
+     * @param maxCost Cost budget.
+     * @return Lazy stream of the reachable points, cheapest first.
+     * @throws IllegalArgumentException if the point doesn't exist or the budget is negative.
+     * @throws GraphHydratingException while the cache is still loading in the background.
+     */
+    public Stream<ReachablePointResponse> calculateReachablePoints(Long id, Double maxCost) {
+        requireHydrated();
+        if (maxCost == null || maxCost < 0) {
+            throw new IllegalArgumentException(INVALID_MAX_COST);
+        }
+        if (!pointSaleService.exists(id)) {
+            throw new IllegalArgumentException(POINT_OF_SALE_NOT_FOUND);
         }
+
+        WeightedGraph snapshot = graph.current();
+        int source = snapshot.indexOf(id);
+        if (source < 0) {
+            return Stream.empty();
+        }
+        BudgetSearch search = new BudgetSearch(snapshot, source, maxCost);
+        search.next();
+        return Stream.iterate(search.next(), node -> node >= 0, node -> search.next())
+                .map(node -> {
+                    Long pointId = snapshot.idOf(node);
+                    return new ReachablePointResponse(pointId, pointSaleService.nameOf(pointId), search.cost(node));
+                })
+                .filter(point -> point.getName() != null);
     }
 
     /**
@@ -255,25 +852,86 @@ public class CostPointsServiceImpl implements CostPointsService {
      * @param id ID of the sales point to delete.
      */
     public void deleteRelatedCostsTo(Long id) {
-        cache.keySet().removeIf(key -> {
-            String[] parts = key.split(REGEX);
-            return parts[0].equals(id.toString()) || parts[1].equals(id.toString());
-        });
+        persistLock.readLock().lock();
+        try {
+            costRepository.deleteCostsOf(id);
+            graph.removePoint(id);
+        } finally {
+            persistLock.readLock().unlock();
+        }
+    }
 
-        List<CostPoints> costs = costRepository.findAll();
-        for (CostPoints cost : costs) {
-            if (Objects.equals(cost.getIdA(), id) || Objects.equals(cost.getIdB(), id)) {
-                costRepository.delete(cost);
-            }
+    /**
+     * Calculates the minimum spanning forest of the cost graph: the cheapest set of links that keeps every
+     * connected group of points connected. The result is kept for the graph version it was computed on,
+     * so any cost change makes the next call recompute it.
+     *
+     * @return Edges of the forest, their total cost, the number of trees and the snapshot version.
+     * @throws GraphHydratingException while the cache is still loading in the background.
+     */
+    public MstResponse getMinimumSpanningForest() {
+        requireHydrated();
+        WeightedGraph snapshot = graph.current();
+        MstResponse cached = spanningForest;
+        if (cached != null && cached.getSnapshotVersion() == snapshot.version()) {
+            return cached;
+        }
+        SpanningForest forest = SpanningForest.of(snapshot);
+        List<MstEdge> edges = new ArrayList<>(forest.size());
+        for (int i = 0; i < forest.size(); i++) {
+            edges.add(new MstEdge(forest.idA(i), forest.idB(i), forest.cost(i)));
         }
+        MstResponse response = new MstResponse(edges, forest.getTotalCost(), forest.getTrees(), forest.version());
+        spanningForest = response;
+        return response;
     }
 
     /**
-     * Returns the current content of the cost cache.
+     * Summarizes the connected components of the cost graph, counting only points with at least one cost.
+     *
+     * @return Number of components and their sizes, largest first.
+     * @throws GraphHydratingException while the cache is still loading in the background.
+     */
+    public ComponentsResponse getComponents() {
+        requireHydrated();
+        Lock readLock = graph.readLock();
+        readLock.lock();
+        try {
+            return new ComponentsResponse(components.componentSizes());
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the configured route engine together with the number of nodes settled by the queries,
+     * the metrics of the route cache and the current hot origins.
+     *
+     * @return Statistics of the route queries answered so far.
+     */
+    public RouteStatsResponse getRouteStats() {
+        List<Long> landmarks = routeEngine instanceof AltEngine alt ? alt.getLandmarks() : Collections.emptyList();
+        return new RouteStatsResponse(routingProperties.getEngine().name(), routeEngine.isReady(), landmarks,
+                routeStatistics.getQueries(), routeStatistics.getSettledNodes(),
+                routeStatistics.getMaxSettledNodes(), routeStatistics.getRecentQueries(),
+                new RouteCacheStats(routeCache.getCapacity(), routeCache.size(), routeCache.getHits(),
+                        routeCache.getMisses(), routeCache.getEvictions(), routeCache.getInvalidations()),
+                hotOrigins.getHotOrigins());
+    }
+
+    /**
+     * Returns a read-only view of the cost cache.
      *
      * @return Map with keys formatted as ID_A-ID_B and values as cost amounts.
      */
     public Map<String, Double> getCache() {
-        return cache;
+        return graph.costsView();
+    }
+
+    /**
+     * Removes every cost from the in-memory cache without touching the database.
+     */
+    public void clearCache() {
+        graph.clear();
     }
 }
\ No newline at end of file
@@ -5,6 +5,8 @@ import java.util.List;
 
 public interface PointSaleService {
     List<PointSale> getAllPointSale();
+    boolean exists(Long id);
+    String nameOf(Long id);
     void addPointSale(String name);
     void updatePointSale(Long id, String name);
     void deletePointSale(Long id);
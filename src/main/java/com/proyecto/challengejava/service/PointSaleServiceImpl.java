@@ -3,11 +3,8 @@ package com.proyecto.challengejava.service;
 import com.proyecto.challengejava.entity.PointSale;
 import com.proyecto.challengejava.repository.PointSaleRepository;
 import jakarta.annotation.PostConstruct;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.env.Environment;
 import org.springframework.stereotype.Service;
 
-import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -16,7 +13,11 @@ import static com.proyecto.challengejava.constants.Constants.*;
 
 /**
  * Implementation of the sales point service.
- * Manages CRUD operations and an in-memory cache.
+ * Manages CRUD operations and an in-memory registry of every sales point by ID.
+ *
+ * <p>The registry is loaded once at startup and then kept in step with every create, update and delete,
+ * so existence and name checks on the hot paths are answered in O(1) without querying the database.
+ * Mutations are serialized, so that a concurrent update and delete cannot leave a stale entry behind.</p>
  */
 @Service
 public class PointSaleServiceImpl implements PointSaleService {
@@ -24,9 +25,6 @@ public class PointSaleServiceImpl implements PointSaleService {
     private final Map<Long, String> cache = new ConcurrentHashMap<>();
     private final PointSaleRepository pointSaleRepository;
 
-    @Autowired
-    private Environment env;
-
     /**
      * Constructor that injects the sales point repository.
      *
@@ -37,14 +35,12 @@ public class PointSaleServiceImpl implements PointSaleService {
     }
 
     /**
-     * Initializes the cache unless running in the test environment.
+     * Loads the registry from the database.
      * Automatically executed after the bean is constructed.
      */
     @PostConstruct
     public void init() {
-        if (!Arrays.asList(env.getActiveProfiles()).contains("test")) {
-            preloadCache();
-        }
+        preloadCache();
     }
 
     /**
@@ -57,9 +53,31 @@ public class PointSaleServiceImpl implements PointSaleService {
     }
 
     /**
-     * Preloads the in-memory cache with all sales points from the database.
+     * Checks whether a sales point exists, using the in-memory registry.
+     *
+     * @param id ID of the sales point.
+     * @return {@code true} if it exists, {@code false} otherwise.
+     */
+    @Override
+    public boolean exists(Long id) {
+        return id != null && cache.containsKey(id);
+    }
+
+    /**
+     * Retrieves the name of a sales point from the in-memory registry.
+     *
+     * @param id ID of the sales point.
+     * @return Name of the point, or {@code null} if it does not exist.
+     */
+    @Override
+    public String nameOf(Long id) {
+        return id == null ? null : cache.get(id);
+    }
+
+    /**
+     * Preloads the in-memory registry with all sales points from the database.
      */
-    private void preloadCache() {
+    private synchronized void preloadCache() {
         List<PointSale> points = pointSaleRepository.findAll();
         for (PointSale p : points) {
             cache.put(p.getId(), p.getName());
@@ -73,7 +91,7 @@ public class PointSaleServiceImpl implements PointSaleService {
      * @throws IllegalArgumentException if a point with the same name already exists.
      */
     @Override
-    public void addPointSale(String name) {
+    public synchronized void addPointSale(String name) {
         if (pointSaleRepository.existsByName(name)) {
             throw new IllegalArgumentException(POINT_OF_SALE_ALREADY_EXISTS);
         }
@@ -90,7 +108,7 @@ public class PointSaleServiceImpl implements PointSaleService {
      * @param name New name for the sales point.
      * @throws IllegalArgumentException if the ID does not correspond to an existing point.
      */
-    public void updatePointSale(Long id, String name) {
+    public synchronized void updatePointSale(Long id, String name) {
         PointSale pointSale = pointSaleRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException(POINT_OF_SALE_NOT_FOUND));
         pointSale.setName(name);
@@ -99,12 +117,12 @@ public class PointSaleServiceImpl implements PointSaleService {
     }
 
     /**
-     * Deletes a sales point from both the database and the cache.
+     * Deletes a sales point from both the database and the registry.
      *
      * @param id ID of the sales point to delete.
      * @throws IllegalArgumentException if the ID does not exist in the database.
      */
-    public void deletePointSale(Long id) {
+    public synchronized void deletePointSale(Long id) {
         if (!pointSaleRepository.existsById(id)) {
             throw new IllegalArgumentException(POINT_OF_SALE_NOT_FOUND);
         }
@@ -0,0 +1,7 @@
+-- Version marker of the cost graph, bumped before every change to cost_points
+CREATE TABLE IF NOT EXISTS graph_version (
+        id BIGINT PRIMARY KEY,
+        version BIGINT NOT NULL
+);
+
+INSERT INTO graph_version (id, version) VALUES (1, 0);
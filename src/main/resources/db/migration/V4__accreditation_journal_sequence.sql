@@ -0,0 +1,4 @@
+-- Journal sequence of accreditations written behind from the local journal; NULL for synchronous saves
+ALTER TABLE accreditation ADD COLUMN journal_sequence BIGINT NULL;
+
+CREATE UNIQUE INDEX ux_accreditation_journal_sequence ON accreditation (journal_sequence);
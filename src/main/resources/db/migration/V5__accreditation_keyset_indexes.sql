@@ -0,0 +1,11 @@
+-- date_reception replaced receipt_date in the entity and was only ever added by Hibernate; create it if missing
+SET @missing = (SELECT COUNT(*) = 0 FROM information_schema.columns
+                WHERE table_schema = DATABASE() AND table_name = 'accreditation' AND column_name = 'date_reception');
+SET @ddl = IF(@missing, 'ALTER TABLE accreditation ADD COLUMN date_reception DATE NULL', 'DO 0');
+PREPARE add_date_reception FROM @ddl;
+EXECUTE add_date_reception;
+DEALLOCATE PREPARE add_date_reception;
+
+-- Keyset pages of the accreditation listing, ordered by (date_reception, id), with and without a point of sale
+CREATE INDEX ix_accreditation_date_id ON accreditation (date_reception, id);
+CREATE INDEX ix_accreditation_point_date_id ON accreditation (id_point_sale, date_reception, id);
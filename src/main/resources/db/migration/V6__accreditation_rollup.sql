@@ -0,0 +1,11 @@
+-- Count, sum, minimum and maximum of the accreditations of each point of sale per reception day
+CREATE TABLE IF NOT EXISTS accreditation_rollup (
+        id BIGINT AUTO_INCREMENT PRIMARY KEY,
+        id_point_sale BIGINT NOT NULL,
+        date_reception DATE NOT NULL,
+        accreditation_count BIGINT NOT NULL,
+        total_amount DOUBLE NOT NULL,
+        min_amount DOUBLE,
+        max_amount DOUBLE,
+        CONSTRAINT ux_accreditation_rollup_point_day UNIQUE (id_point_sale, date_reception)
+);
@@ -0,0 +1,5 @@
+-- Highest accreditation ID counted in accreditation_rollup, written with every rollup flush
+CREATE TABLE IF NOT EXISTS accreditation_rollup_mark (
+        id BIGINT PRIMARY KEY,
+        last_accreditation_id BIGINT NOT NULL
+);
@@ -22,6 +22,8 @@ public class ConstantsTest {
     public static final Long ID_POINT_SALE3 = 3L;
     public static final Long ID_POINT_SALE4 = 10L;
     public static final Long ID_POINT_SALE5 = 11L;
+    public static final Long SNAPSHOT_VERSION = 7L;
+    public static final String HYDRATION_DATABASE = "database";
     public static final double AMOUNT = 100.0;
     public static final double AMOUNT2 = 200.0;
     public static final double AMOUNT3 = 150.0;
@@ -41,5 +43,8 @@ public class ConstantsTest {
     public static final String POINT_OF_SALE_NOT_FOUND = "Point of sale/s not found";
     public static final String COST_POINTS_LESS_THAN_ZERO = "The cost cannot be less than zero";
     public static final String INVALID_ID_EXCEPTION = "Both IDs cannot be equal";
+    public static final String NO_ROUTE_BETWEEN = "No route between %d and %d";
+    public static final String ROUTE_DEADLINE_EXCEEDED = "No route between %d and %d was found within %d ms";
+    public static final String INVALID_DATE_RANGE = "The start date cannot be after the end date";
     public static final String MISSING_COST_BETWEEN = "Missing cost between 2 and 3";
 }
\ No newline at end of file
@@ -1,5 +1,8 @@
 package com.proyecto.challengejava.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.proyecto.challengejava.dto.AccreditationCursor;
+import com.proyecto.challengejava.dto.AccreditationPage;
 import com.proyecto.challengejava.dto.AccreditationRequest;
 import com.proyecto.challengejava.dto.AccreditationResponse;
 import com.proyecto.challengejava.entity.Accreditation;
@@ -10,13 +13,19 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.IanaLinkRelations;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.Arrays;
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
 
 import static com.proyecto.challengejava.constants.ConstantsTest.*;
-import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.when;
 
 /**
@@ -31,6 +40,9 @@ public class AccreditationControllerTest {
     @Mock
     private AccreditationModelAssembler acreditacionAssembler;
 
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
     @InjectMocks
     private AccreditationController accreditationController;
 
@@ -85,41 +97,54 @@ public class AccreditationControllerTest {
 
     /**
      * Test to verify that the {@code getAccreditations} method
-     * returns a list of accreditations correctly transformed.
+     * returns a page of accreditations with a link to the next page.
      */
     @Test
     void getAccreditations_ReturnsCollectionModelOfAccreditationsResponses() {
-        // Arrange: simulate two accreditations returned by the service
-        Accreditation accreditation1 = new Accreditation();
-        accreditation1.setId(ID_POINT_SALE1);
-        accreditation1.setAmount(AMOUNT);
-
-        Accreditation accreditation2 = new Accreditation();
-        accreditation2.setId(ID_POINT_SALE2);
-        accreditation2.setAmount(AMOUNT2);
-
-        Iterable<Accreditation> accreditations = Arrays.asList(accreditation1, accreditation2);
-
-        AccreditationResponse response1 = new AccreditationResponse(
-                accreditation1.getId(), accreditation1.getAmount(),
-                accreditation1.getIdPointSale(), accreditation1.getPointSaleName(),
-                accreditation1.getDateReception()
-        );
-        AccreditationResponse response2 = new AccreditationResponse(
-                accreditation2.getId(), accreditation2.getAmount(),
-                accreditation2.getIdPointSale(), accreditation2.getPointSaleName(),
-                accreditation2.getDateReception()
-        );
-
-        when(acreditacionServiceImpl.getAccreditations()).thenReturn(accreditations);
+        // Arrange: simulate a page of two accreditations followed by more
+        LocalDate day = LocalDate.of(2024, 3, 31);
+        AccreditationResponse response1 = new AccreditationResponse(ID_POINT_SALE1, AMOUNT, ID_POINT_SALE1, POINT_SALE_1, day);
+        AccreditationResponse response2 = new AccreditationResponse(ID_POINT_SALE2, AMOUNT2, ID_POINT_SALE1, POINT_SALE_1, day);
+        AccreditationPage page = new AccreditationPage(List.of(response1, response2),
+                new AccreditationCursor(day, ID_POINT_SALE2));
+
+        when(acreditacionServiceImpl.getAccreditations(ID_POINT_SALE1, null, null, null, 2)).thenReturn(page);
         when(acreditacionAssembler.toModel(response1)).thenReturn(response1);
         when(acreditacionAssembler.toModel(response2)).thenReturn(response2);
 
         // Act: call the controller
-        ResponseEntity<?> response = accreditationController.getAccreditations();
+        ResponseEntity<CollectionModel<AccreditationResponse>> response =
+                accreditationController.getAccreditations(ID_POINT_SALE1, null, null, null, 2);
 
-        // Assert: verify the response
+        // Assert: verify the page and the cursor of the next one
         assertEquals(SUCCESS_RESPONSE, response.getStatusCodeValue());
         assertNotNull(response.getBody());
+        assertEquals(2, response.getBody().getContent().size());
+        String next = response.getBody().getRequiredLink(IanaLinkRelations.NEXT).getHref();
+        assertTrue(next.contains("cursor=2024-03-31_2"));
+        assertTrue(next.contains("idPointSale=1"));
+    }
+
+    /**
+     * Test to verify that the export writes one JSON line per accreditation and closes the stream.
+     */
+    @Test
+    void exportAccreditations_WritesNdjson() throws Exception {
+        LocalDate day = LocalDate.of(2024, 3, 31);
+        boolean[] closed = {false};
+        Stream<AccreditationResponse> rows = Stream.of(
+                new AccreditationResponse(ID_POINT_SALE1, AMOUNT, ID_POINT_SALE1, POINT_SALE_1, day),
+                new AccreditationResponse(ID_POINT_SALE2, AMOUNT2, ID_POINT_SALE2, POINT_SALE_2, day))
+                .onClose(() -> closed[0] = true);
+        when(acreditacionServiceImpl.exportAccreditations(null, day, day, null)).thenReturn(rows);
+
+        ResponseEntity<StreamingResponseBody> response = accreditationController.exportAccreditations(null, day, day, null);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        response.getBody().writeTo(output);
+
+        String[] lines = output.toString().split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[1].contains("\"pointSaleName\":\"" + POINT_SALE_2 + "\""));
+        assertTrue(closed[0]);
     }
-}
\ No newline at end of file
+}
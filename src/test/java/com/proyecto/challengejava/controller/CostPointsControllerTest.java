@@ -1,8 +1,21 @@
 package com.proyecto.challengejava.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.proyecto.challengejava.dto.ComponentsResponse;
 import com.proyecto.challengejava.dto.CostPointsRequest;
 import com.proyecto.challengejava.dto.CostPointsResponse;
+import com.proyecto.challengejava.dto.DistanceMatrixRequest;
+import com.proyecto.challengejava.dto.DistanceMatrixRow;
+import com.proyecto.challengejava.dto.HydrationStatus;
+import com.proyecto.challengejava.dto.MinCostRoute;
 import com.proyecto.challengejava.dto.MinCostRouteResponse;
+import com.proyecto.challengejava.dto.MstEdge;
+import com.proyecto.challengejava.dto.MstResponse;
+import com.proyecto.challengejava.dto.ReachablePointResponse;
+import com.proyecto.challengejava.dto.RouteBatchRequest;
+import com.proyecto.challengejava.dto.RouteBatchResult;
+import com.proyecto.challengejava.dto.RouteCacheStats;
+import com.proyecto.challengejava.dto.RouteStatsResponse;
 import com.proyecto.challengejava.hateoas.CostPointsModelAssembler;
 import com.proyecto.challengejava.hateoas.MinCostRouteModelAssembler;
 import com.proyecto.challengejava.service.CostPointsServiceImpl;
@@ -11,11 +24,16 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.springframework.hateoas.CollectionModel;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.util.Arrays;
 import java.util.List;
+import java.util.stream.Stream;
 
 import static com.proyecto.challengejava.constants.ConstantsTest.*;
 import static org.junit.jupiter.api.Assertions.*;
@@ -38,6 +56,9 @@ public class CostPointsControllerTest {
     @Mock
     private MinCostRouteModelAssembler rutaAssembler;
 
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
     @InjectMocks
     private CostPointsController controller;
 
@@ -116,42 +137,43 @@ public class CostPointsControllerTest {
     }
 
     /**
-     * Verifies that the {@code calculateMinCost} method returns the expected route and total cost,
+     * Verifies that the {@code calculateMinCost} method returns the expected route, hop costs and total cost,
      * with the corresponding HATEOAS links.
      */
     @Test
     void calculateMinCostResponse() {
         List<Long> route = Arrays.asList(ID_POINT_SALE1, ID_POINT_SALE2, ID_POINT_SALE3);
         Double totalCost = 25.0;
-        MinCostRouteResponse original = new MinCostRouteResponse(route, totalCost);
+        List<Double> hopCosts = List.of(10.0, 15.0);
+        MinCostRoute original = new MinCostRoute(route, totalCost, hopCosts, SNAPSHOT_VERSION);
 
-        MinCostRouteResponse responseConLinks = new MinCostRouteResponse(route, totalCost);
+        MinCostRouteResponse responseConLinks = new MinCostRouteResponse(original);
         responseConLinks.add(linkTo(methodOn(CostPointsController.class).getCostsFromPoint(ID_POINT_SALE1)).withRel(SEE_COSTS_FROM_1));
         responseConLinks.add(linkTo(methodOn(CostPointsController.class).getCostsFromPoint(ID_POINT_SALE2)).withRel(SEE_COSTS_FROM_2));
         responseConLinks.add(linkTo(methodOn(CostPointsController.class).getCostsFromPoint(ID_POINT_SALE3)).withRel(SEE_COSTS_FROM_3));
-        responseConLinks.add(linkTo(methodOn(CostPointsController.class).calculateMinCost(new CostPointsRequest(1L, 3L))).withRel(RECALCULATE_ROUTE));
+        responseConLinks.add(linkTo(methodOn(CostPointsController.class).calculateMinCost(new CostPointsRequest(1L, 3L), null)).withRel(RECALCULATE_ROUTE));
 
-        when(service.calculateMinPath(anyLong(), anyLong())).thenReturn(route);
-        when(service.calculateTotalRouteCost(anyList())).thenReturn(totalCost);
+        when(service.calculateMinCostRoute(anyLong(), anyLong(), any())).thenReturn(original);
         when(rutaAssembler.toModel(any())).thenReturn(responseConLinks);
 
         // Act
         CostPointsRequest request = new CostPointsRequest(ID_POINT_SALE1, ID_POINT_SALE3);
-        ResponseEntity<MinCostRouteResponse> response = controller.calculateMinCost(request);
+        ResponseEntity<MinCostRouteResponse> response = controller.calculateMinCost(request, null);
 
         // Assert
         assertEquals(SUCCESS_RESPONSE, response.getStatusCodeValue());
         assertNotNull(response.getBody());
         assertEquals(route, response.getBody().getRoute());
         assertEquals(totalCost, response.getBody().getTotalCost());
+        assertEquals(hopCosts, response.getBody().getHopCosts());
+        assertEquals(SNAPSHOT_VERSION, response.getBody().getSnapshotVersion());
 
         assertTrue(response.getBody().getLinks().hasLink(SEE_COSTS_FROM_1));
         assertTrue(response.getBody().getLinks().hasLink(SEE_COSTS_FROM_2));
         assertTrue(response.getBody().getLinks().hasLink(SEE_COSTS_FROM_3));
         assertTrue(response.getBody().getLinks().hasLink(RECALCULATE_ROUTE));
 
-        verify(service, times(1)).calculateMinPath(anyLong(), anyLong());
-        verify(service, times(1)).calculateTotalRouteCost(anyList());
+        verify(service, times(1)).calculateMinCostRoute(anyLong(), anyLong(), any());
         verify(rutaAssembler, times(1)).toModel(any());
     }
 
@@ -172,4 +194,152 @@ public class CostPointsControllerTest {
 
         assertEquals(INVALID_ID_EXCEPTION, exception.getMessage());
     }
-}
\ No newline at end of file
+
+    /**
+     * Verifies that the {@code calculateAlternativeRoutes} method returns every route through the assembler.
+     */
+    @Test
+    void calculateAlternativeRoutes_ReturnsOk() {
+        List<MinCostRoute> routes = List.of(
+                new MinCostRoute(List.of(ID_POINT_SALE1, ID_POINT_SALE3), 25.0, List.of(25.0), SNAPSHOT_VERSION),
+                new MinCostRoute(List.of(ID_POINT_SALE1, ID_POINT_SALE2, ID_POINT_SALE3), 30.0, List.of(10.0, 20.0),
+                        SNAPSHOT_VERSION));
+        when(service.calculateAlternativeRoutes(ID_POINT_SALE1, ID_POINT_SALE3, 2)).thenReturn(routes);
+        when(rutaAssembler.toModel(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        ResponseEntity<CollectionModel<MinCostRouteResponse>> response =
+                controller.calculateAlternativeRoutes(new CostPointsRequest(ID_POINT_SALE1, ID_POINT_SALE3), 2);
+
+        assertEquals(SUCCESS_RESPONSE, response.getStatusCodeValue());
+        List<MinCostRouteResponse> content = List.copyOf(response.getBody().getContent());
+        assertEquals(2, content.size());
+        assertEquals(routes.get(1).getRoute(), content.get(1).getRoute());
+        assertEquals(routes.get(1).getHopCosts(), content.get(1).getHopCosts());
+        verify(rutaAssembler, times(2)).toModel(any());
+    }
+
+    /**
+     * Verifies that the {@code calculateMinCostBatch} method returns the results of every pair, in order.
+     */
+    @Test
+    void calculateMinCostBatch_ReturnsOk() {
+        List<CostPointsRequest> pairs = List.of(new CostPointsRequest(ID_POINT_SALE1, ID_POINT_SALE3),
+                new CostPointsRequest(ID_POINT_SALE1, ID_POINT_SALE1));
+        List<RouteBatchResult> results = List.of(
+                new RouteBatchResult(ID_POINT_SALE1, ID_POINT_SALE3, List.of(ID_POINT_SALE1, ID_POINT_SALE3), 25.0, SNAPSHOT_VERSION),
+                RouteBatchResult.failed(ID_POINT_SALE1, ID_POINT_SALE1, INVALID_ID_EXCEPTION));
+        when(service.calculateMinPaths(pairs)).thenReturn(results);
+
+        ResponseEntity<List<RouteBatchResult>> response = controller.calculateMinCostBatch(new RouteBatchRequest(pairs));
+
+        assertEquals(SUCCESS_RESPONSE, response.getStatusCodeValue());
+        assertEquals(results, response.getBody());
+        verify(service, times(1)).calculateMinPaths(pairs);
+    }
+
+    /**
+     * Verifies that the {@code calculateDistanceMatrix} method streams one JSON line per row.
+     */
+    @Test
+    void calculateDistanceMatrix_StreamsNdjsonRows() throws IOException {
+        List<Long> sources = List.of(ID_POINT_SALE1, ID_POINT_SALE2);
+        List<Long> targets = List.of(ID_POINT_SALE3);
+        when(service.calculateDistanceMatrix(sources, targets)).thenReturn(Stream.of(
+                new DistanceMatrixRow(ID_POINT_SALE1, List.of(25.0)),
+                new DistanceMatrixRow(ID_POINT_SALE2, Arrays.asList((Double) null))));
+
+        ResponseEntity<StreamingResponseBody> response =
+                controller.calculateDistanceMatrix(new DistanceMatrixRequest(sources, targets));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        response.getBody().writeTo(output);
+
+        assertEquals(SUCCESS_RESPONSE, response.getStatusCodeValue());
+        String[] lines = output.toString().split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("{\"source\":" + ID_POINT_SALE1 + ",\"costs\":[25.0]}", lines[0]);
+        assertEquals("{\"source\":" + ID_POINT_SALE2 + ",\"costs\":[null]}", lines[1]);
+    }
+
+    /**
+     * Verifies that the reachable points are returned as a list, and streamed one JSON line per point.
+     */
+    @Test
+    void getReachablePoints_ReturnsListAndNdjson() throws IOException {
+        ReachablePointResponse point = new ReachablePointResponse(ID_POINT_SALE2, POINT_SALE_1, AMOUNT);
+        when(service.calculateReachablePoints(ID_POINT_SALE1, AMOUNT2))
+                .thenReturn(Stream.of(point))
+                .thenReturn(Stream.of(point, point));
+
+        ResponseEntity<List<ReachablePointResponse>> list = controller.getReachablePoints(ID_POINT_SALE1, AMOUNT2);
+        ResponseEntity<StreamingResponseBody> stream = controller.streamReachablePoints(ID_POINT_SALE1, AMOUNT2);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        stream.getBody().writeTo(output);
+
+        assertEquals(List.of(point), list.getBody());
+        String[] lines = output.toString().split("\n");
+        assertEquals(2, lines.length);
+        assertEquals(objectMapper.writeValueAsString(point), lines[0]);
+        verify(service, times(2)).calculateReachablePoints(ID_POINT_SALE1, AMOUNT2);
+    }
+
+    /**
+     * Verifies that the {@code getComponents} method returns the summary reported by the service.
+     */
+    @Test
+    void getComponents_ReturnsOk() {
+        when(service.getComponents()).thenReturn(new ComponentsResponse(List.of(4, 2)));
+
+        ResponseEntity<ComponentsResponse> response = controller.getComponents();
+
+        assertEquals(SUCCESS_RESPONSE, response.getStatusCodeValue());
+        assertEquals(2, response.getBody().getCount());
+        verify(service, times(1)).getComponents();
+    }
+
+    /**
+     * Verifies that the readiness probe answers 503 while the cache is loading and 200 once it is loaded.
+     */
+    @Test
+    void getReadiness_ReflectsHydration() {
+        when(service.getHydrationStatus()).thenReturn(new HydrationStatus(false, "database", 10, 5));
+        assertEquals(503, controller.getReadiness().getStatusCodeValue());
+
+        when(service.getHydrationStatus()).thenReturn(new HydrationStatus(true, "database", 20, 9));
+        ResponseEntity<HydrationStatus> response = controller.getReadiness();
+
+        assertEquals(SUCCESS_RESPONSE, response.getStatusCodeValue());
+        assertEquals(20, response.getBody().getLoadedCosts());
+    }
+
+    /**
+     * Verifies that the {@code getRouteStats} method returns the statistics reported by the service.
+     */
+    @Test
+    void getRouteStats_ReturnsOk() {
+        RouteStatsResponse stats = new RouteStatsResponse("ALT", true, List.of(ID_POINT_SALE1), 1, 3, 3, List.of(),
+                new RouteCacheStats(100, 1, 1, 1, 0, 0), List.of(ID_POINT_SALE1));
+        when(service.getRouteStats()).thenReturn(stats);
+
+        ResponseEntity<RouteStatsResponse> response = controller.getRouteStats();
+
+        assertEquals(SUCCESS_RESPONSE, response.getStatusCodeValue());
+        assertEquals(3.0, response.getBody().getAverageSettledNodes());
+        verify(service, times(1)).getRouteStats();
+    }
+
+    /**
+     * Verifies that the {@code getMinimumSpanningForest} method returns the forest computed by the service.
+     */
+    @Test
+    void getMinimumSpanningForest_ReturnsOk() {
+        MstResponse forest = new MstResponse(List.of(new MstEdge(ID_POINT_SALE1, ID_POINT_SALE2, AMOUNT)),
+                AMOUNT, 1, SNAPSHOT_VERSION);
+        when(service.getMinimumSpanningForest()).thenReturn(forest);
+
+        ResponseEntity<MstResponse> response = controller.getMinimumSpanningForest();
+
+        assertEquals(SUCCESS_RESPONSE, response.getStatusCodeValue());
+        assertSame(forest, response.getBody());
+        verify(service, times(1)).getMinimumSpanningForest();
+    }
+}
@@ -0,0 +1,93 @@
+package com.proyecto.challengejava.graph;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test for {@link ConnectedComponents}.
+ * Validates that merges and splits follow the mutations of the graph.
+ */
+public class ConnectedComponentsTest {
+
+    private CostGraph graph;
+    private ConnectedComponents components;
+
+    /**
+     * Builds the path 1 - 2 - 3 and the edge 4 - 5.
+     */
+    @BeforeEach
+    void setUp() {
+        graph = new CostGraph();
+        components = new ConnectedComponents(graph);
+        graph.putEdge(1L, 2L, 1.0);
+        graph.putEdge(2L, 3L, 1.0);
+        graph.putEdge(4L, 5L, 1.0);
+    }
+
+    @Test
+    void connected_FollowsNewEdges() {
+        assertTrue(connected(1L, 3L));
+        assertFalse(connected(1L, 5L));
+        assertEquals(List.of(3, 2), components.componentSizes());
+
+        graph.putEdge(3L, 4L, 1.0);
+
+        assertTrue(connected(1L, 5L));
+        assertEquals(List.of(5), components.componentSizes());
+    }
+
+    /**
+     * Verifies that removing a bridge splits its component, while a cost change does not.
+     */
+    @Test
+    void connected_SplitsAfterRemoval() {
+        graph.putEdge(2L, 3L, 9.0);
+        assertTrue(connected(1L, 3L));
+
+        graph.removeEdge(2L, 3L);
+
+        assertFalse(connected(1L, 3L));
+        assertTrue(connected(1L, 2L));
+        assertEquals(List.of(2, 2), components.componentSizes());
+    }
+
+    @Test
+    void connected_IsolatesRemovedPoint() {
+        graph.removePoint(2L);
+
+        assertFalse(connected(1L, 3L));
+        assertEquals(List.of(2), components.componentSizes());
+    }
+
+    /**
+     * Verifies that points whose last edge was removed are not reported as components.
+     */
+    @Test
+    void componentSizes_SkipsPointsWithoutEdges() {
+        graph.removeEdge(4L, 5L);
+
+        assertFalse(connected(4L, 5L));
+        assertEquals(List.of(3), components.componentSizes());
+
+        graph.putEdge(4L, 6L, 1.0);
+
+        assertEquals(List.of(3, 2), components.componentSizes());
+    }
+
+    @Test
+    void graphCleared_ResetsComponents() {
+        graph.clear();
+        graph.putEdge(7L, 8L, 1.0);
+
+        assertTrue(connected(7L, 8L));
+        assertEquals(List.of(2), components.componentSizes());
+    }
+
+    private boolean connected(long idA, long idB) {
+        return components.connected(graph.indexOf(idA), graph.indexOf(idB));
+    }
+}
@@ -0,0 +1,74 @@
+package com.proyecto.challengejava.graph;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test for {@link EdgeCostMap}.
+ * Validates key packing and the open-addressing operations against a reference map.
+ */
+public class EdgeCostMapTest {
+
+    /**
+     * Verifies that both directions of an edge produce the same key and can be unpacked.
+     */
+    @Test
+    void pack_IsSymmetric() {
+        long key = EdgeCostMap.pack(7L, 3L);
+
+        assertEquals(EdgeCostMap.pack(3L, 7L), key);
+        assertEquals(3L, EdgeCostMap.first(key));
+        assertEquals(7L, EdgeCostMap.second(key));
+    }
+
+    /**
+     * Verifies that IDs outside the 32-bit range are rejected.
+     */
+    @Test
+    void pack_ThrowsIllegalArgumentException_WhenIdTooLarge() {
+        assertThrows(IllegalArgumentException.class, () -> EdgeCostMap.pack(1L, 1L << 32));
+    }
+
+    /**
+     * Verifies puts, overwrites and removals against a {@link HashMap} across several resizes.
+     */
+    @Test
+    void operations_MatchReferenceMap() {
+        EdgeCostMap map = new EdgeCostMap();
+        Map<Long, Double> reference = new HashMap<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 20_000; i++) {
+            long key = EdgeCostMap.pack(1 + random.nextInt(300), 301 + random.nextInt(300));
+            if (random.nextInt(4) == 0) {
+                assertEquals(reference.remove(key) != null, map.remove(key));
+            } else {
+                double cost = random.nextDouble();
+                reference.put(key, cost);
+                map.put(key, cost);
+            }
+        }
+
+        assertEquals(reference.size(), map.size());
+        reference.forEach((key, cost) -> assertEquals(cost, map.get(key, Double.NaN)));
+        map.forEach((key, cost) -> assertEquals(reference.get(key), cost));
+    }
+
+    /**
+     * Verifies that {@code putIfAbsent} keeps the existing cost.
+     */
+    @Test
+    void putIfAbsent_KeepsExistingCost() {
+        EdgeCostMap map = new EdgeCostMap();
+        long key = EdgeCostMap.pack(1L, 2L);
+
+        assertTrue(map.putIfAbsent(key, 2.0));
+        assertFalse(map.putIfAbsent(key, 5.0));
+        assertEquals(2.0, map.get(key, Double.NaN));
+    }
+}
@@ -0,0 +1,69 @@
+package com.proyecto.challengejava.graph;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test for {@link GraphSnapshotFile}.
+ * Validates that a written graph is restored edge for edge and that damaged files are rejected before loading.
+ */
+public class GraphSnapshotFileTest {
+
+    @TempDir
+    Path directory;
+
+    /**
+     * Verifies that every edge and cost of a random graph survives a write and a restore, along with the version.
+     */
+    @Test
+    void restore_LoadsEveryEdge() throws IOException {
+        CostGraph graph = randomGraph();
+        Path file = directory.resolve("graph.snapshot");
+        GraphSnapshotFile.write(graph.current(), 42L, file);
+
+        CostGraph restored = new CostGraph();
+        long edges = GraphSnapshotFile.restore(file, restored);
+
+        assertEquals(42L, GraphSnapshotFile.readVersion(file));
+        assertEquals(graph.edgeCount(), edges);
+        assertEquals(graph.costsView().entrySet(), restored.costsView().entrySet());
+    }
+
+    /**
+     * Verifies that a flipped byte fails the checksum and that nothing is added to the graph.
+     */
+    @Test
+    void restore_RejectsCorruptedFile() throws IOException {
+        Path file = directory.resolve("graph.snapshot");
+        GraphSnapshotFile.write(randomGraph().current(), 1L, file);
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length / 2] ^= 1;
+        Files.write(file, bytes);
+
+        CostGraph restored = new CostGraph();
+
+        assertThrows(IOException.class, () -> GraphSnapshotFile.restore(file, restored));
+        assertEquals(0, restored.edgeCount());
+    }
+
+    private static CostGraph randomGraph() {
+        CostGraph graph = new CostGraph();
+        Random random = new Random(17);
+        for (int i = 0; i < 300; i++) {
+            long idA = 1 + random.nextInt(100);
+            long idB = 1 + random.nextInt(100);
+            if (idA != idB) {
+                graph.putEdge(idA, idB, random.nextInt(1000) / 10.0);
+            }
+        }
+        graph.removePoint(5L);
+        return graph;
+    }
+}
@@ -0,0 +1,167 @@
+package com.proyecto.challengejava.graph;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test for {@link HotOriginTrees}.
+ * Validates the selection of hot origins and that the incrementally repaired trees always match a fresh search.
+ */
+public class HotOriginTreesTest {
+
+    private static final int POINTS = 60;
+    private static final double DELTA = 1e-9;
+
+    private CostGraph graph;
+    private HotOriginTrees trees;
+
+    /**
+     * Builds a sparse random graph and a registry of two hot origins that need three queries each.
+     */
+    @BeforeEach
+    void setUp() {
+        graph = new CostGraph();
+        Random random = new Random(11);
+        for (int i = 0; i < POINTS * 2; i++) {
+            long idA = 1 + random.nextInt(POINTS);
+            long idB = 1 + random.nextInt(POINTS);
+            if (idA != idB) {
+                graph.putEdge(idA, idB, 1 + random.nextInt(30));
+            }
+        }
+        trees = new HotOriginTrees(graph, 2, 3);
+    }
+
+    /**
+     * Verifies that origins become hot after enough queries and that a busier origin replaces the coldest one.
+     */
+    @Test
+    void recordQuery_PromotesMostQueriedOrigins() {
+        long first = graph.idOf(0);
+        long second = graph.idOf(1);
+        long third = graph.idOf(2);
+        query(first, 2);
+        assertTrue(trees.getHotOrigins().isEmpty());
+
+        query(first, 1);
+        query(second, 4);
+        assertEquals(List.of(second, first), trees.getHotOrigins());
+
+        query(third, 5);
+        assertEquals(List.of(third, second), trees.getHotOrigins());
+    }
+
+    /**
+     * Verifies that the tree of a hot origin matches a fresh search after every kind of cost change:
+     * new, cheaper, more expensive and removed edges, and the removal of a whole point.
+     */
+    @Test
+    void route_MatchesSearchAfterRandomChanges() {
+        query(1L, 3);
+        assertMatchesSearch(1L);
+
+        Random random = new Random(5);
+        for (int step = 0; step < 300; step++) {
+            long idA = 1 + random.nextInt(POINTS + 5);
+            long idB = 1 + random.nextInt(POINTS + 5);
+            if (idA == idB || idA == 1L && step % 50 != 49) {
+                continue;
+            }
+            switch (random.nextInt(4)) {
+                case 0 -> graph.putEdge(idA, idB, random.nextInt(30));
+                case 1 -> graph.removeEdge(idA, idB);
+                case 2 -> {
+                    double cost = graph.cost(idA, idB);
+                    graph.putEdge(idA, idB, Double.isNaN(cost) ? 40 : cost * 2 + 1);
+                }
+                default -> {
+                    if (step % 40 == 0) {
+                        graph.removePoint(idA);
+                    } else {
+                        graph.putEdge(idA, idB, random.nextInt(3));
+                    }
+                }
+            }
+            assertMatchesSearch(1L);
+        }
+    }
+
+    /**
+     * Verifies that a tree caught up to a newer snapshot is not used for an older one,
+     * and that clearing drops the trees.
+     */
+    @Test
+    void route_IgnoresOlderVersions() {
+        query(1L, 3);
+        WeightedGraph old = graph.current();
+        graph.putEdge(1L, 2L, 0.5);
+
+        assertNotNull(trees.route(1L, 0, graph.current()));
+        assertNull(trees.route(1L, 0, old));
+
+        graph.clear();
+        assertTrue(trees.getHotOrigins().isEmpty());
+    }
+
+    /**
+     * Verifies that a tree several changes behind is rebuilt from the snapshot on its next lookup.
+     */
+    @Test
+    void route_RebuildsAfterSeveralChanges() {
+        query(1L, 3);
+        graph.putEdge(1L, 2L, 0.5);
+        graph.removeEdge(1L, 2L);
+        graph.putEdge(2L, 3L, 0.25);
+
+        assertMatchesSearch(1L);
+    }
+
+    /**
+     * Verifies that cost changes do not wait for the trees, which are only repaired on lookup.
+     */
+    @Test
+    void edgeChanged_DoesNotWaitForRepairs() throws Exception {
+        query(1L, 3);
+        Thread writer = new Thread(() -> graph.putEdge(1L, 2L, 0.5));
+        synchronized (trees) {
+            writer.start();
+            writer.join(5000);
+            assertFalse(writer.isAlive());
+        }
+        assertMatchesSearch(1L);
+    }
+
+    private void query(long origin, int times) {
+        for (int i = 0; i < times; i++) {
+            trees.recordQuery(origin);
+        }
+    }
+
+    private void assertMatchesSearch(long origin) {
+        WeightedGraph snapshot = graph.current();
+        int source = snapshot.indexOf(origin);
+        RouteEngine engine = new DijkstraEngine();
+        for (int target = 0; target < snapshot.size(); target++) {
+            if (target == source) continue;
+            RouteResult expected = engine.findRoute(snapshot, source, target);
+            RouteResult actual = trees.route(origin, target, snapshot);
+            assertNotNull(actual);
+            assertEquals(expected.isReachable(), actual.isReachable());
+            if (expected.isReachable()) {
+                assertEquals(expected.getCost(), actual.getCost(), DELTA);
+                assertEquals(origin, actual.getRoute().get(0));
+                assertEquals(snapshot.idOf(target), actual.getRoute().get(actual.getRoute().size() - 1));
+                double total = 0;
+                for (int i = 0; i < actual.getRoute().size() - 1; i++) {
+                    total += graph.cost(actual.getRoute().get(i), actual.getRoute().get(i + 1));
+                }
+                assertEquals(expected.getCost(), total, DELTA);
+            }
+        }
+    }
+}
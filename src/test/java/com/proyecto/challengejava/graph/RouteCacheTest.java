@@ -0,0 +1,122 @@
+package com.proyecto.challengejava.graph;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test for {@link RouteCache}.
+ * Validates the LRU bound, the metrics and that each cost change only evicts the routes it can affect.
+ */
+public class RouteCacheTest {
+
+    private CostGraph graph;
+    private RouteCache cache;
+
+    /**
+     * Builds the path 1 - 2 - 3 plus the edge 4 - 5, and caches 1 -> 3 (cost 5) and 4 -> 5 (cost 1).
+     */
+    @BeforeEach
+    void setUp() {
+        graph = new CostGraph();
+        graph.putEdge(1L, 2L, 2.0);
+        graph.putEdge(2L, 3L, 3.0);
+        graph.putEdge(4L, 5L, 1.0);
+        cache = new RouteCache(graph, 3);
+        cache.put(1L, 3L, new RouteResult(List.of(1L, 2L, 3L), 5.0, 3), graph.version());
+        cache.put(4L, 5L, new RouteResult(List.of(4L, 5L), 1.0, 2), graph.version());
+    }
+
+    @Test
+    void get_CountsHitsAndMisses() {
+        assertEquals(5.0, cache.get(1L, 3L, graph.version()).getCost());
+        assertNull(cache.get(3L, 1L, graph.version()));
+
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    /**
+     * Verifies that a result computed on an older graph version is not stored.
+     */
+    @Test
+    void put_DiscardsStaleVersion() {
+        long version = graph.version();
+        graph.putEdge(6L, 7L, 1.0);
+
+        cache.put(6L, 7L, new RouteResult(List.of(6L, 7L), 1.0, 2), version);
+
+        assertNull(cache.get(6L, 7L, graph.version()));
+    }
+
+    /**
+     * Verifies that a lookup made for an older snapshot does not see routes stored after it.
+     */
+    @Test
+    void get_IgnoresRoutesNewerThanVersion() {
+        long version = graph.version();
+        graph.putEdge(6L, 7L, 6.0);
+        cache.put(6L, 7L, new RouteResult(List.of(6L, 7L), 6.0, 2), graph.version());
+
+        assertNull(cache.get(6L, 7L, version));
+        assertNotNull(cache.get(1L, 3L, version));
+        assertNotNull(cache.get(6L, 7L, graph.version()));
+    }
+
+    /**
+     * Verifies that the least recently used route is evicted when the cache is full.
+     */
+    @Test
+    void put_EvictsLeastRecentlyUsed() {
+        cache.get(1L, 3L, graph.version());
+        cache.put(2L, 3L, new RouteResult(List.of(2L, 3L), 3.0, 2), graph.version());
+        cache.put(1L, 2L, new RouteResult(List.of(1L, 2L), 2.0, 2), graph.version());
+
+        assertEquals(3, cache.size());
+        assertEquals(1, cache.getEvictions());
+        assertNull(cache.get(4L, 5L, graph.version()));
+        assertNotNull(cache.get(1L, 3L, graph.version()));
+    }
+
+    /**
+     * Verifies that a more expensive edge only evicts the routes that use it.
+     */
+    @Test
+    void edgeChanged_IncreaseEvictsRoutesUsingEdge() {
+        graph.putEdge(2L, 3L, 9.0);
+
+        assertNull(cache.get(1L, 3L, graph.version()));
+        assertNotNull(cache.get(4L, 5L, graph.version()));
+        assertEquals(1, cache.getInvalidations());
+    }
+
+    /**
+     * Verifies that a new edge only evicts the routes costing more than it, and the unreachable ones.
+     */
+    @Test
+    void edgeChanged_NewEdgeEvictsOnlyRoutesItCanShorten() {
+        cache.put(1L, 4L, RouteResult.unreachable(3), graph.version());
+
+        graph.putEdge(3L, 4L, 6.0);
+
+        assertNotNull(cache.get(1L, 3L, graph.version()));
+        assertNotNull(cache.get(4L, 5L, graph.version()));
+        assertNull(cache.get(1L, 4L, graph.version()));
+
+        graph.putEdge(1L, 3L, 4.5);
+
+        assertNull(cache.get(1L, 3L, graph.version()));
+        assertNotNull(cache.get(4L, 5L, graph.version()));
+    }
+
+    @Test
+    void graphCleared_EvictsEverything() {
+        graph.clear();
+
+        assertEquals(0, cache.size());
+        assertEquals(2, cache.getInvalidations());
+    }
+}
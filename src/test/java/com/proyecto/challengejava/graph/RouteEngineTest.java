@@ -0,0 +1,408 @@
+package com.proyecto.challengejava.graph;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test for the {@link RouteEngine} implementations.
+ * Every engine is checked against an exhaustive Bellman-Ford reference on a random graph.
+ */
+public class RouteEngineTest {
+
+    private static final int POINTS = 120;
+    private static final double DELTA = 1e-9;
+
+    private CostGraph graph;
+
+    /**
+     * Builds a sparse random graph with a few isolated islands.
+     */
+    @BeforeEach
+    void setUp() {
+        graph = new CostGraph();
+        Random random = new Random(7);
+        for (int i = 0; i < POINTS * 3; i++) {
+            long idA = 1 + random.nextInt(POINTS - 10);
+            long idB = 1 + random.nextInt(POINTS - 10);
+            if (idA != idB) {
+                graph.putEdge(idA, idB, random.nextInt(50));
+            }
+        }
+        graph.putEdge(POINTS - 1, POINTS, 3.0);
+    }
+
+    @Test
+    void dijkstra_MatchesReference() {
+        assertMatchesReference(new DijkstraEngine());
+    }
+
+    /**
+     * Verifies that one multi-destination search returns the same routes as separate searches.
+     */
+    @Test
+    void dijkstra_FindRoutesMatchesReference() {
+        int[] targets = {graph.size() - 2, 5, 0, 17, graph.size() - 1};
+        for (int source = 0; source < graph.size(); source += 7) {
+            double[] expected = reference(source);
+            RouteResult[] results = DijkstraEngine.findRoutes(graph, source, targets);
+            for (int i = 0; i < targets.length; i++) {
+                if (Double.isInfinite(expected[targets[i]])) {
+                    assertFalse(results[i].isReachable());
+                } else {
+                    assertEquals(expected[targets[i]], results[i].getCost(), DELTA);
+                    assertEquals(expected[targets[i]], routeCost(results[i].getRoute()), DELTA);
+                }
+            }
+        }
+    }
+
+    /**
+     * Verifies the matrix rows computed on the reused per-thread scratch, with repeated and unknown destinations.
+     */
+    @Test
+    void dijkstra_CostsToMatchesReference() {
+        int[] targets = {graph.size() - 2, 5, 5, -1, 0, graph.size() - 1};
+        double[] row = new double[targets.length];
+        for (int source = 0; source < graph.size(); source += 3) {
+            double[] expected = reference(source);
+            DijkstraEngine.costsTo(graph, source, targets, row);
+            for (int i = 0; i < targets.length; i++) {
+                double cost = targets[i] < 0 ? Double.POSITIVE_INFINITY : expected[targets[i]];
+                assertEquals(cost, row[i], DELTA);
+            }
+        }
+    }
+
+    @Test
+    void bidirectional_MatchesReference() {
+        assertMatchesReference(new BidirectionalDijkstraEngine());
+    }
+
+    @Test
+    void alt_MatchesReference() {
+        try (AltEngine engine = new AltEngine(graph, 4)) {
+            engine.refresh();
+            assertTrue(engine.isReady());
+            assertEquals(4, engine.getLandmarks().size());
+            assertMatchesReference(engine);
+        }
+    }
+
+    /**
+     * Verifies that ALT falls back to Dijkstra after a mutation, until its tables are rebuilt.
+     */
+    @Test
+    void alt_FallsBackWhileTablesAreStale() {
+        try (AltEngine engine = new AltEngine(graph, 4)) {
+            engine.refresh();
+            graph.putEdge(1L, 2L, 0.0);
+            // The background rebuild may or may not have finished; either way the answers must be exact
+            assertMatchesReference(engine);
+
+            engine.refresh();
+            assertTrue(engine.isReady());
+            assertMatchesReference(engine);
+        }
+    }
+
+    @Test
+    void contractionHierarchy_MatchesReference() {
+        try (ContractionHierarchyEngine engine = new ContractionHierarchyEngine(graph)) {
+            engine.refresh();
+            assertTrue(engine.isReady());
+            assertMatchesReference(engine);
+        }
+    }
+
+    /**
+     * Verifies that the contraction hierarchy falls back to Dijkstra until it is rebuilt after a cost change.
+     */
+    @Test
+    void contractionHierarchy_FallsBackWhileRebuilding() {
+        try (ContractionHierarchyEngine engine = new ContractionHierarchyEngine(graph)) {
+            engine.refresh();
+            graph.removePoint(graph.idOf(0));
+            assertMatchesReference(engine);
+
+            engine.refresh();
+            assertTrue(engine.isReady());
+            assertMatchesReference(engine);
+        }
+    }
+
+    @Test
+    void distanceMatrix_MatchesReference() {
+        try (DistanceMatrixEngine engine = new DistanceMatrixEngine(graph, POINTS)) {
+            engine.refresh();
+            assertTrue(engine.isReady());
+            assertMatchesReference(engine);
+        }
+    }
+
+    /**
+     * Verifies that cheaper, more expensive and removed edges are applied to a copy of the matrix in the background,
+     * leaving the matrix published before each change untouched.
+     */
+    @Test
+    void distanceMatrix_UpdatesIncrementally() throws InterruptedException {
+        try (DistanceMatrixEngine engine = new DistanceMatrixEngine(graph, POINTS)) {
+            engine.refresh();
+            DistanceMatrixEngine.DistanceMatrix before = engine.latest();
+            double[][] rows = Arrays.stream(before.distances).map(double[]::clone).toArray(double[][]::new);
+
+            graph.putEdge(1L, 2L, 0.0);
+            graph.putEdge(3L, 4L, 1.0);
+            awaitReady(engine);
+            assertMatchesReference(engine);
+            assertNotSame(before, engine.latest());
+            for (int target = 0; target < rows.length; target++) {
+                assertArrayEquals(rows[target], before.distances[target]);
+            }
+
+            graph.putEdge(1L, 2L, 40.0);
+            graph.removeEdge(3L, 4L);
+            awaitReady(engine);
+            assertMatchesReference(engine);
+
+            graph.removePoint(graph.idOf(0));
+            awaitReady(engine);
+            assertMatchesReference(engine);
+        }
+    }
+
+    /**
+     * Verifies that readers searching published snapshots while costs go up and down always get the same
+     * answer as Dijkstra on that snapshot: never a false unreachable, never a cost from another version.
+     */
+    @Test
+    void distanceMatrix_ReadersSeeConsistentMatrix() throws Exception {
+        CostGraph ring = new CostGraph();
+        for (long id = 1; id <= 60; id++) {
+            ring.putEdge(id, id % 60 + 1, 10.0);
+            ring.putEdge(id, (id + 7) % 60 + 1, 25.0);
+        }
+        try (DistanceMatrixEngine engine = new DistanceMatrixEngine(ring, 100)) {
+            engine.refresh();
+            RouteEngine reference = new DijkstraEngine();
+            AtomicBoolean running = new AtomicBoolean(true);
+            AtomicReference<String> failure = new AtomicReference<>();
+            AtomicInteger matrixAnswers = new AtomicInteger();
+            ExecutorService readers = Executors.newFixedThreadPool(3);
+            for (int reader = 0; reader < 3; reader++) {
+                int seed = reader;
+                readers.execute(() -> {
+                    Random random = new Random(seed);
+                    while (running.get() && failure.get() == null) {
+                        WeightedGraph snapshot = ring.current();
+                        int source = random.nextInt(snapshot.size());
+                        int target = random.nextInt(snapshot.size());
+                        if (source == target) continue;
+                        boolean fromMatrix = engine.isReady() && snapshot.version() == ring.version();
+                        RouteResult result = engine.findRoute(snapshot, source, target);
+                        double expected = reference.findRoute(snapshot, source, target).getCost();
+                        if (!result.isReachable() || Math.abs(result.getCost() - expected) > DELTA) {
+                            failure.set(source + " -> " + target + " at version " + snapshot.version());
+                        }
+                        if (fromMatrix) {
+                            matrixAnswers.incrementAndGet();
+                        }
+                    }
+                });
+            }
+            Random random = new Random(3);
+            for (int change = 0; change < 200 && failure.get() == null; change++) {
+                long id = 1 + random.nextInt(60);
+                ring.putEdge(id, id % 60 + 1, change % 2 == 0 ? 45.0 : 10.0);
+                if (change % 10 == 0) {
+                    awaitReady(engine);
+                }
+            }
+            running.set(false);
+            readers.shutdown();
+            assertTrue(readers.awaitTermination(10, TimeUnit.SECONDS));
+            assertNull(failure.get());
+            assertTrue(matrixAnswers.get() > 0);
+        }
+    }
+
+    /**
+     * Verifies that graphs larger than the configured limit are answered by Dijkstra.
+     */
+    @Test
+    void distanceMatrix_DeclinesLargeGraphs() {
+        try (DistanceMatrixEngine engine = new DistanceMatrixEngine(graph, 10)) {
+            engine.refresh();
+            assertFalse(engine.isReady());
+            assertMatchesReference(engine);
+        }
+    }
+
+    /**
+     * Verifies that the budget search settles exactly the points within the budget, cheapest first,
+     * with their optimal cost.
+     */
+    @Test
+    void budgetSearch_MatchesReference() {
+        double budget = 25.0;
+        double[] expected = reference(0);
+        BudgetSearch search = new BudgetSearch(graph.current(), 0, budget);
+
+        int reached = 0;
+        double previous = 0.0;
+        for (int node = search.next(); node >= 0; node = search.next()) {
+            assertEquals(expected[node], search.cost(node), DELTA);
+            assertTrue(search.cost(node) >= previous);
+            previous = search.cost(node);
+            reached++;
+        }
+        assertEquals(Arrays.stream(expected).filter(cost -> cost <= budget).count(), reached);
+    }
+
+    /**
+     * Verifies that the published snapshot is reused until a mutation, that a burst of mutations
+     * is folded into a single new snapshot, and that searching it gives the same costs as the live graph.
+     */
+    @Test
+    void current_PublishesOneSnapshotPerBurst() {
+        WeightedGraph first = graph.current();
+        assertSame(first, graph.current());
+
+        graph.putEdge(1L, 2L, 1.0);
+        graph.putEdge(2L, 3L, 1.0);
+        graph.removeEdge(1L, 2L);
+        WeightedGraph next = graph.current();
+
+        assertNotSame(first, next);
+        assertSame(next, graph.current());
+        assertEquals(graph.version(), next.version());
+        RouteEngine engine = new DijkstraEngine();
+        for (int target = 1; target < graph.size(); target++) {
+            assertEquals(engine.findRoute(graph, 0, target).getCost(), engine.findRoute(next, 0, target).getCost());
+        }
+    }
+
+    /**
+     * Verifies that a cancelled deadline stops a long search at its next checkpoint and records the progress,
+     * while the same search runs to completion outside a deadline.
+     */
+    @Test
+    void searchDeadline_StopsSearchAtCheckpoint() {
+        CostGraph chain = new CostGraph();
+        for (long id = 1; id < 3 * SearchDeadline.CHECK_INTERVAL; id++) {
+            chain.putEdge(id, id + 1, 1.0);
+        }
+        int last = chain.size() - 1;
+        RouteEngine engine = new DijkstraEngine();
+        SearchDeadline deadline = new SearchDeadline(60_000);
+
+        assertThrows(SearchDeadline.Expired.class, () -> deadline.run(() -> {
+            deadline.cancel();
+            return engine.findRoute(chain, 0, last);
+        }));
+
+        assertEquals(SearchDeadline.CHECK_INTERVAL, deadline.getSettledNodes());
+        assertEquals(last, engine.findRoute(chain, 0, last).getCost(), DELTA);
+    }
+
+    /**
+     * Verifies that the indexed heap polls in cost order, that decrease-key keeps one entry per node,
+     * and that a reset leaves the scratch clean for the next search.
+     */
+    @Test
+    void searchScratch_DecreasesKeysInPlace() {
+        SearchScratch scratch = new SearchScratch().ensureCapacity(50);
+        Random random = new Random(11);
+        double[] expected = new double[50];
+        Arrays.fill(expected, Double.POSITIVE_INFINITY);
+        for (int i = 0; i < 500; i++) {
+            int node = random.nextInt(50);
+            double cost = random.nextInt(1000);
+            assertEquals(cost < expected[node], scratch.relax(node, cost, i));
+            expected[node] = Math.min(expected[node], cost);
+        }
+        long reached = Arrays.stream(expected).filter(cost -> cost < Double.POSITIVE_INFINITY).count();
+        assertEquals(reached, scratch.queued());
+
+        double previous = -1;
+        while (!scratch.isEmpty()) {
+            int node = scratch.poll();
+            assertTrue(scratch.isSettled(node));
+            assertEquals(expected[node], scratch.distance(node));
+            assertTrue(scratch.distance(node) >= previous);
+            previous = scratch.distance(node);
+        }
+
+        scratch.reset();
+        for (int node = 0; node < 50; node++) {
+            assertEquals(Double.POSITIVE_INFINITY, scratch.distance(node));
+            assertEquals(-1, scratch.predecessors()[node]);
+            assertFalse(scratch.isSettled(node));
+        }
+    }
+
+    private static void awaitReady(PreprocessedRouteEngine<?> engine) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!engine.isReady()) {
+            assertTrue(System.currentTimeMillis() < deadline, "Engine did not catch up with the graph");
+            Thread.sleep(1);
+        }
+    }
+
+    /**
+     * Checks every pair of points: reachability, optimal cost and that the returned route really costs that much.
+     */
+    private void assertMatchesReference(RouteEngine engine) {
+        for (int source = 0; source < graph.size(); source++) {
+            double[] expected = reference(source);
+            for (int target = 0; target < graph.size(); target++) {
+                if (source == target) continue;
+                RouteResult result = engine.findRoute(graph, source, target);
+                if (Double.isInfinite(expected[target])) {
+                    assertFalse(result.isReachable());
+                    continue;
+                }
+                assertEquals(expected[target], result.getCost(), DELTA);
+                assertEquals(expected[target], routeCost(result.getRoute()), DELTA);
+                assertEquals(graph.idOf(source), result.getRoute().get(0));
+                assertEquals(graph.idOf(target), result.getRoute().get(result.getRoute().size() - 1));
+            }
+        }
+    }
+
+    private double[] reference(int source) {
+        double[] distances = new double[graph.size()];
+        Arrays.fill(distances, Double.POSITIVE_INFINITY);
+        distances[source] = 0;
+        for (int round = 0; round < graph.size(); round++) {
+            for (int node = 0; node < graph.size(); node++) {
+                for (int i = 0; i < graph.degree(node); i++) {
+                    int neighbor = graph.neighbor(node, i);
+                    distances[neighbor] = Math.min(distances[neighbor], distances[node] + graph.weight(node, i));
+                }
+            }
+        }
+        return distances;
+    }
+
+    private double routeCost(List<Long> route) {
+        double total = 0;
+        for (int i = 0; i < route.size() - 1; i++) {
+            double cost = graph.cost(route.get(i), route.get(i + 1));
+            assertFalse(Double.isNaN(cost), "Route uses a missing edge");
+            total += cost;
+        }
+        return total;
+    }
+}
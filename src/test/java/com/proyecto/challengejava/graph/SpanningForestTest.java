@@ -0,0 +1,86 @@
+package com.proyecto.challengejava.graph;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test for {@link SpanningForest}.
+ * Validates Kruskal's forest against Prim's algorithm run from every component on a random graph.
+ */
+public class SpanningForestTest {
+
+    private static final double DELTA = 1e-9;
+
+    /**
+     * Verifies the total cost, the number of trees and that the forest only uses existing edges
+     * and joins every point of each component.
+     */
+    @Test
+    void of_MatchesPrim() {
+        CostGraph graph = new CostGraph();
+        Random random = new Random(3);
+        for (int i = 0; i < 400; i++) {
+            long idA = 1 + random.nextInt(150);
+            long idB = 1 + random.nextInt(150);
+            if (idA != idB) {
+                graph.putEdge(idA, idB, random.nextInt(20));
+            }
+        }
+        graph.putEdge(500L, 501L, 7.0);
+        graph.removePoint(1L);
+
+        SpanningForest forest = SpanningForest.of(graph.current());
+
+        double total = 0;
+        CostGraph forestGraph = new CostGraph();
+        for (int i = 0; i < forest.size(); i++) {
+            assertEquals(graph.cost(forest.idA(i), forest.idB(i)), forest.cost(i));
+            forestGraph.putEdge(forest.idA(i), forest.idB(i), forest.cost(i));
+            total += forest.cost(i);
+        }
+        assertEquals(total, forest.getTotalCost(), DELTA);
+        assertEquals(prim(graph), forest.getTotalCost(), DELTA);
+        assertEquals(forestGraph.size(), forest.size() + forest.getTrees());
+        assertEquals(new ConnectedComponents(forestGraph).componentSizes().size(), forest.getTrees());
+        assertEquals(graph.current().version(), forest.version());
+    }
+
+    @Test
+    void of_EmptyGraph() {
+        SpanningForest forest = SpanningForest.of(new CostGraph().current());
+
+        assertEquals(0, forest.size());
+        assertEquals(0, forest.getTrees());
+        assertEquals(0.0, forest.getTotalCost());
+    }
+
+    // Prim's algorithm with an O(n^2) scan, restarted from every point not yet spanned
+    private double prim(CostGraph graph) {
+        int n = graph.size();
+        boolean[] inTree = new boolean[n];
+        double[] best = new double[n];
+        Arrays.fill(best, Double.POSITIVE_INFINITY);
+        double total = 0;
+        for (int step = 0; step < n; step++) {
+            int next = -1;
+            for (int node = 0; node < n; node++) {
+                if (!inTree[node] && (next < 0 || best[node] < best[next])) {
+                    next = node;
+                }
+            }
+            inTree[next] = true;
+            if (!Double.isInfinite(best[next])) {
+                total += best[next];
+            }
+            for (int i = 0; i < graph.degree(next); i++) {
+                int neighbor = graph.neighbor(next, i);
+                best[neighbor] = Math.min(best[neighbor], graph.weight(next, i));
+            }
+        }
+        return total;
+    }
+}
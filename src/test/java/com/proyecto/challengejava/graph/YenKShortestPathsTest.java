@@ -0,0 +1,99 @@
+package com.proyecto.challengejava.graph;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test for {@link YenKShortestPaths}.
+ * Checks the k routes against an exhaustive enumeration of the loopless routes of a small random graph.
+ */
+public class YenKShortestPathsTest {
+
+    private static final double DELTA = 1e-9;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+    private CostGraph graph;
+
+    @BeforeEach
+    void setUp() {
+        graph = new CostGraph();
+        Random random = new Random(11);
+        for (int i = 0; i < 20; i++) {
+            long idA = 1 + random.nextInt(9);
+            long idB = 1 + random.nextInt(9);
+            if (idA != idB) {
+                graph.putEdge(idA, idB, 1 + random.nextInt(9));
+            }
+        }
+        graph.putEdge(20L, 21L, 1.0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Verifies that the routes are loopless, distinct, correctly priced and as cheap as the exhaustive ones.
+     */
+    @Test
+    void find_MatchesExhaustiveEnumeration() {
+        YenKShortestPaths yen = new YenKShortestPaths(graph, executor);
+        for (int source = 0; source < graph.size(); source++) {
+            for (int target = 0; target < graph.size(); target++) {
+                if (source == target) continue;
+                List<Double> expected = allRouteCosts(source, target);
+                List<RouteResult> routes = yen.find(source, target, 5);
+
+                assertEquals(Math.min(5, expected.size()), routes.size());
+                Set<List<Long>> distinct = new HashSet<>();
+                for (int i = 0; i < routes.size(); i++) {
+                    List<Long> route = routes.get(i).getRoute();
+                    assertEquals(route.size(), new HashSet<>(route).size(), "Route has a loop");
+                    assertTrue(distinct.add(route), "Route repeated");
+                    assertEquals(graph.idOf(source), route.get(0));
+                    assertEquals(graph.idOf(target), route.get(route.size() - 1));
+                    assertEquals(expected.get(i), routes.get(i).getCost(), DELTA);
+                    assertEquals(expected.get(i), routeCost(route), DELTA);
+                }
+            }
+        }
+    }
+
+    private List<Double> allRouteCosts(int source, int target) {
+        List<Double> costs = new ArrayList<>();
+        enumerate(source, target, new boolean[graph.size()], 0.0, costs);
+        Collections.sort(costs);
+        return costs;
+    }
+
+    private void enumerate(int node, int target, boolean[] visited, double cost, List<Double> costs) {
+        if (node == target) {
+            costs.add(cost);
+            return;
+        }
+        visited[node] = true;
+        for (int i = 0; i < graph.degree(node); i++) {
+            int neighbor = graph.neighbor(node, i);
+            if (!visited[neighbor]) {
+                enumerate(neighbor, target, visited, cost + graph.weight(node, i), costs);
+            }
+        }
+        visited[node] = false;
+    }
+
+    private double routeCost(List<Long> route) {
+        double total = 0;
+        for (int i = 0; i < route.size() - 1; i++) {
+            total += graph.cost(route.get(i), route.get(i + 1));
+        }
+        return total;
+    }
+}
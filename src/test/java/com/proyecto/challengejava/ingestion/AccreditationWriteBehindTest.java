@@ -0,0 +1,319 @@
+package com.proyecto.challengejava.ingestion;
+
+import com.proyecto.challengejava.config.IngestionProperties;
+import com.proyecto.challengejava.dto.IngestionStats;
+import com.proyecto.challengejava.entity.Accreditation;
+import com.proyecto.challengejava.enums.IngestionMode;
+import com.proyecto.challengejava.rollup.AccreditationRollups;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit test for {@link AccreditationJournal} and {@link AccreditationWriteBehind}.
+ * Validates journal recovery, batched writes, the replay of accreditations missing from the database
+ * and the handling of lost acknowledgements and rejected rows.
+ */
+public class AccreditationWriteBehindTest {
+
+    @TempDir
+    Path directory;
+
+    private Path journalFile;
+    private JdbcTemplate jdbcTemplate;
+    private AccreditationRollups rollups;
+    private List<Long> writtenSequences;
+
+    /**
+     * Mocks a database that records the journal sequence of every inserted row.
+     */
+    @BeforeEach
+    void setUp() {
+        journalFile = directory.resolve("accreditations.journal");
+        writtenSequences = new ArrayList<>();
+        jdbcTemplate = mock(JdbcTemplate.class);
+        rollups = mock(AccreditationRollups.class);
+        when(jdbcTemplate.update(anyString(), any(Object[].class))).thenAnswer(invocation -> {
+            Object[] arguments = invocation.getArguments();
+            for (int i = 5; i < arguments.length; i += 5) {
+                writtenSequences.add((Long) arguments[i]);
+            }
+            return (arguments.length - 1) / 5;
+        });
+    }
+
+    /**
+     * Verifies that recovery returns every intact record, cuts off a torn tail and numbers new records after both.
+     */
+    @Test
+    void recover_StopsAtTornRecord() throws IOException {
+        try (AccreditationJournal journal = new AccreditationJournal(journalFile)) {
+            journal.recover(0);
+            for (int i = 0; i < 3; i++) {
+                journal.append(accreditation(10.0 + i));
+            }
+        }
+        long intact = Files.size(journalFile);
+        try (FileChannel channel = FileChannel.open(journalFile, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.wrap(new byte[]{40, 0, 0, 0, 1, 2, 3}));
+        }
+
+        try (AccreditationJournal journal = new AccreditationJournal(journalFile)) {
+            List<Accreditation> records = journal.recover(1);
+
+            assertEquals(3, records.size());
+            assertEquals(List.of(1L, 2L, 3L), records.stream().map(Accreditation::getJournalSequence).toList());
+            assertEquals(12.0, records.get(2).getAmount());
+            assertEquals("Point 1", records.get(0).getPointSaleName());
+            assertEquals(intact, Files.size(journalFile));
+
+            Accreditation next = accreditation(1.0);
+            journal.append(next);
+            assertEquals(4L, next.getJournalSequence());
+            journal.release(records);
+            journal.release(List.of(next));
+            assertTrue(journal.compact());
+            assertEquals(0, Files.size(journalFile));
+        }
+    }
+
+    /**
+     * Verifies that compaction drops the released records before the oldest open one once they outweigh the rest,
+     * and that the journal keeps appending after it.
+     */
+    @Test
+    void compact_DropsReleasedPrefix() throws IOException {
+        List<Accreditation> records = new ArrayList<>();
+        try (AccreditationJournal journal = new AccreditationJournal(journalFile)) {
+            journal.recover(0);
+            for (int i = 0; i < 4; i++) {
+                Accreditation record = accreditation(i);
+                journal.append(record);
+                records.add(record);
+            }
+            journal.release(records.subList(0, 1));
+            assertFalse(journal.compact());
+
+            journal.release(records.subList(1, 3));
+            assertTrue(journal.compact());
+            journal.append(accreditation(9.0));
+        }
+
+        try (AccreditationJournal journal = new AccreditationJournal(journalFile)) {
+            List<Accreditation> recovered = journal.recover(0);
+
+            assertEquals(List.of(4L, 5L), recovered.stream().map(Accreditation::getJournalSequence).toList());
+            assertEquals(9.0, recovered.get(1).getAmount());
+        }
+    }
+
+    /**
+     * Verifies that submitted accreditations are written in multi-row batches, added to the rollups once written,
+     * and that the journal is emptied once all of them are in the database.
+     */
+    @Test
+    void submit_WritesBatchesAndEmptiesJournal() throws Exception {
+        AccreditationWriteBehind writeBehind = new AccreditationWriteBehind(properties(), jdbcTemplate, rollups);
+        writeBehind.start();
+        for (int i = 0; i < 5; i++) {
+            writeBehind.submit(accreditation(i));
+        }
+        writeBehind.shutdown();
+
+        IngestionStats stats = writeBehind.getStats();
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), writtenSequences);
+        assertEquals(5, stats.getAppended());
+        assertEquals(5, stats.getFlushed());
+        assertEquals(0, stats.getPending());
+        assertTrue(stats.getBatches() >= 3);
+        assertEquals(0, Files.size(journalFile));
+        verify(rollups, times(5)).record(eq(1L), eq(LocalDate.of(2024, 3, 31)), anyDouble());
+    }
+
+    /**
+     * Verifies that on startup only the journaled accreditations missing from the database are written again,
+     * and that only those are added to the rollups, which already count the rest.
+     */
+    @Test
+    void start_ReplaysRecordsMissingFromDatabase() throws Exception {
+        try (AccreditationJournal journal = new AccreditationJournal(journalFile)) {
+            journal.recover(0);
+            for (int i = 0; i < 3; i++) {
+                journal.append(accreditation(i));
+            }
+        }
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class))).thenReturn(2L);
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), any(Object[].class))).thenReturn(List.of(1L, 2L));
+
+        AccreditationWriteBehind writeBehind = new AccreditationWriteBehind(properties(), jdbcTemplate, rollups);
+        writeBehind.start();
+        writeBehind.shutdown();
+
+        assertEquals(List.of(3L), writtenSequences);
+        assertEquals(1, writeBehind.getStats().getReplayed());
+        verify(rollups, times(1)).record(1L, LocalDate.of(2024, 3, 31), 2.0);
+        verify(rollups, times(1)).record(anyLong(), any(), anyDouble());
+    }
+
+    /**
+     * Verifies that a journal holding more accreditations than may be pending is replayed on startup,
+     * and that the journal is emptied once they are written.
+     */
+    @Test
+    void start_ReplaysJournalLargerThanMaxPending() throws Exception {
+        try (AccreditationJournal journal = new AccreditationJournal(journalFile)) {
+            journal.recover(0);
+            for (int i = 0; i < 5; i++) {
+                journal.append(accreditation(i));
+            }
+        }
+        IngestionProperties properties = properties();
+        properties.setMaxPending(2);
+
+        AccreditationWriteBehind writeBehind = new AccreditationWriteBehind(properties, jdbcTemplate, rollups);
+        assertTimeoutPreemptively(Duration.ofSeconds(5), writeBehind::start);
+        writeBehind.shutdown();
+
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), writtenSequences);
+        assertEquals(5, writeBehind.getStats().getReplayed());
+        assertEquals(0, Files.size(journalFile));
+    }
+
+    /**
+     * Verifies that an accreditation the table would refuse is rejected before it is journaled or acknowledged.
+     */
+    @Test
+    void submit_RejectsAccreditationTheTableWouldRefuse() throws Exception {
+        AccreditationWriteBehind writeBehind = new AccreditationWriteBehind(properties(), jdbcTemplate, rollups);
+        writeBehind.start();
+        Accreditation accreditation = accreditation(1.0);
+        accreditation.setPointSaleName("x".repeat(256));
+
+        assertThrows(IllegalArgumentException.class, () -> writeBehind.submit(accreditation));
+        writeBehind.shutdown();
+
+        IngestionStats stats = writeBehind.getStats();
+        assertEquals(0, stats.getAppended());
+        assertEquals(0, stats.getPending());
+        assertEquals(0, Files.size(journalFile));
+        assertTrue(writtenSequences.isEmpty());
+    }
+
+    /**
+     * Verifies that a batch whose insert was committed but answered with a timeout is not written twice
+     * when its rows are not in journal sequence order.
+     */
+    @Test
+    void write_SkipsRowsOfLostAcknowledgementInUnorderedBatch() throws Exception {
+        AtomicBoolean answered = new AtomicBoolean();
+        when(jdbcTemplate.update(anyString(), any(Object[].class))).thenAnswer(invocation -> {
+            List<Long> sequences = sequencesOf(invocation.getArguments());
+            if (sequences.stream().anyMatch(writtenSequences::contains)) {
+                throw new DuplicateKeyException("duplicate journal_sequence");
+            }
+            writtenSequences.addAll(sequences);
+            if (answered.compareAndSet(false, true)) {
+                throw new QueryTimeoutException("answer lost");
+            }
+            return sequences.size();
+        });
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), any(Object[].class))).thenAnswer(invocation -> {
+            long min = invocation.getArgument(2);
+            long max = invocation.getArgument(3);
+            return writtenSequences.stream().filter(sequence -> sequence >= min && sequence <= max).toList();
+        });
+        AccreditationWriteBehind writeBehind = new AccreditationWriteBehind(properties(), jdbcTemplate, rollups);
+        writeBehind.start();
+
+        writeBehind.write(List.of(sequenced(3), sequenced(1), sequenced(2)));
+        writeBehind.shutdown();
+
+        assertEquals(List.of(3L, 1L, 2L), writtenSequences);
+        assertEquals(3, writeBehind.getStats().getFlushed());
+        assertEquals(2, writeBehind.getStats().getFailedFlushes());
+        verify(jdbcTemplate, times(2)).update(anyString(), any(Object[].class));
+        verify(rollups, times(3)).record(anyLong(), any(), anyDouble());
+    }
+
+    /**
+     * Verifies that a row the database refuses is parked while the rest of its batch is written.
+     */
+    @Test
+    void write_ParksRejectedRowAndWritesTheRest() throws Exception {
+        when(jdbcTemplate.update(anyString(), any(Object[].class))).thenAnswer(invocation -> {
+            List<Long> sequences = sequencesOf(invocation.getArguments());
+            if (sequences.contains(2L)) {
+                throw new DataIntegrityViolationException("value too long");
+            }
+            writtenSequences.addAll(sequences);
+            return sequences.size();
+        });
+        AccreditationWriteBehind writeBehind = new AccreditationWriteBehind(properties(), jdbcTemplate, rollups);
+        writeBehind.start();
+
+        writeBehind.write(List.of(sequenced(1), sequenced(2), sequenced(3)));
+        writeBehind.shutdown();
+
+        IngestionStats stats = writeBehind.getStats();
+        assertEquals(List.of(1L, 3L), writtenSequences);
+        assertEquals(2, stats.getFlushed());
+        assertEquals(1, stats.getParked());
+        List<String> parked = Files.readAllLines(Path.of(journalFile + ".parked"));
+        assertEquals(1, parked.size());
+        assertTrue(parked.get(0).startsWith("2\t"));
+        verify(rollups, never()).record(1L, LocalDate.of(2024, 3, 31), 2.0);
+        verify(rollups, times(2)).record(anyLong(), any(), anyDouble());
+    }
+
+    private static List<Long> sequencesOf(Object[] arguments) {
+        List<Long> sequences = new ArrayList<>();
+        for (int i = 5; i < arguments.length; i += 5) {
+            sequences.add((Long) arguments[i]);
+        }
+        return sequences;
+    }
+
+    private static Accreditation sequenced(long sequence) {
+        Accreditation accreditation = accreditation(sequence);
+        accreditation.setJournalSequence(sequence);
+        return accreditation;
+    }
+
+    private IngestionProperties properties() {
+        IngestionProperties properties = new IngestionProperties();
+        properties.setMode(IngestionMode.JOURNAL);
+        properties.setJournalFile(journalFile.toString());
+        properties.setBatchSize(2);
+        properties.setFlushIntervalMillis(20);
+        return properties;
+    }
+
+    private static Accreditation accreditation(double amount) {
+        Accreditation accreditation = new Accreditation();
+        accreditation.setAmount(amount);
+        accreditation.setIdPointSale(1L);
+        accreditation.setPointSaleName("Point 1");
+        accreditation.setDateReception(LocalDate.of(2024, 3, 31));
+        return accreditation;
+    }
+}
@@ -0,0 +1,224 @@
+package com.proyecto.challengejava.rollup;
+
+import com.proyecto.challengejava.config.RollupProperties;
+import com.proyecto.challengejava.dto.AccreditationRollupResponse;
+import com.proyecto.challengejava.dto.AccreditationTotalResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit test for {@link AccreditationRollups}.
+ * Validates the startup load, concurrent updates, range totals and the upsert of changed rollups.
+ */
+public class AccreditationRollupsTest {
+
+    private static final double DELTA = 1e-9;
+    private static final LocalDate DAY = LocalDate.of(2024, 3, 31);
+
+    private JdbcTemplate jdbcTemplate;
+    private AccreditationRollups rollups;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        rollups = new AccreditationRollups(new RollupProperties(), jdbcTemplate);
+    }
+
+    /**
+     * Verifies that accreditations recorded from several threads at once all reach the same daily rollup.
+     */
+    @Test
+    void record_CountsConcurrentAccreditations() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<?>> tasks = new ArrayList<>();
+        for (int thread = 0; thread < 4; thread++) {
+            tasks.add(executor.submit(() -> {
+                for (int i = 1; i <= 1000; i++) {
+                    rollups.record(1L, DAY, i);
+                }
+            }));
+        }
+        for (Future<?> task : tasks) {
+            task.get();
+        }
+        executor.shutdown();
+
+        List<AccreditationRollupResponse> daily = rollups.getDaily(1L, DAY, DAY);
+        assertEquals(1, daily.size());
+        assertEquals(4000, daily.get(0).getCount());
+        assertEquals(4 * 500500.0, daily.get(0).getTotal(), DELTA);
+        assertEquals(1.0, daily.get(0).getMinAmount());
+        assertEquals(1000.0, daily.get(0).getMaxAmount());
+    }
+
+    /**
+     * Verifies that range totals only add up the days inside the range, per point of sale.
+     */
+    @Test
+    void getTotals_SumsDaysInRange() {
+        rollups.record(1L, DAY.minusDays(2), 50.0);
+        rollups.record(1L, DAY.minusDays(1), 10.0);
+        rollups.record(1L, DAY, 30.0);
+        rollups.record(1L, DAY, 20.0);
+        rollups.record(2L, DAY, 5.0);
+        rollups.record(3L, DAY.minusDays(5), 5.0);
+
+        List<AccreditationTotalResponse> totals = rollups.getTotals(null, DAY.minusDays(1), DAY);
+
+        assertEquals(2, totals.size());
+        AccreditationTotalResponse first = totals.get(0);
+        assertEquals(1L, first.getIdPointSale());
+        assertEquals(DAY.minusDays(1), first.getFrom());
+        assertEquals(DAY, first.getTo());
+        assertEquals(2, first.getDays());
+        assertEquals(3, first.getCount());
+        assertEquals(60.0, first.getTotal(), DELTA);
+        assertEquals(10.0, first.getMinAmount());
+        assertEquals(30.0, first.getMaxAmount());
+        assertEquals(2L, totals.get(1).getIdPointSale());
+        assertTrue(rollups.getTotals(4L, DAY, DAY).isEmpty());
+    }
+
+    /**
+     * Verifies that a flush upserts only the rollups changed since the previous one.
+     */
+    @Test
+    void flush_WritesOnlyChangedRollups() {
+        rollups.record(1L, DAY, 10.0);
+        rollups.record(2L, DAY, 20.0);
+        assertEquals(2, rollups.flush());
+        assertEquals(0, rollups.flush());
+
+        rollups.record(1L, DAY, 5.0);
+        assertEquals(1, rollups.flush());
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), anyList());
+    }
+
+    /**
+     * Verifies that the mark is written after the rollups, and left where it was while a write is between
+     * its insert and its records.
+     */
+    @Test
+    void flush_WritesMarkOnlyWithoutWritesInFlight() throws Exception {
+        when(jdbcTemplate.queryForObject(contains("MAX(id)"), eq(Long.class))).thenReturn(42L);
+        rollups.record(1L, DAY, 10.0);
+        assertEquals(1, rollups.flush());
+
+        var order = inOrder(jdbcTemplate);
+        order.verify(jdbcTemplate).batchUpdate(anyString(), anyList());
+        order.verify(jdbcTemplate).update(contains("accreditation_rollup_mark"), eq(42L));
+
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(1);
+        Thread writer = new Thread(() -> {
+            rollups.beginWrite();
+            writing.countDown();
+            try {
+                done.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                rollups.endWrite();
+            }
+        });
+        writer.start();
+        writing.await();
+        rollups.record(1L, DAY, 5.0);
+        assertEquals(1, rollups.flush());
+        done.countDown();
+        writer.join();
+
+        verify(jdbcTemplate, times(1)).update(contains("accreditation_rollup_mark"), any(Object[].class));
+    }
+
+    /**
+     * Verifies that on startup the days before the earliest one of an accreditation after the mark are loaded
+     * as persisted, even when later days were persisted too, while that day and later ones are recomputed from
+     * the accreditation table and written again.
+     */
+    @Test
+    void load_RecomputesDaysFromEarliestAccreditationAfterMark() throws Exception {
+        when(jdbcTemplate.queryForObject(contains("accreditation_rollup_mark"), eq(Long.class))).thenReturn(10L);
+        when(jdbcTemplate.queryForObject(contains("MIN(date_reception)"), eq(LocalDate.class), eq(10L)))
+                .thenReturn(DAY.minusDays(1));
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            handler.processRow(row(1L, DAY.minusDays(2), 2, 30.0, 10.0, 20.0));
+            return null;
+        }).when(jdbcTemplate).query(contains("FROM accreditation_rollup WHERE"), any(RowCallbackHandler.class), any(Object[].class));
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            handler.processRow(row(1L, DAY.minusDays(1), 1, 7.0, 7.0, 7.0));
+            handler.processRow(row(1L, DAY, 3, 45.0, 5.0, 25.0));
+            return null;
+        }).when(jdbcTemplate).query(contains("FROM accreditation WHERE"), any(RowCallbackHandler.class), any(Object[].class));
+        AccreditationRollups loaded = new AccreditationRollups(withoutPeriodicFlush(), jdbcTemplate);
+
+        loaded.load();
+        loaded.record(1L, DAY, 15.0);
+
+        List<AccreditationRollupResponse> daily = loaded.getDaily(1L, DAY.minusDays(2), DAY);
+        assertEquals(3, daily.size());
+        assertEquals(2, daily.get(0).getCount());
+        assertEquals(30.0, daily.get(0).getTotal(), DELTA);
+        assertEquals(1, daily.get(1).getCount());
+        assertEquals(4, daily.get(2).getCount());
+        assertEquals(60.0, daily.get(2).getTotal(), DELTA);
+        assertEquals(2, loaded.flush());
+    }
+
+    /**
+     * Verifies that on startup every persisted rollup is loaded, and nothing recomputed, when no accreditation
+     * was written after the mark.
+     */
+    @Test
+    void load_RecomputesNothingWithoutAccreditationsAfterMark() throws Exception {
+        when(jdbcTemplate.queryForObject(contains("accreditation_rollup_mark"), eq(Long.class))).thenReturn(10L);
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            handler.processRow(row(1L, DAY, 2, 30.0, 10.0, 20.0));
+            return null;
+        }).when(jdbcTemplate).query(endsWith("FROM accreditation_rollup"), any(RowCallbackHandler.class));
+        AccreditationRollups loaded = new AccreditationRollups(withoutPeriodicFlush(), jdbcTemplate);
+
+        loaded.load();
+
+        assertEquals(2, loaded.getDaily(1L, DAY, DAY).get(0).getCount());
+        assertEquals(0, loaded.flush());
+        verify(jdbcTemplate, never()).query(contains("FROM accreditation WHERE"), any(RowCallbackHandler.class), any(Object[].class));
+    }
+
+    private static RollupProperties withoutPeriodicFlush() {
+        RollupProperties properties = new RollupProperties();
+        properties.setFlushIntervalSeconds(0);
+        return properties;
+    }
+
+    private static ResultSet row(long idPointSale, LocalDate day, long count, double total, double min, double max)
+            throws SQLException {
+        ResultSet row = mock(ResultSet.class);
+        when(row.getLong(1)).thenReturn(idPointSale);
+        when(row.getObject(2, LocalDate.class)).thenReturn(day);
+        when(row.getLong(3)).thenReturn(count);
+        when(row.getDouble(4)).thenReturn(total);
+        when(row.getDouble(5)).thenReturn(min);
+        when(row.getDouble(6)).thenReturn(max);
+        return row;
+    }
+}
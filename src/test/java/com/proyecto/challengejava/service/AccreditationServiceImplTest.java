@@ -1,22 +1,31 @@
 package com.proyecto.challengejava.service;
 
+import com.proyecto.challengejava.config.ListingProperties;
+import com.proyecto.challengejava.dto.AccreditationCursor;
+import com.proyecto.challengejava.dto.AccreditationPage;
+import com.proyecto.challengejava.dto.AccreditationResponse;
 import com.proyecto.challengejava.entity.Accreditation;
 import com.proyecto.challengejava.entity.PointSale;
 import com.proyecto.challengejava.exception.PointSaleNotFoundException;
+import com.proyecto.challengejava.ingestion.AccreditationWriteBehind;
 import com.proyecto.challengejava.repository.AccreditationRepository;
+import com.proyecto.challengejava.rollup.AccreditationRollups;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
 
 import java.time.LocalDate;
-import java.util.Arrays;
 import java.util.List;
 
 import static com.proyecto.challengejava.constants.ConstantsTest.*;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 /**
@@ -31,6 +40,18 @@ public class AccreditationServiceImplTest {
     @Mock
     private PointSaleServiceImpl puntoVentaServiceImpl;
 
+    @Mock
+    private AccreditationWriteBehind writeBehind;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private AccreditationRollups rollups;
+
+    @Spy
+    private ListingProperties listingProperties = new ListingProperties();
+
     @InjectMocks
     private AccreditationServiceImpl acreditacionServiceImpl;
 
@@ -49,7 +70,7 @@ public class AccreditationServiceImplTest {
         pointSale.setId(ID_POINT_SALE1);
         pointSale.setName(POINT_SALE_1);
 
-        when(puntoVentaServiceImpl.getAllPointSale()).thenReturn(List.of(pointSale));
+        when(puntoVentaServiceImpl.nameOf(ID_POINT_SALE1)).thenReturn(pointSale.getName());
 
         Accreditation accreditation = new Accreditation();
         accreditation.setId(ID_POINT_SALE1);
@@ -67,6 +88,7 @@ public class AccreditationServiceImplTest {
         assertEquals(POINT_SALE_1, result.getPointSaleName());
         assertEquals(LocalDate.now(), result.getDateReception());
         verify(accreditationRepository, times(1)).save(any(Accreditation.class));
+        verify(rollups, times(1)).record(ID_POINT_SALE1, LocalDate.now(), AMOUNT);
     }
 
     /**
@@ -75,8 +97,6 @@ public class AccreditationServiceImplTest {
      */
     @Test
     void receiveAccreditation_ThrowsIllegalArgumentException() {
-        when(puntoVentaServiceImpl.getAllPointSale()).thenReturn(List.of());
-
         Exception exception = assertThrows(PointSaleNotFoundException.class,
                 () -> acreditacionServiceImpl.receiveAccreditation(AMOUNT, INVALID_ID));
         assertEquals(POINT_OF_SALE_NOT_FOUND + ": 99", exception.getMessage());
@@ -84,24 +104,73 @@ public class AccreditationServiceImplTest {
     }
 
     /**
-     * Verifies that {@code getAccreditations} returns all accreditations
-     * from the repository.
+     * Verifies that a full page is read with one extra row and that the last accreditation of the page
+     * becomes the cursor of the next one.
      */
     @Test
-    void getAccreditations() {
-        Accreditation accreditation1 = new Accreditation();
-        accreditation1.setId(ID_POINT_SALE1);
-        accreditation1.setAmount(AMOUNT);
+    void getAccreditations_ReturnsPageWithNextCursor() {
+        LocalDate day = LocalDate.of(2024, 3, 31);
+        List<AccreditationResponse> rows = List.of(
+                new AccreditationResponse(ID_POINT_SALE1, AMOUNT, ID_POINT_SALE1, POINT_SALE_1, day),
+                new AccreditationResponse(ID_POINT_SALE2, AMOUNT2, ID_POINT_SALE1, POINT_SALE_1, day),
+                new AccreditationResponse(ID_POINT_SALE3, AMOUNT3, ID_POINT_SALE2, POINT_SALE_2, day));
+        when(accreditationRepository.findPageAfter(any(LocalDate.class), eq(0L), any(LocalDate.class),
+                eq(PageRequest.ofSize(3)))).thenReturn(rows);
+
+        AccreditationPage page = acreditacionServiceImpl.getAccreditations(null, null, null, null, 2);
+
+        assertEquals(2, page.getAccreditations().size());
+        assertEquals(day + "_" + ID_POINT_SALE2, page.getNext().toString());
+        verify(accreditationRepository, never()).findAll();
+    }
 
-        Accreditation accreditation2 = new Accreditation();
-        accreditation2.setId(ID_POINT_SALE2);
-        accreditation2.setAmount(AMOUNT2);
+    /**
+     * Verifies that a point of sale filter uses its own keyset query, that a cursor inside the date range
+     * is resumed from, and that the last page has no next cursor.
+     */
+    @Test
+    void getAccreditations_ResumesFromCursorOfPointSale() {
+        LocalDate from = LocalDate.of(2024, 3, 1);
+        LocalDate to = LocalDate.of(2024, 3, 31);
+        AccreditationCursor after = AccreditationCursor.parse("2024-03-05_7");
+        AccreditationResponse row = new AccreditationResponse(8L, AMOUNT, ID_POINT_SALE1, POINT_SALE_1, to);
+        when(accreditationRepository.findPageOfPointSaleAfter(ID_POINT_SALE1, after.getDateReception(), 7L, to,
+                PageRequest.ofSize(listingProperties.getPageSize() + 1))).thenReturn(List.of(row));
+
+        AccreditationPage page = acreditacionServiceImpl.getAccreditations(ID_POINT_SALE1, from, to, after, null);
+
+        assertEquals(List.of(row), page.getAccreditations());
+        assertNull(page.getNext());
+    }
 
-        when(accreditationRepository.findAll()).thenReturn(Arrays.asList(accreditation1, accreditation2));
-        Iterable<Accreditation> result = acreditacionServiceImpl.getAccreditations();
+    /**
+     * Verifies that a date range ending before it starts is rejected.
+     */
+    @Test
+    void getAccreditations_ThrowsOnInvertedDateRange() {
+        LocalDate day = LocalDate.of(2024, 3, 31);
 
-        assertNotNull(result);
-        assertTrue(((Iterable<?>) result).iterator().hasNext());
-        verify(accreditationRepository, times(1)).findAll();
+        Exception exception = assertThrows(IllegalArgumentException.class,
+                () -> acreditacionServiceImpl.getAccreditations(null, day, day.minusDays(1), null, null));
+        assertEquals(INVALID_DATE_RANGE, exception.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> AccreditationCursor.parse("2024-03-31"));
+    }
+
+    /**
+     * Verifies that in the journal ingestion mode the accreditation is handed to the write-behind journal
+     * and returned without being saved through the repository or counted in the rollups before it is written.
+     */
+    @Test
+    void receiveAccreditation_JournalsWhenWriteBehindIsEnabled() {
+        when(puntoVentaServiceImpl.nameOf(ID_POINT_SALE1)).thenReturn(POINT_SALE_1);
+        when(writeBehind.isEnabled()).thenReturn(true);
+
+        Accreditation result = acreditacionServiceImpl.receiveAccreditation(AMOUNT, ID_POINT_SALE1);
+
+        assertNull(result.getId());
+        assertEquals(POINT_SALE_1, result.getPointSaleName());
+        verify(writeBehind, times(1)).submit(result);
+        verify(accreditationRepository, never()).save(any(Accreditation.class));
+        verify(rollups, never()).record(any(), any(), anyDouble());
     }
-}
\ No newline at end of file
+}
@@ -1,18 +1,40 @@
 package com.proyecto.challengejava.service;
 
+import com.proyecto.challengejava.config.RoutingProperties;
 import com.proyecto.challengejava.dto.CostPointsResponse;
+import com.proyecto.challengejava.dto.ComponentsResponse;
+import com.proyecto.challengejava.dto.CostEdge;
+import com.proyecto.challengejava.dto.HydrationStatus;
+import com.proyecto.challengejava.dto.CostPointsRequest;
+import com.proyecto.challengejava.dto.DistanceMatrixRow;
+import com.proyecto.challengejava.dto.MinCostRoute;
+import com.proyecto.challengejava.dto.MstResponse;
+import com.proyecto.challengejava.dto.ReachablePointResponse;
+import com.proyecto.challengejava.dto.RouteBatchResult;
+import com.proyecto.challengejava.dto.RouteQueryStats;
+import com.proyecto.challengejava.dto.RouteStatsResponse;
 import com.proyecto.challengejava.entity.CostPoints;
 import com.proyecto.challengejava.entity.PointSale;
+import com.proyecto.challengejava.enums.RouteEngineType;
+import com.proyecto.challengejava.exception.GraphHydratingException;
 import com.proyecto.challengejava.exception.PointSaleNotFoundException;
+import com.proyecto.challengejava.exception.RouteNotFoundException;
+import com.proyecto.challengejava.exception.RouteTimeoutException;
 import com.proyecto.challengejava.repository.CostRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.dao.QueryTimeoutException;
 
+import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.Collectors;
 
 import static com.proyecto.challengejava.constants.ConstantsTest.*;
 import static org.junit.jupiter.api.Assertions.*;
@@ -43,7 +65,7 @@ public class CostPointsServiceImplTest {
         MockitoAnnotations.openMocks(this);
 
         // Mock initial sales points and cost repository data
-        when(puntoVentaServiceImpl.getAllPointSale()).thenReturn(Arrays.asList(
+        stubPoints(puntoVentaServiceImpl, Arrays.asList(
                 new PointSale() {{ setId(1L); setName(POINTS_OF_SALE.get(0)); }},
                 new PointSale() {{ setId(2L); setName(POINTS_OF_SALE.get(1)); }},
                 new PointSale() {{ setId(3L); setName(POINTS_OF_SALE.get(2)); }},
@@ -56,13 +78,16 @@ public class CostPointsServiceImplTest {
                 new PointSale() {{ setId(10L); setName(POINTS_OF_SALE.get(9)); }}
         ));
 
-        when(costRepository.findAll()).thenReturn(Arrays.asList(
-                new CostPoints() {{ setIdA(1L); setIdB(2L); setCost(2.0); }},
-                new CostPoints() {{ setIdA(1L); setIdB(3L); setCost(3.0); }},
-                new CostPoints() {{ setIdA(1L); setIdB(4L); setCost(4.0); }}
+        when(costRepository.findEdgesAfter(eq(0L), any())).thenReturn(Arrays.asList(
+                new CostEdge(1L, 1L, 2L, 2.0),
+                new CostEdge(2L, 1L, 3L, 3.0),
+                new CostEdge(3L, 1L, 4L, 4.0)
         ));
 
-        costoPuntosServiceImpl = new CostPointsServiceImpl(puntoVentaServiceImpl, costRepository);
+        doCallRealMethod().when(costRepository).saveCost(any(), any(), any());
+        doCallRealMethod().when(costRepository).deleteCostsOf(any());
+
+        costoPuntosServiceImpl = new CostPointsServiceImpl(puntoVentaServiceImpl, costRepository, new RoutingProperties());
 
         // Preload cache
         costoPuntosServiceImpl.loadCacheFromDB();
@@ -168,7 +193,7 @@ public class CostPointsServiceImplTest {
      */
     @Test
     void calculateMinPath_ThrowsIllegalArgumentException_WhenPointSaleDoesNotExist() {
-        when(puntoVentaServiceImpl.getAllPointSale()).thenReturn(Arrays.asList(
+        stubPoints(puntoVentaServiceImpl, Arrays.asList(
                 new PointSale() {{ setId(ID_POINT_SALE1); setName(POINTS_OF_SALE.get(0)); }},
                 new PointSale() {{ setId(ID_POINT_SALE2); setName(POINTS_OF_SALE.get(1)); }}
         ));
@@ -207,23 +232,73 @@ public class CostPointsServiceImplTest {
     }
 
     /**
-     * Verifies that {@code deleteRelatedCostsToA} removes all costs linked to a sales point.
+     * Verifies that {@code deleteRelatedCostsToA} removes all costs linked to a sales point
+     * with a single bulk delete, without loading any cost.
      */
     @Test
     void deleteRelatedCostsTo_DeletesFromRepository() {
         Long id = 2L;
 
-        CostPoints cost1 = new CostPoints(); cost1.setIdA(1L); cost1.setIdB(2L); cost1.setCost(2.0);
-        CostPoints cost2 = new CostPoints(); cost2.setIdA(2L); cost2.setIdB(3L); cost2.setCost(2.5);
-        CostPoints cost3 = new CostPoints(); cost3.setIdA(4L); cost3.setIdB(5L); cost3.setCost(3.0); // unrelated
+        costoPuntosServiceImpl.deleteRelatedCostsTo(id);
 
-        when(costRepository.findAll()).thenReturn(Arrays.asList(cost1, cost2, cost3));
+        verify(costRepository).deleteCostsOf(id);
+        verify(costRepository).deleteByPoint(id);
+        verify(costRepository, never()).findAll();
+        assertEquals(2, costoPuntosServiceImpl.getCostsFromPoint(1L).size());
+    }
 
-        costoPuntosServiceImpl.deleteRelatedCostsTo(id);
+    /**
+     * Verifies that the cache is loaded page by page, each page starting after the last ID of the previous one.
+     */
+    @Test
+    void loadCacheFromDB_ReadsKeysetPages() {
+        RoutingProperties properties = new RoutingProperties();
+        properties.setHydrationPageSize(2);
+        when(costRepository.findEdgesAfter(eq(0L), any())).thenReturn(List.of(
+                new CostEdge(4L, 1L, 2L, 2.0), new CostEdge(7L, 2L, 3L, 3.0)));
+        when(costRepository.findEdgesAfter(eq(7L), any())).thenReturn(List.of(
+                new CostEdge(9L, 3L, 4L, 4.0), new CostEdge(12L, 4L, 5L, 5.0)));
+        when(costRepository.findEdgesAfter(eq(12L), any())).thenReturn(List.of(new CostEdge(15L, 5L, 6L, 6.0)));
+        CostPointsServiceImpl service = new CostPointsServiceImpl(puntoVentaServiceImpl, costRepository, properties);
+
+        service.loadCacheFromDB();
+
+        assertEquals(18.0, service.calculateTotalRouteCost(service.calculateMinPath(2L, 6L)));
+        verify(costRepository, never()).findEdgesAfter(eq(15L), any());
+        verify(costRepository, never()).findAll();
+    }
 
-        verify(costRepository).delete(cost1);
-        verify(costRepository).delete(cost2);
-        verify(costRepository, never()).delete(cost3);
+    /**
+     * Verifies that a background load reports progress and only turns ready once every cost is loaded,
+     * and that route queries are refused until then.
+     */
+    @Test
+    void init_HydratesInBackground() throws Exception {
+        RoutingProperties properties = new RoutingProperties();
+        properties.setHydrateInBackground(true);
+        CountDownLatch release = new CountDownLatch(1);
+        when(costRepository.findEdgesAfter(eq(0L), any())).thenAnswer(invocation -> {
+            release.await();
+            return List.of(new CostEdge(1L, 1L, 2L, 2.0));
+        });
+        CostPointsServiceImpl service = new CostPointsServiceImpl(puntoVentaServiceImpl, costRepository, properties);
+
+        service.init();
+        HydrationStatus loading = service.getHydrationStatus();
+        assertThrows(GraphHydratingException.class, () -> service.calculateMinCostRoute(1L, 2L));
+        assertThrows(GraphHydratingException.class, service::getComponents);
+        release.countDown();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!service.getHydrationStatus().isReady() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertFalse(loading.isReady());
+        assertTrue(service.getHydrationStatus().isReady());
+        assertEquals(HYDRATION_DATABASE, service.getHydrationStatus().getSource());
+        assertEquals(1, service.getHydrationStatus().getLoadedCosts());
+        assertEquals(List.of(1L, 2L), service.calculateMinCostRoute(1L, 2L).getRoute());
+        service.shutdown();
     }
 
     /**
@@ -235,14 +310,14 @@ public class CostPointsServiceImplTest {
         Long pointA = 1L;
         Long pointB = 4L;
 
-        when(puntoVentaServiceImpl.getAllPointSale()).thenReturn(Arrays.asList(
+        stubPoints(puntoVentaServiceImpl, Arrays.asList(
                 new PointSale() {{ setId(1L); setName("P1"); }},
                 new PointSale() {{ setId(2L); setName("P2"); }},
                 new PointSale() {{ setId(3L); setName("P3"); }},
                 new PointSale() {{ setId(4L); setName("P4"); }}
         ));
 
-        costoPuntosServiceImpl.getCache().clear();
+        costoPuntosServiceImpl.clearCache();
         costoPuntosServiceImpl.addCostPoints(1L, 2L, 1.0);
         costoPuntosServiceImpl.addCostPoints(2L, 3L, 1.0);
         costoPuntosServiceImpl.addCostPoints(3L, 4L, 1.0);
@@ -254,6 +329,326 @@ public class CostPointsServiceImplTest {
         assertEquals(Arrays.asList(1L, 2L, 3L, 4L), ruta);
     }
 
+    /**
+     * Verifies that {@code calculateMinPath} stops routing through a point once its costs are deleted.
+     */
+    @Test
+    void calculateMinPath_SkipsPointAfterDeleteRelatedCosts() {
+        costoPuntosServiceImpl.addCostPoints(2L, 4L, 1.0);
+        assertEquals(Arrays.asList(1L, 2L, 4L), costoPuntosServiceImpl.calculateMinPath(1L, 4L));
+
+        costoPuntosServiceImpl.deleteRelatedCostsTo(2L);
+
+        assertEquals(Arrays.asList(1L, 4L), costoPuntosServiceImpl.calculateMinPath(1L, 4L));
+    }
+
+    /**
+     * Verifies that a route between disconnected points is rejected, also once a bridge is removed.
+     */
+    @Test
+    void calculateMinPath_ThrowsRouteNotFoundException_WhenPointsDisconnected() {
+        assertThrows(RouteNotFoundException.class, () -> costoPuntosServiceImpl.calculateMinPath(2L, 5L));
+
+        costoPuntosServiceImpl.addCostPoints(4L, 5L, 1.0);
+        assertEquals(Arrays.asList(2L, 1L, 4L, 5L), costoPuntosServiceImpl.calculateMinPath(2L, 5L));
+
+        costoPuntosServiceImpl.deleteRelatedCostsTo(4L);
+        assertThrows(RouteNotFoundException.class, () -> costoPuntosServiceImpl.calculateMinPath(2L, 5L));
+    }
+
+    /**
+     * Verifies that {@code getComponents} counts the components and their sizes.
+     */
+    @Test
+    void getComponents_ReturnsSizes() {
+        costoPuntosServiceImpl.addCostPoints(5L, 6L, 1.0);
+
+        ComponentsResponse components = costoPuntosServiceImpl.getComponents();
+
+        assertEquals(2, components.getCount());
+        assertEquals(List.of(4, 2), components.getSizes());
+    }
+
+    /**
+     * Verifies that {@code getCache} exposes the costs under ID_A-ID_B keys and rejects modifications.
+     */
+    @Test
+    void getCache_ReturnsReadOnlyView() {
+        assertEquals(2.0, costoPuntosServiceImpl.getCache().get("1-2"));
+        assertEquals(3, costoPuntosServiceImpl.getCache().size());
+        assertThrows(UnsupportedOperationException.class, () -> costoPuntosServiceImpl.getCache().clear());
+    }
+
+    /**
+     * Verifies that the bidirectional engine returns the same route as the default one.
+     */
+    @Test
+    void calculateMinPath_Bidirectional_ReturnsSameRoute() {
+        RoutingProperties properties = new RoutingProperties();
+        properties.setEngine(RouteEngineType.BIDIRECTIONAL);
+        CostPointsServiceImpl bidirectional = new CostPointsServiceImpl(puntoVentaServiceImpl, costRepository, properties);
+        bidirectional.loadCacheFromDB();
+        bidirectional.addCostPoints(2L, 5L, 1.0);
+        bidirectional.addCostPoints(5L, 4L, 0.5);
+
+        List<Long> route = bidirectional.calculateMinPath(3L, 4L);
+
+        assertEquals(Arrays.asList(3L, 1L, 2L, 5L, 4L), route);
+        assertEquals(6.5, bidirectional.calculateTotalRouteCost(route));
+    }
+
+    /**
+     * Verifies that {@code getRouteStats} reports the settled nodes of each route query.
+     */
+    @Test
+    void getRouteStats_ReportsSettledNodes() {
+        costoPuntosServiceImpl.calculateMinPath(2L, 1L);
+        costoPuntosServiceImpl.calculateMinPath(2L, 4L);
+
+        RouteStatsResponse stats = costoPuntosServiceImpl.getRouteStats();
+
+        assertEquals("DIJKSTRA", stats.getEngine());
+        assertEquals(2, stats.getQueries());
+        assertEquals(2, stats.getRecentQueries().size());
+        assertEquals(2, stats.getRecentQueries().get(0).getSettledNodes());
+        assertEquals(4, stats.getRecentQueries().get(1).getSettledNodes());
+    }
+
+    /**
+     * Verifies that a repeated route is served from the route cache until a cost on it changes.
+     */
+    @Test
+    void calculateMinPath_ServesRepeatedRouteFromCache() {
+        List<Long> first = costoPuntosServiceImpl.calculateMinPath(2L, 4L);
+        List<Long> second = costoPuntosServiceImpl.calculateMinPath(2L, 4L);
+
+        assertEquals(first, second);
+        assertEquals(1, costoPuntosServiceImpl.getRouteStats().getQueries());
+        assertEquals(1, costoPuntosServiceImpl.getRouteStats().getCache().getHits());
+
+        costoPuntosServiceImpl.addCostPoints(first.get(0), first.get(1), 100.0);
+        costoPuntosServiceImpl.calculateMinPath(2L, 4L);
+
+        assertEquals(2, costoPuntosServiceImpl.getRouteStats().getQueries());
+        assertEquals(1, costoPuntosServiceImpl.getRouteStats().getCache().getInvalidations());
+    }
+
+    /**
+     * Verifies that a route reports the snapshot version it was computed on, which only moves
+     * after a cost change, and that route, hop costs and total cost agree.
+     */
+    @Test
+    void calculateMinCostRoute_ReportsSnapshotVersion() {
+        MinCostRoute first = costoPuntosServiceImpl.calculateMinCostRoute(2L, 4L);
+        MinCostRoute cached = costoPuntosServiceImpl.calculateMinCostRoute(2L, 4L);
+
+        assertEquals(List.of(2L, 1L, 4L), first.getRoute());
+        assertEquals(List.of(2.0, 4.0), first.getHopCosts());
+        assertEquals(6.0, first.getTotalCost());
+        assertEquals(first.getSnapshotVersion(), cached.getSnapshotVersion());
+
+        costoPuntosServiceImpl.addCostPoints(2L, 4L, 1.0);
+        MinCostRoute updated = costoPuntosServiceImpl.calculateMinCostRoute(2L, 4L);
+
+        assertEquals(List.of(2L, 4L), updated.getRoute());
+        assertEquals(1.0, updated.getTotalCost());
+        assertTrue(updated.getSnapshotVersion() > first.getSnapshotVersion());
+    }
+
+    /**
+     * Verifies that a route computed within its deadline is returned as usual,
+     * and that a computation still running at the deadline is reported as a timeout.
+     */
+    @Test
+    void calculateMinCostRoute_ThrowsRouteTimeoutException_WhenDeadlinePasses() {
+        assertEquals(6.0, costoPuntosServiceImpl.calculateMinCostRoute(2L, 4L, 5_000L).getTotalCost());
+
+        when(puntoVentaServiceImpl.exists(any())).thenAnswer(invocation -> {
+            Thread.sleep(2_000);
+            return true;
+        });
+
+        RouteTimeoutException exception = assertThrows(RouteTimeoutException.class, () ->
+                costoPuntosServiceImpl.calculateMinCostRoute(2L, 4L, 50L));
+        assertEquals(String.format(ROUTE_DEADLINE_EXCEEDED, 2L, 4L, 50L), exception.getMessage());
+        assertEquals(50L, exception.getDeadlineMillis());
+        assertTrue(exception.getElapsedMillis() >= 50L);
+    }
+
+    /**
+     * Verifies that a requested deadline of zero or less is rejected
+     * and that, once a deadline is configured, a longer one is capped at it.
+     */
+    @Test
+    void calculateMinCostRoute_ValidatesAndCapsRequestedDeadline() {
+        assertThrows(IllegalArgumentException.class, () -> costoPuntosServiceImpl.calculateMinCostRoute(2L, 4L, 0L));
+        assertThrows(IllegalArgumentException.class, () -> costoPuntosServiceImpl.calculateMinCostRoute(2L, 4L, -1L));
+
+        RoutingProperties properties = new RoutingProperties();
+        properties.setRouteDeadlineMillis(200);
+        CostPointsServiceImpl service = new CostPointsServiceImpl(puntoVentaServiceImpl, costRepository, properties);
+        service.loadCacheFromDB();
+        when(puntoVentaServiceImpl.exists(any())).thenAnswer(invocation -> {
+            Thread.sleep(5_000);
+            return true;
+        });
+
+        RouteTimeoutException exception = assertThrows(RouteTimeoutException.class, () ->
+                service.calculateMinCostRoute(2L, 4L, Long.MAX_VALUE));
+        assertEquals(200L, exception.getDeadlineMillis());
+    }
+
+    /**
+     * Verifies that a frequently queried origin becomes hot and that routes read off its tree
+     * follow later cost changes.
+     */
+    @Test
+    void calculateMinCostRoute_ServesHotOriginFromTree() {
+        for (int i = 0; i < new RoutingProperties().getHotOriginMinQueries(); i++) {
+            costoPuntosServiceImpl.calculateMinCostRoute(2L, 4L);
+        }
+        assertEquals(List.of(2L), costoPuntosServiceImpl.getRouteStats().getHotOrigins());
+
+        costoPuntosServiceImpl.addCostPoints(1L, 3L, 0.5);
+        costoPuntosServiceImpl.addCostPoints(3L, 4L, 1.0);
+        MinCostRoute route = costoPuntosServiceImpl.calculateMinCostRoute(2L, 4L);
+
+        assertEquals(List.of(2L, 1L, 3L, 4L), route.getRoute());
+        assertEquals(3.5, route.getTotalCost());
+        List<RouteQueryStats> recent = costoPuntosServiceImpl.getRouteStats().getRecentQueries();
+        assertEquals(0, recent.get(recent.size() - 1).getSettledNodes());
+    }
+
+    /**
+     * Verifies the spanning forest of the seed costs and that it is reused until a cost changes.
+     */
+    @Test
+    void getMinimumSpanningForest_ReturnsCheapestLinks() {
+        MstResponse forest = costoPuntosServiceImpl.getMinimumSpanningForest();
+
+        assertSame(forest, costoPuntosServiceImpl.getMinimumSpanningForest());
+        assertEquals(forest.getEdges().size() + forest.getTrees(),
+                costoPuntosServiceImpl.getComponents().getSizes().stream().mapToInt(Integer::intValue).sum());
+
+        costoPuntosServiceImpl.addCostPoints(2L, 3L, 0.5);
+        MstResponse updated = costoPuntosServiceImpl.getMinimumSpanningForest();
+
+        assertNotSame(forest, updated);
+        assertEquals(forest.getEdges().size(), updated.getEdges().size());
+        assertTrue(updated.getTotalCost() < forest.getTotalCost());
+        assertTrue(updated.getEdges().stream().anyMatch(edge -> edge.getCost() == 0.5));
+    }
+
+    /**
+     * Verifies that the alternative routes come cheapest first and that a disconnected pair has no route.
+     */
+    @Test
+    void calculateAlternativeRoutes_ReturnsCheapestFirst() {
+        costoPuntosServiceImpl.addCostPoints(2L, 4L, 10.0);
+
+        List<MinCostRoute> routes = costoPuntosServiceImpl.calculateAlternativeRoutes(2L, 4L, 3);
+
+        assertEquals(2, routes.size());
+        assertEquals(List.of(2L, 1L, 4L), routes.get(0).getRoute());
+        assertEquals(6.0, routes.get(0).getTotalCost());
+        assertEquals(List.of(2L, 4L), routes.get(1).getRoute());
+        assertEquals(10.0, routes.get(1).getTotalCost());
+
+        assertThrows(RouteNotFoundException.class, () -> costoPuntosServiceImpl.calculateAlternativeRoutes(2L, 5L, 3));
+    }
+
+    /**
+     * Verifies that {@code k} outside the configured range is rejected.
+     */
+    @Test
+    void calculateAlternativeRoutes_ThrowsIllegalArgumentException_WhenKOutOfRange() {
+        assertThrows(IllegalArgumentException.class, () -> costoPuntosServiceImpl.calculateAlternativeRoutes(2L, 4L, 0));
+        assertThrows(IllegalArgumentException.class, () -> costoPuntosServiceImpl.calculateAlternativeRoutes(2L, 4L, 11));
+    }
+
+    /**
+     * Verifies that a batch answers valid pairs like the single-pair calculation and reports invalid pairs inline.
+     */
+    @Test
+    void calculateMinPaths_ReturnsRoutesAndInlineErrors() {
+        List<RouteBatchResult> results = costoPuntosServiceImpl.calculateMinPaths(List.of(
+                new CostPointsRequest(2L, 4L),
+                new CostPointsRequest(2L, 3L),
+                new CostPointsRequest(5L, 5L),
+                new CostPointsRequest(2L, 99L),
+                new CostPointsRequest(5L, 1L)));
+
+        assertEquals(5, results.size());
+        assertEquals(List.of(2L, 1L, 4L), results.get(0).getRoute());
+        assertEquals(6.0, results.get(0).getTotalCost());
+        assertEquals(List.of(2L, 1L, 3L), results.get(1).getRoute());
+        assertEquals(5.0, results.get(1).getTotalCost());
+        assertEquals(INVALID_ID_EXCEPTION, results.get(2).getError());
+        assertEquals(POINT_OF_SALE_NOT_FOUND, results.get(3).getError());
+        assertNull(results.get(4).getRoute());
+        assertEquals(String.format(NO_ROUTE_BETWEEN, 5L, 1L), results.get(4).getError());
+        verify(puntoVentaServiceImpl, never()).getAllPointSale();
+    }
+
+    /**
+     * Verifies that a batch larger than the configured limit is rejected.
+     */
+    @Test
+    void calculateMinPaths_ThrowsIllegalArgumentException_WhenBatchTooLarge() {
+        RoutingProperties properties = new RoutingProperties();
+        properties.setBatchMaxPairs(1);
+        CostPointsServiceImpl service = new CostPointsServiceImpl(puntoVentaServiceImpl, costRepository, properties);
+
+        assertThrows(IllegalArgumentException.class, () -> service.calculateMinPaths(List.of(
+                new CostPointsRequest(1L, 2L), new CostPointsRequest(1L, 3L))));
+    }
+
+    /**
+     * Verifies that the distance matrix has one row per origin, with costs in the order of the destinations.
+     */
+    @Test
+    void calculateDistanceMatrix_ReturnsOneRowPerSource() {
+        Map<Long, List<Double>> rows = costoPuntosServiceImpl.calculateDistanceMatrix(List.of(2L, 3L, 5L), List.of(4L, 1L, 5L))
+                .collect(Collectors.toMap(DistanceMatrixRow::getSource, DistanceMatrixRow::getCosts));
+
+        assertEquals(3, rows.size());
+        assertEquals(Arrays.asList(6.0, 2.0, null), rows.get(2L));
+        assertEquals(Arrays.asList(7.0, 3.0, null), rows.get(3L));
+        assertEquals(Arrays.asList(null, null, 0.0), rows.get(5L));
+    }
+
+    /**
+     * Verifies that the reachable points within a budget come cheapest first, with their names,
+     * and that the budget is inclusive.
+     */
+    @Test
+    void calculateReachablePoints_ReturnsPointsWithinBudget() {
+        List<ReachablePointResponse> points = costoPuntosServiceImpl.calculateReachablePoints(2L, 5.0).toList();
+
+        assertEquals(List.of(1L, 3L), points.stream().map(ReachablePointResponse::getId).toList());
+        assertEquals(List.of(2.0, 5.0), points.stream().map(ReachablePointResponse::getCost).toList());
+        assertEquals(POINTS_OF_SALE.get(0), points.get(0).getName());
+        assertTrue(costoPuntosServiceImpl.calculateReachablePoints(5L, 100.0).toList().isEmpty());
+    }
+
+    /**
+     * Verifies that a negative budget or an unknown origin is rejected.
+     */
+    @Test
+    void calculateReachablePoints_ThrowsIllegalArgumentException_WhenInvalid() {
+        assertThrows(IllegalArgumentException.class, () -> costoPuntosServiceImpl.calculateReachablePoints(2L, -1.0));
+        assertThrows(IllegalArgumentException.class, () -> costoPuntosServiceImpl.calculateReachablePoints(99L, 1.0));
+    }
+
+    /**
+     * Verifies that a matrix with an unknown point is rejected before any row is computed.
+     */
+    @Test
+    void calculateDistanceMatrix_ThrowsIllegalArgumentException_WhenPointNotFound() {
+        assertThrows(IllegalArgumentException.class,
+                () -> costoPuntosServiceImpl.calculateDistanceMatrix(List.of(1L), List.of(99L)));
+    }
+
     /**
      * Verifies that {@code getCostsFromPoint} works even if the point is the destination (idB).
      */
@@ -263,12 +658,12 @@ public class CostPointsServiceImplTest {
         Long idA = 2L;
         Long relatedId = 1L;
 
-        when(puntoVentaServiceImpl.getAllPointSale()).thenReturn(Arrays.asList(
+        stubPoints(puntoVentaServiceImpl, Arrays.asList(
                 new PointSale() {{ setId(idA); setName("Point 2"); }},
                 new PointSale() {{ setId(relatedId); setName("Point 1"); }}
         ));
 
-        costoPuntosServiceImpl.getCache().clear();
+        costoPuntosServiceImpl.clearCache();
         costoPuntosServiceImpl.addCostPoints(relatedId, idA, 5.5); // creates key "1-2"
 
         // Act
@@ -302,7 +697,7 @@ public class CostPointsServiceImplTest {
         when(costRepository.findByIdAAndIdB(minor, mayor)).thenReturn(Optional.of(existing));
 
         // Act
-        when(pointSaleService.getAllPointSale()).thenReturn(List.of(
+        stubPoints(pointSaleService, List.of(
                 new PointSale(idA, "A"),
                 new PointSale(idB, "B")
         ));
@@ -313,4 +708,75 @@ public class CostPointsServiceImplTest {
         assertEquals(newCost, existing.getCost());
         verify(costRepository).save(existing);
     }
-}
\ No newline at end of file
+
+    /**
+     * Verifies that a snapshot saved on shutdown is loaded on the next startup while the database version
+     * marker matches, and that the costs are loaded from the database once the marker has moved.
+     */
+    @Test
+    void init_LoadsSnapshotOnlyWhileDatabaseVersionMatches(@TempDir Path directory) throws Exception {
+        RoutingProperties properties = new RoutingProperties();
+        properties.setSnapshotFile(directory.resolve("graph.snapshot").toString());
+        properties.setSnapshotIntervalSeconds(0);
+        when(costRepository.findGraphVersion()).thenReturn(Optional.of(SNAPSHOT_VERSION));
+        CostPointsServiceImpl first = new CostPointsServiceImpl(puntoVentaServiceImpl, costRepository, properties);
+        first.init();
+        first.shutdown();
+        verify(costRepository, times(2)).findEdgesAfter(eq(0L), any());
+
+        CostPointsServiceImpl warm = new CostPointsServiceImpl(puntoVentaServiceImpl, costRepository, properties);
+        warm.init();
+
+        verify(costRepository, times(2)).findEdgesAfter(eq(0L), any());
+        assertEquals(3, warm.getCostsFromPoint(1L).size());
+
+        when(costRepository.findGraphVersion()).thenReturn(Optional.of(SNAPSHOT_VERSION + 1));
+        CostPointsServiceImpl cold = new CostPointsServiceImpl(puntoVentaServiceImpl, costRepository, properties);
+        cold.init();
+
+        verify(costRepository, times(3)).findEdgesAfter(eq(0L), any());
+        assertEquals(3, cold.getCostsFromPoint(1L).size());
+    }
+
+    /**
+     * Verifies that a cost and the version marker are written in one repository call, and that a failed write
+     * leaves the graph untouched.
+     */
+    @Test
+    void addCostPoints_ChangesGraphOnlyAfterDatabaseWrite() {
+        costoPuntosServiceImpl.addCostPoints(1L, 5L, 6.0);
+
+        var order = inOrder(costRepository);
+        order.verify(costRepository).saveCost(1L, 5L, 6.0);
+        order.verify(costRepository).incrementGraphVersion();
+        order.verify(costRepository).save(any(CostPoints.class));
+
+        Long version = costoPuntosServiceImpl.calculateMinCostRoute(1L, 5L).getSnapshotVersion();
+        doThrow(new QueryTimeoutException("timeout")).when(costRepository).saveCost(1L, 5L, 1.0);
+
+        assertThrows(QueryTimeoutException.class, () -> costoPuntosServiceImpl.addCostPoints(1L, 5L, 1.0));
+        assertEquals(6.0, costoPuntosServiceImpl.calculateMinCostRoute(1L, 5L).getTotalCost());
+        assertEquals(version, costoPuntosServiceImpl.calculateMinCostRoute(1L, 5L).getSnapshotVersion());
+    }
+
+    /**
+     * Verifies that a removed cost is written to the database as 0, so a cold start loads what the cache holds.
+     */
+    @Test
+    void removeCostPoints_PersistsZeroCost() {
+        costoPuntosServiceImpl.removeCostPoints(1L, 2L);
+
+        verify(costRepository).saveCost(1L, 2L, 0.0);
+        verify(costRepository, times(1)).incrementGraphVersion();
+        assertEquals(0.0, costoPuntosServiceImpl.getCostsFromPoint(1L).get(0).getCost());
+    }
+
+    /**
+     * Stubs the point-of-sale registry of a mocked service with the given points.
+     */
+    private static void stubPoints(PointSaleService service, List<PointSale> points) {
+        Map<Long, String> names = points.stream().collect(Collectors.toMap(PointSale::getId, PointSale::getName));
+        when(service.exists(any())).thenAnswer(invocation -> names.containsKey(invocation.<Long>getArgument(0)));
+        when(service.nameOf(any())).thenAnswer(invocation -> names.get(invocation.<Long>getArgument(0)));
+    }
+}
@@ -204,4 +204,28 @@ public class PointSaleServiceImplTest {
         );
         assertEquals(POINT_OF_SALE_NOT_FOUND, ex.getMessage());
     }
+
+    /**
+     * Verifies that {@code exists} and {@code nameOf} follow every create, update and delete
+     * without querying the database again after startup.
+     */
+    @Test
+    void registry_StaysCoherentWithMutations() {
+        service.init();
+
+        assertTrue(service.exists(ID_POINT_SALE1));
+        assertEquals("Point 1", service.nameOf(ID_POINT_SALE1));
+        assertFalse(service.exists(INVALID_ID));
+        assertNull(service.nameOf(INVALID_ID));
+        assertFalse(service.exists(null));
+
+        service.addPointSale(POINT_SALE_3);
+        service.updatePointSale(2L, POINT_SALE_5);
+        service.deletePointSale(4L);
+
+        assertEquals(POINT_SALE_3, service.nameOf(11L));
+        assertEquals(POINT_SALE_5, service.nameOf(2L));
+        assertFalse(service.exists(4L));
+        verify(pointSaleRepository, times(1)).findAll();
+    }
 }